@@ -19,6 +19,9 @@ public class DisableJoinMessages extends JavaPlugin implements Listener, Command
     
     private boolean disableMessages = true;
     
+    // 是否记录每次拦截（缓存配置值，关闭时事件处理中不拼接字符串）
+    private boolean logInterceptedMessages = false;
+    
     @Override
     public void onEnable() {
         // 注册事件监听器
@@ -30,6 +33,7 @@ public class DisableJoinMessages extends JavaPlugin implements Listener, Command
         // 从配置文件读取设置
         saveDefaultConfig();
         disableMessages = getConfig().getBoolean("disable-messages", true);
+        logInterceptedMessages = getConfig().getBoolean("debug.log-intercepted-messages", false);
         
         getLogger().info("DisableJoinMessages 插件已启用！");
         getLogger().info("默认加入/离开消息已" + (disableMessages ? "禁用" : "启用"));
@@ -47,7 +51,9 @@ public class DisableJoinMessages extends JavaPlugin implements Listener, Command
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
         if (disableMessages) {
-            getLogger().info("禁用玩家 " + event.getPlayer().getName() + " 的加入消息");
+            if (logInterceptedMessages) {
+                getLogger().info("禁用玩家 " + event.getPlayer().getName() + " 的加入消息");
+            }
             event.setJoinMessage(null); // 完全禁用加入消息
         }
     }
@@ -58,7 +64,9 @@ public class DisableJoinMessages extends JavaPlugin implements Listener, Command
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerQuit(PlayerQuitEvent event) {
         if (disableMessages) {
-            getLogger().info("禁用玩家 " + event.getPlayer().getName() + " 的离开消息");
+            if (logInterceptedMessages) {
+                getLogger().info("禁用玩家 " + event.getPlayer().getName() + " 的离开消息");
+            }
             event.setQuitMessage(null); // 完全禁用离开消息
         }
     }
@@ -1,6 +1,7 @@
 plugins {
     java
     id("com.github.johnrengelman.shadow") version "8.1.1"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.example"
@@ -19,6 +20,16 @@ repositories {
     maven("https://hub.spigotmc.org/nexus/content/repositories/snapshots/") // Spigot
 }
 
+// 负载模拟 (src/loadtest/java，运行: ./gradlew loadTest)
+sourceSets {
+    create("loadtest") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+
+configurations["loadtestImplementation"].extendsFrom(configurations.implementation.get())
+
 dependencies {
     // 代理端依赖 (compileOnly to avoid conflicts)
     compileOnly("com.velocitypowered:velocity-api:3.2.0-SNAPSHOT")
@@ -39,6 +50,31 @@ dependencies {
     
     // JSON处理 (用于持久化玩家数据)
     implementation("com.google.code.gson:gson:2.10.1")
+    
+    // 基准测试 (src/jmh/java，运行: ./gradlew jmh)
+    jmh("net.kyori:adventure-text-minimessage:4.14.0")
+    jmh("net.md-5:bungeecord-api:1.19-R0.1-SNAPSHOT")
+    
+    // 负载模拟在进程内替身上运行真实的 Velocity 适配器
+    "loadtestImplementation"("com.velocitypowered:velocity-api:3.2.0-SNAPSHOT")
+    
+    // 单元测试 (src/test/java，运行: ./gradlew test)
+    testImplementation("org.junit.jupiter:junit-jupiter:5.10.0")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    testImplementation("org.slf4j:slf4j-api:1.7.36")
+    testImplementation("net.kyori:adventure-text-minimessage:4.14.0")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // 同时报告分配速率 (gc.alloc.rate / gc.alloc.rate.norm)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    // 只运行匹配的基准: ./gradlew jmh -PjmhIncludes=TimeUtil
+    project.findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
 }
 
 tasks {
@@ -52,6 +88,37 @@ tasks {
         options.compilerArgs.add("-parameters")
     }
     
+    compileTestJava {
+        options.encoding = "UTF-8"
+    }
+    
+    test {
+        useJUnitPlatform()
+    }
+    
+    // players.json 持久化独立基准（不依赖 JMH）
+    register<JavaExec>("persistenceBenchmark") {
+        group = "benchmark"
+        description = "Measures players.json load time, join latency, bytes written and allocation at 1k/100k/1M records"
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set("com.example.customjoinmessage.storage.PersistenceBenchmark")
+        args("1000", "100000", "1000000")
+        maxHeapSize = "4g"
+    }
+    
+    // 加入/离开风暴负载模拟: ./gradlew loadTest -PloadTestPlayers=5000 -PloadTestRounds=3 -PloadTestThreads=4
+    register<JavaExec>("loadTest") {
+        group = "benchmark"
+        description = "Replays synthetic join/switch/leave storms through the Velocity adapter and reports throughput, p50/p99 latency and messages per event"
+        classpath = sourceSets["loadtest"].runtimeClasspath
+        mainClass.set("com.example.customjoinmessage.loadtest.JoinStormSimulation")
+        args(
+            project.findProperty("loadTestPlayers") ?: "2000",
+            project.findProperty("loadTestRounds") ?: "3",
+            project.findProperty("loadTestThreads") ?: "1"
+        )
+    }
+    
     processResources {
         val props = mapOf(
             "version" to version,
@@ -0,0 +1,70 @@
+package com.example.customjoinmessage.benchmark;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基准测试使用的随插件发布的 config.yml
+ *
+ * 所有基准都以真实模板为输入，结果可以直接与线上消息对比
+ */
+public final class ShippedTemplates {
+
+    private ShippedTemplates() {
+    }
+
+    /**
+     * 加载随插件发布的 config.yml
+     */
+    public static Map<String, Object> loadConfig() {
+        try (InputStream inputStream = ShippedTemplates.class.getResourceAsStream("/config.yml")) {
+            if (inputStream == null) {
+                throw new IllegalStateException("classpath 中找不到 config.yml");
+            }
+            Map<String, Object> configData = new Yaml().load(inputStream);
+            return configData != null ? configData : Collections.emptyMap();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 收集 messages 与 localization.bundles 下的全部消息模板
+     */
+    public static List<String> loadTemplates() {
+        Map<String, Object> configData = loadConfig();
+        List<String> templates = new ArrayList<>();
+
+        collect(configData.get("messages"), templates);
+        Object localization = configData.get("localization");
+        if (localization instanceof Map) {
+            collect(((Map<?, ?>) localization).get("bundles"), templates);
+        }
+
+        if (templates.isEmpty()) {
+            throw new IllegalStateException("config.yml 中没有消息模板");
+        }
+        return templates;
+    }
+
+    private static void collect(Object node, List<String> templates) {
+        if (node instanceof Map) {
+            for (Object child : ((Map<?, ?>) node).values()) {
+                collect(child, templates);
+            }
+        } else if (node instanceof List) {
+            for (Object child : (List<?>) node) {
+                collect(child, templates);
+            }
+        } else if (node instanceof String) {
+            templates.add((String) node);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.customjoinmessage.benchmark;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 合成 players.json 生成器
+ *
+ * 以流式方式写出与线上格式一致的记录（固定种子，结果可复现），
+ * 基准测试无需服务器即可在任意规模下运行
+ */
+public final class SyntheticPlayerData {
+
+    private static final long MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(365);
+
+    private SyntheticPlayerData() {
+    }
+
+    /**
+     * 生成指定数量的玩家记录
+     *
+     * @param dataFile 输出文件（覆盖）
+     * @param records 记录数
+     * @param seed 随机种子
+     * @param sampleSize 返回的已存在玩家UUID样本数
+     * @return 文件中存在的玩家UUID样本（均匀分布在整个文件中）
+     */
+    public static List<UUID> generate(File dataFile, int records, long seed, int sampleSize) throws IOException {
+        Random random = new Random(seed);
+        long now = System.currentTimeMillis();
+        int sampleEvery = Math.max(1, records / Math.max(1, sampleSize));
+        List<UUID> sample = new ArrayList<>(Math.min(records, sampleSize));
+
+        File parent = dataFile.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        try (Writer writer = Files.newBufferedWriter(dataFile.toPath(), StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(writer)) {
+            json.beginObject();
+            for (int i = 0; i < records; i++) {
+                UUID playerId = new UUID(random.nextLong(), random.nextLong());
+                long firstJoinTime = now - (long) (random.nextDouble() * MAX_AGE_MILLIS);
+                long lastSeen = firstJoinTime + (long) (random.nextDouble() * (now - firstJoinTime));
+
+                json.name(playerId.toString()).beginObject()
+                    .name("name").value("Player" + i)
+                    .name("firstJoinTime").value(firstJoinTime)
+                    .name("lastSeen").value(lastSeen)
+                    .endObject();
+
+                if (i % sampleEvery == 0 && sample.size() < sampleSize) {
+                    sample.add(playerId);
+                }
+            }
+            json.endObject();
+        }
+
+        return sample;
+    }
+}
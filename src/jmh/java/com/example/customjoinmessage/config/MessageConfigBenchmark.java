@@ -0,0 +1,93 @@
+package com.example.customjoinmessage.config;
+
+import com.example.customjoinmessage.benchmark.ShippedTemplates;
+import com.example.customjoinmessage.core.PlayerRoster;
+import com.example.customjoinmessage.platform.ServerInfoProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageConfig 模板查找与格式化基准
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MessageConfigBenchmark {
+
+    private static final String PLAYER_NAME = "Player42";
+
+    private MessageConfig messageConfig;
+    private String joinTemplate;
+    private String welcomeTemplate;
+    private String switchTemplate;
+
+    @Setup
+    public void setup() {
+        // 模拟 200 人在线的名册，用于 {online_count} 等占位符
+        PlayerRoster playerRoster = new PlayerRoster();
+        for (int i = 0; i < 200; i++) {
+            playerRoster.join(UUID.randomUUID(), "Player" + i, i % 2 == 0 ? "lobby" : "survival",
+                i % 10 == 0 ? "vip" : "default");
+        }
+
+        messageConfig = new MessageConfig(ShippedTemplates.loadConfig(), playerRoster, new FixedServerInfo());
+        joinTemplate = messageConfig.getJoinMessage("default", "default");
+        welcomeTemplate = messageConfig.getWelcomeMessage("default", "first-time");
+        switchTemplate = messageConfig.getServerSwitchMessage("default", "default");
+    }
+
+    @Benchmark
+    public String formatJoin() {
+        return messageConfig.formatMessage(joinTemplate, PLAYER_NAME);
+    }
+
+    @Benchmark
+    public String formatWelcome() {
+        return messageConfig.formatMessage(welcomeTemplate, PLAYER_NAME);
+    }
+
+    @Benchmark
+    public String formatSwitch() {
+        return messageConfig.formatSwitchMessage(switchTemplate, PLAYER_NAME, "大厅", "生存服");
+    }
+
+    @Benchmark
+    public String lookupJoinTemplate() {
+        return messageConfig.getJoinMessage("vip", "returning");
+    }
+
+    @Benchmark
+    public String lookupLocalizedJoinTemplate() {
+        return messageConfig.getJoinMessage("vip", "returning", messageConfig.resolveLanguage(Locale.US));
+    }
+
+    /**
+     * 固定返回值的服务器信息
+     */
+    private static final class FixedServerInfo implements ServerInfoProvider {
+
+        @Override
+        public int getOnlineCount() {
+            return 200;
+        }
+
+        @Override
+        public int getMaxPlayers() {
+            return 500;
+        }
+
+        @Override
+        public String getServerName() {
+            return "Velocity";
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.customjoinmessage.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 平台探测基准
+ *
+ * jmh 类路径中带有 bungeecord-api（供颜色转换基准使用），直接调用 detect() 会在第二个探测点
+ * 命中 BungeeCord，对应 BungeeCord 上启用插件时的开销。
+ * 最坏情况（没有任何服务端 API，走完全部探测分支）在只包含插件类和 slf4j 的独立类加载器中测量
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PlatformDetectorBenchmark {
+
+    private URLClassLoader isolatedLoader;
+    private Method isolatedDetect;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        isolatedLoader = new URLClassLoader(new URL[]{
+            codeSource(PlatformDetector.class),
+            codeSource(LoggerFactory.class)
+        }, ClassLoader.getPlatformClassLoader());
+
+        Class<?> detector = Class.forName(PlatformDetector.class.getName(), true, isolatedLoader);
+        isolatedDetect = detector.getDeclaredMethod("detect");
+        isolatedDetect.setAccessible(true);
+
+        // 确认独立类加载器中看不到任何服务端 API
+        Object capabilities = isolatedDetect.invoke(null);
+        Object platform = capabilities.getClass().getMethod("getPlatformType").invoke(capabilities);
+        if (!PlatformDetector.PlatformType.UNKNOWN.name().equals(platform.toString())) {
+            throw new IllegalStateException("独立类加载器中探测到了平台: " + platform);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        isolatedLoader.close();
+    }
+
+    /**
+     * 完整探测一次，没有任何服务端 API（最坏情况，走完全部分支）
+     */
+    @Benchmark
+    public Object detectWorstCase() throws Exception {
+        return isolatedDetect.invoke(null);
+    }
+
+    /**
+     * 完整探测一次，类路径中有 BungeeCord API（BungeeCord 启用时的开销）
+     */
+    @Benchmark
+    public PlatformDetector.PlatformCapabilities detectBungeeCord() {
+        return PlatformDetector.detect();
+    }
+
+    /**
+     * 读取缓存的探测结果（运行期的开销）
+     */
+    @Benchmark
+    public PlatformDetector.PlatformType cachedPlatform() {
+        return PlatformDetector.detectPlatform();
+    }
+
+    private static URL codeSource(Class<?> type) {
+        return type.getProtectionDomain().getCodeSource().getLocation();
+    }
+}
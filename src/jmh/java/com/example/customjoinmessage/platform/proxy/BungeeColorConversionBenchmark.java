@@ -0,0 +1,47 @@
+package com.example.customjoinmessage.platform.proxy;
+
+import com.example.customjoinmessage.benchmark.ShippedTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BungeeCord MiniMessage -> 传统颜色代码转换基准
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class BungeeColorConversionBenchmark {
+
+    private List<String> templates;
+    private String joinTemplate;
+
+    @Setup
+    public void setup() {
+        templates = ShippedTemplates.loadTemplates();
+        joinTemplate = templates.get(0);
+    }
+
+    @Benchmark
+    public String convertJoin() {
+        return BungeeCordAdapter.convertBasicMiniMessageToBungee(joinTemplate);
+    }
+
+    /**
+     * 每次操作转换全部模板
+     */
+    @Benchmark
+    public void convertAllTemplates(Blackhole blackhole) {
+        for (String template : templates) {
+            blackhole.consume(BungeeCordAdapter.convertBasicMiniMessageToBungee(template));
+        }
+    }
+}
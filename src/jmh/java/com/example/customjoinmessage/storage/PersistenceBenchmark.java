@@ -0,0 +1,126 @@
+package com.example.customjoinmessage.storage;
+
+import com.example.customjoinmessage.benchmark.SyntheticPlayerData;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * players.json 独立基准（不依赖 JMH，运行: ./gradlew persistenceBenchmark）
+ *
+ * 对每个记录规模报告：
+ * - 冷启动加载耗时
+ * - 每次加入的延迟（p50 / p99，只访问内存索引）
+ * - 每次加入的堆分配量
+ * - 一次写回的耗时和写入的字节数（写入线程会把连续的修改合并为一次写回）
+ *
+ * 参数为记录数列表，默认 1000 100000 1000000；-Djoins=N 指定每个规模的加入次数
+ */
+public final class PersistenceBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private PersistenceBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] {1_000, 100_000, 1_000_000};
+
+        System.out.printf(Locale.ROOT, "%-10s %12s %12s %12s %14s %14s %12s %14s%n",
+            "records", "file(KB)", "load(ms)", "join p50(ms)", "join p99(ms)", "alloc/join", "flush(ms)", "written/flush");
+
+        for (int records : sizes) {
+            run(records);
+        }
+    }
+
+    private static void run(int records) throws Exception {
+        File dataFile = Files.createTempFile("cjm-players", ".json").toFile();
+        try {
+            List<UUID> knownPlayers = SyntheticPlayerData.generate(dataFile, records, 42L, 1024);
+            long fileSize = dataFile.length();
+
+            // 冷启动：新建存储并加载全部数据
+            // 写回在独立线程上执行（对应适配器的 I/O 线程），加入延迟只包含内存索引的操作
+            ExecutorService writer = Executors.newSingleThreadExecutor();
+            PlayerDataStore store = new PlayerDataStore(dataFile, TimeUnit.MILLISECONDS, writer);
+            long loadStart = System.nanoTime();
+            store.open();
+            double loadMillis = (System.nanoTime() - loadStart) / 1_000_000.0;
+
+            int joins = Integer.getInteger("joins", Math.max(5, Math.min(500, 2_000_000 / records)));
+            long[] latencies = new long[joins];
+            long allocated = 0;
+            long threadId = Thread.currentThread().getId();
+
+            for (int i = 0; i < joins; i++) {
+                long allocStart = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+                long start = System.nanoTime();
+
+                // 交替模拟首次加入与回归加入（与 VelocityAdapter 的调用序列一致）
+                if (i % 2 == 0) {
+                    UUID playerId = UUID.randomUUID();
+                    if (!store.hasRecord(playerId)) {
+                        store.saveRecord(playerId, "NewPlayer" + i);
+                    }
+                } else {
+                    UUID playerId = knownPlayers.get(i % knownPlayers.size());
+                    store.hasRecord(playerId);
+                    store.getLastSeenSeconds(playerId);
+                    store.updateLastSeen(playerId, "Player" + i);
+                }
+
+                latencies[i] = System.nanoTime() - start;
+                allocated += THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - allocStart;
+            }
+
+            writer.shutdown();
+            writer.awaitTermination(1, TimeUnit.MINUTES);
+
+            // 一次写回覆盖整个文件
+            long flushStart = System.nanoTime();
+            store.flush();
+            double flushMillis = (System.nanoTime() - flushStart) / 1_000_000.0;
+            store.close();
+
+            Arrays.sort(latencies);
+            System.out.printf(Locale.ROOT, "%-10d %12d %12.1f %12.2f %14.2f %14s %12.1f %14s%n",
+                records,
+                fileSize / 1024,
+                loadMillis,
+                percentile(latencies, 0.50) / 1_000_000.0,
+                percentile(latencies, 0.99) / 1_000_000.0,
+                formatBytes(allocated / joins),
+                flushMillis,
+                formatBytes(dataFile.length()));
+        } finally {
+            dataFile.delete();
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+        }
+        if (bytes >= 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return bytes + " B";
+    }
+}
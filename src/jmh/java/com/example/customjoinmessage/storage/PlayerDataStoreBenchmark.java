@@ -0,0 +1,122 @@
+package com.example.customjoinmessage.storage;
+
+import com.example.customjoinmessage.benchmark.SyntheticPlayerData;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * players.json 持久化基准
+ *
+ * 每个基准对应代理端适配器在一次加入/离开中执行的存储调用序列（内存索引），
+ * 写回的开销由 flush 单独测量
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PlayerDataStoreBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int records;
+
+    private File dataFile;
+    private PlayerDataStore store;
+    // 写回线程（对应适配器的 I/O 线程）
+    private ExecutorService writer;
+    private List<UUID> knownPlayers;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dataFile = Files.createTempFile("cjm-players", ".json").toFile();
+        knownPlayers = SyntheticPlayerData.generate(dataFile, records, 42L, 1024);
+        writer = Executors.newSingleThreadExecutor();
+        store = new PlayerDataStore(dataFile, TimeUnit.MILLISECONDS, writer);
+        store.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        writer.shutdown();
+        writer.awaitTermination(1, TimeUnit.MINUTES);
+        store.close();
+        dataFile.delete();
+    }
+
+    private UUID nextKnownPlayer() {
+        UUID playerId = knownPlayers.get(cursor);
+        cursor = (cursor + 1) % knownPlayers.size();
+        return playerId;
+    }
+
+    @Benchmark
+    public boolean hasPlayerRecord() {
+        return store.hasRecord(nextKnownPlayer());
+    }
+
+    @Benchmark
+    public long getLastSeen() {
+        return store.getLastSeenSeconds(nextKnownPlayer());
+    }
+
+    /**
+     * 首次加入：hasRecord + saveRecord（索引每次增长一条记录）
+     */
+    @Benchmark
+    public boolean firstJoin() {
+        UUID playerId = new UUID(ThreadLocalRandom.current().nextLong(), ThreadLocalRandom.current().nextLong());
+        boolean known = store.hasRecord(playerId);
+        store.saveRecord(playerId, "NewPlayer");
+        return known;
+    }
+
+    /**
+     * 回归加入：hasRecord + getLastSeen + updateLastSeen
+     */
+    @Benchmark
+    public boolean returningJoin() {
+        UUID playerId = nextKnownPlayer();
+        boolean known = store.hasRecord(playerId);
+        store.getLastSeenSeconds(playerId);
+        return known & store.updateLastSeen(playerId, "Player");
+    }
+
+    /**
+     * 把整个索引写回文件（写入线程每次合并写回的开销）
+     */
+    @Benchmark
+    public void flush() {
+        store.flush();
+    }
+
+    /**
+     * 冷启动加载全部数据
+     */
+    @Benchmark
+    public JsonObject loadPlayersData() throws Exception {
+        return new PlayerDataStore(dataFile, TimeUnit.MILLISECONDS, Runnable::run).load();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.customjoinmessage.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageFormatter 占位符替换基准
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MessageFormatterBenchmark {
+
+    private static final String JOIN_TEMPLATE = "<green>✅ <yellow>{player}</yellow> 加入了服务器！</green>";
+    private static final String SWITCH_TEMPLATE =
+        "<gray>📡 {player} 从 <yellow>{from}</yellow> 切换到 <yellow>{to}</yellow></gray>";
+    private static final String SYSTEM_TEMPLATE = "<gray>[{time}] {player} 在 {date} 加入，内存 {used_memory}</gray>";
+
+    private Map<String, String> placeholders;
+
+    @Setup
+    public void setup() {
+        placeholders = new HashMap<>();
+        placeholders.put("player", "Player42");
+    }
+
+    @Benchmark
+    public String formatJoin() {
+        return MessageFormatter.format(JOIN_TEMPLATE, placeholders);
+    }
+
+    @Benchmark
+    public String formatSwitch() {
+        return MessageFormatter.formatSwitchMessage(SWITCH_TEMPLATE, "Player42", "大厅", "生存服");
+    }
+
+    @Benchmark
+    public String formatSystemPlaceholders() {
+        return MessageFormatter.format(SYSTEM_TEMPLATE, placeholders);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.customjoinmessage.utils;
+
+import com.example.customjoinmessage.benchmark.ShippedTemplates;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MiniMessage 反序列化基准（输入为 config.yml 中的全部模板）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MiniMessageBenchmark {
+
+    private MiniMessage miniMessage;
+    private List<String> templates;
+    private String joinTemplate;
+
+    @Setup
+    public void setup() {
+        miniMessage = MiniMessage.miniMessage();
+        templates = ShippedTemplates.loadTemplates();
+        joinTemplate = templates.get(0);
+    }
+
+    @Benchmark
+    public Component deserializeJoin() {
+        return miniMessage.deserialize(joinTemplate);
+    }
+
+    /**
+     * 每次操作反序列化全部模板
+     */
+    @Benchmark
+    public void deserializeAllTemplates(Blackhole blackhole) {
+        for (String template : templates) {
+            blackhole.consume(miniMessage.deserialize(template));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.customjoinmessage.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TimeUtil 解析与格式化基准
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimeUtilBenchmark {
+
+    /**
+     * 解析输入
+     */
+    @State(Scope.Benchmark)
+    public static class ParseInput {
+        @Param({"86400", "1d", "2h30m", "1d 12h 30m 15s"})
+        public String timeString;
+    }
+
+    private static final String WELCOME = "<yellow>Welcome back, Steve! You were last seen {last_seen}.</yellow>";
+
+    /**
+     * 格式化输入（调用方缓冲区按线程复用）
+     */
+    @State(Scope.Thread)
+    public static class FormatInput {
+        @Param({"45", "5400", "4000000"})
+        public long elapsedSeconds;
+
+        public StringBuilder buffer;
+
+        @Setup
+        public void setup() {
+            buffer = new StringBuilder(32);
+        }
+    }
+
+    @Benchmark
+    public long parseTimeToSeconds(ParseInput input) {
+        return TimeUtil.parseTimeToSeconds(input.timeString);
+    }
+
+    @Benchmark
+    public boolean isValidTimeFormat(ParseInput input) {
+        return TimeUtil.isValidTimeFormat(input.timeString);
+    }
+
+    @Benchmark
+    public String formatTimeAgo(FormatInput input) {
+        return TimeUtil.formatTimeAgo(input.elapsedSeconds, Locale.SIMPLIFIED_CHINESE);
+    }
+
+    /**
+     * 复用调用方缓冲区，应当不产生分配
+     */
+    @Benchmark
+    public int appendTimeAgo(FormatInput input) {
+        input.buffer.setLength(0);
+        return TimeUtil.appendTimeAgo(input.buffer, input.elapsedSeconds, Locale.ENGLISH).length();
+    }
+
+    /**
+     * 欢迎消息中的 {last_seen}：先格式化相对时间再替换（两次分配）
+     */
+    @Benchmark
+    public String replaceLastSeenViaFormat(FormatInput input) {
+        return WELCOME.replace("{last_seen}", TimeUtil.formatTimeAgo(input.elapsedSeconds, Locale.ENGLISH));
+    }
+
+    /**
+     * 欢迎消息中的 {last_seen}：相对时间直接写入结果（适配器使用的路径）
+     */
+    @Benchmark
+    public String replaceLastSeen(FormatInput input) {
+        return TimeUtil.replaceTimeAgo(WELCOME, "{last_seen}", input.elapsedSeconds, Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String formatSecondsToTime(FormatInput input) {
+        return TimeUtil.formatSecondsToTime(input.elapsedSeconds);
+    }
+}
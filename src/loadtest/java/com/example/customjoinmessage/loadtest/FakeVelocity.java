@@ -0,0 +1,321 @@
+package com.example.customjoinmessage.loadtest;
+
+import com.velocitypowered.api.event.EventManager;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.config.ProxyConfig;
+import com.velocitypowered.api.proxy.messages.ChannelRegistrar;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import com.velocitypowered.api.proxy.server.ServerInfo;
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import com.velocitypowered.api.scheduler.Scheduler;
+import com.velocitypowered.api.util.ProxyVersion;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 进程内的 Velocity 替身
+ *
+ * 以动态代理实现 ProxyServer / Player / RegisteredServer，只模拟适配器实际用到的行为：
+ * - 在线玩家与各服务器玩家列表
+ * - 调度器在独立线程上按延迟执行任务（不支持重复执行），awaitScheduledTasks 等待全部任务完成
+ * - 事件管理器与通道注册为空操作
+ * - 统计所有发送给玩家的消息数
+ *
+ * 未模拟的方法返回类型默认值（false / 0 / 空 Optional / 空集合 / null）
+ */
+public final class FakeVelocity {
+
+    private final Map<UUID, Player> onlinePlayers = new ConcurrentHashMap<>();
+    private final Map<String, Player> playersByName = new ConcurrentHashMap<>();
+    private final Map<String, RegisteredServer> servers = new ConcurrentHashMap<>();
+    private final Map<String, Set<Player>> serverPlayers = new ConcurrentHashMap<>();
+    private final LongAdder messagesSent = new LongAdder();
+
+    // 调度器：按延迟在独立线程上执行，记录尚未执行的任务数
+    private final ScheduledExecutorService taskExecutor = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "FakeVelocity-Scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    private final ProxyServer proxyServer;
+
+    public FakeVelocity(List<String> serverNames) {
+        for (String serverName : serverNames) {
+            serverPlayers.put(serverName, ConcurrentHashMap.newKeySet());
+            servers.put(serverName, createServer(serverName));
+        }
+        this.proxyServer = createProxyServer();
+    }
+
+    public ProxyServer getProxyServer() {
+        return proxyServer;
+    }
+
+    public RegisteredServer getServer(String name) {
+        return servers.get(name);
+    }
+
+    /**
+     * 已发送的消息总数（每个收到消息的玩家计一次）
+     */
+    public long getMessagesSent() {
+        return messagesSent.sum();
+    }
+
+    /**
+     * 等待所有已调度的任务执行完成（包括执行期间新调度的任务）
+     *
+     * @return 超时前全部完成时返回true
+     */
+    public boolean awaitScheduledTasks(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (pendingTasks.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * 停止调度器，丢弃尚未执行的任务
+     */
+    public void shutdown() {
+        taskExecutor.shutdownNow();
+    }
+
+    // ================================
+    // 玩家状态
+    // ================================
+
+    /**
+     * 创建一个离线的假玩家
+     */
+    public Player createPlayer(UUID playerId, String username, Locale locale) {
+        return proxy(Player.class, "Player[" + username + "]", (method, args) -> switch (method.getName()) {
+            case "getUniqueId" -> playerId;
+            case "getUsername" -> username;
+            case "getEffectiveLocale" -> locale;
+            case "isActive" -> onlinePlayers.containsKey(playerId);
+            case "sendMessage" -> {
+                messagesSent.increment();
+                yield null;
+            }
+            default -> NOT_HANDLED;
+        });
+    }
+
+    /**
+     * 玩家连接到服务器（在事件分发之前调用，与 Velocity 一致）
+     */
+    public void connect(Player player, String serverName, String previousServerName) {
+        if (previousServerName != null) {
+            serverPlayers.get(previousServerName).remove(player);
+        }
+        onlinePlayers.put(player.getUniqueId(), player);
+        playersByName.put(player.getUsername().toLowerCase(Locale.ROOT), player);
+        serverPlayers.get(serverName).add(player);
+    }
+
+    /**
+     * 玩家断开连接（在事件分发之后调用）
+     */
+    public void disconnect(Player player, String serverName) {
+        onlinePlayers.remove(player.getUniqueId());
+        playersByName.remove(player.getUsername().toLowerCase(Locale.ROOT));
+        if (serverName != null) {
+            serverPlayers.get(serverName).remove(player);
+        }
+    }
+
+    // ================================
+    // 代理对象
+    // ================================
+
+    private RegisteredServer createServer(String serverName) {
+        ServerInfo serverInfo = new ServerInfo(serverName, InetSocketAddress.createUnresolved("127.0.0.1", 25565));
+        return proxy(RegisteredServer.class, "RegisteredServer[" + serverName + "]", (method, args) -> switch (method.getName()) {
+            case "getServerInfo" -> serverInfo;
+            case "getPlayersConnected" -> new ArrayList<>(serverPlayers.get(serverName));
+            case "sendMessage" -> {
+                messagesSent.add(serverPlayers.get(serverName).size());
+                yield null;
+            }
+            default -> NOT_HANDLED;
+        });
+    }
+
+    private ProxyServer createProxyServer() {
+        EventManager eventManager = proxy(EventManager.class, "EventManager", (method, args) -> NOT_HANDLED);
+        ChannelRegistrar channelRegistrar = proxy(ChannelRegistrar.class, "ChannelRegistrar", (method, args) -> NOT_HANDLED);
+        ProxyConfig configuration = proxy(ProxyConfig.class, "ProxyConfig", (method, args) ->
+            "getShowMaxPlayers".equals(method.getName()) ? Integer.MAX_VALUE : NOT_HANDLED);
+        Scheduler scheduler = proxy(Scheduler.class, "Scheduler", (method, args) ->
+            "buildTask".equals(method.getName()) ? createTaskBuilder(args[1]) : NOT_HANDLED);
+        ProxyVersion version = new ProxyVersion("Velocity", "CustomJoinMessage LoadTest", "3.2.0-loadtest");
+
+        return proxy(ProxyServer.class, "ProxyServer", (method, args) -> switch (method.getName()) {
+            case "getAllPlayers" -> new ArrayList<>(onlinePlayers.values());
+            case "getPlayerCount" -> onlinePlayers.size();
+            case "getPlayer" -> args[0] instanceof UUID
+                ? Optional.ofNullable(onlinePlayers.get(args[0]))
+                : Optional.ofNullable(playersByName.get(((String) args[0]).toLowerCase(Locale.ROOT)));
+            case "getServer" -> Optional.ofNullable(servers.get((String) args[0]));
+            case "getAllServers" -> new ArrayList<>(servers.values());
+            case "getEventManager" -> eventManager;
+            case "getChannelRegistrar" -> channelRegistrar;
+            case "getConfiguration" -> configuration;
+            case "getScheduler" -> scheduler;
+            case "getVersion" -> version;
+            case "sendMessage" -> {
+                messagesSent.add(onlinePlayers.size());
+                yield null;
+            }
+            default -> NOT_HANDLED;
+        });
+    }
+
+    /**
+     * 调度任务在 schedule() 后按延迟执行一次，重复间隔被忽略
+     */
+    @SuppressWarnings("unchecked")
+    private Scheduler.TaskBuilder createTaskBuilder(Object task) {
+        long[] delayMillis = new long[1];
+        Scheduler.TaskBuilder[] builder = new Scheduler.TaskBuilder[1];
+        builder[0] = proxy(Scheduler.TaskBuilder.class, "TaskBuilder", (method, args) -> {
+            switch (method.getName()) {
+                case "delay" -> delayMillis[0] = args[0] instanceof Duration duration
+                    ? duration.toMillis()
+                    : ((TimeUnit) args[1]).toMillis((Long) args[0]);
+                case "clearDelay" -> delayMillis[0] = 0;
+                case "schedule" -> {
+                    return schedule(task instanceof Runnable runnable
+                        ? scheduledTask -> runnable.run()
+                        : (Consumer<ScheduledTask>) task, delayMillis[0]);
+                }
+                default -> {
+                }
+            }
+            return method.getReturnType() == Scheduler.TaskBuilder.class ? builder[0] : NOT_HANDLED;
+        });
+        return builder[0];
+    }
+
+    private ScheduledTask schedule(Consumer<ScheduledTask> task, long delayMillis) {
+        AtomicBoolean finished = new AtomicBoolean();
+        ScheduledFuture<?>[] future = new ScheduledFuture<?>[1];
+        ScheduledTask scheduledTask = proxy(ScheduledTask.class, "ScheduledTask", (method, args) -> {
+            if ("cancel".equals(method.getName()) && future[0].cancel(false) && finished.compareAndSet(false, true)) {
+                pendingTasks.decrementAndGet();
+            }
+            return NOT_HANDLED;
+        });
+
+        pendingTasks.incrementAndGet();
+        future[0] = taskExecutor.schedule(() -> {
+            try {
+                task.accept(scheduledTask);
+            } finally {
+                if (finished.compareAndSet(false, true)) {
+                    pendingTasks.decrementAndGet();
+                }
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        return scheduledTask;
+    }
+
+    // ================================
+    // 动态代理工具
+    // ================================
+
+    private static final Object NOT_HANDLED = new Object();
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Method method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, String name, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return name;
+                default:
+                    break;
+            }
+            Object result = handler.handle(method, args);
+            return result != NOT_HANDLED ? result : defaultValue(method.getReturnType());
+        };
+        return type.cast(Proxy.newProxyInstance(FakeVelocity.class.getClassLoader(), new Class<?>[] {type}, invocationHandler));
+    }
+
+    private static Object defaultValue(Class<?> returnType) {
+        if (returnType == boolean.class) {
+            return false;
+        }
+        if (returnType == int.class) {
+            return 0;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        if (returnType == double.class) {
+            return 0.0D;
+        }
+        if (returnType == float.class) {
+            return 0.0F;
+        }
+        if (returnType == short.class) {
+            return (short) 0;
+        }
+        if (returnType == byte.class) {
+            return (byte) 0;
+        }
+        if (returnType == char.class) {
+            return (char) 0;
+        }
+        if (returnType == Optional.class) {
+            return Optional.empty();
+        }
+        if (returnType == Set.class) {
+            return Collections.emptySet();
+        }
+        if (returnType == List.class) {
+            return Collections.emptyList();
+        }
+        if (returnType == Collection.class) {
+            return Collections.emptyList();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.customjoinmessage.loadtest;
+
+import com.example.customjoinmessage.platform.proxy.VelocityAdapter;
+import com.example.customjoinmessage.velocity.VelocityPluginMain;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
+import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
+import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.proxy.Player;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * 加入/离开风暴负载模拟（无需真实代理，运行: ./gradlew loadTest）
+ *
+ * 在 FakeVelocity 上启动真实的 VelocityPluginMain，然后直接调用 VelocityAdapter 的事件处理器，
+ * 每轮依次重放：
+ * - join: 全部玩家加入
+ * - switch: 每名玩家切换一次服务器
+ * - chain: 每名玩家在防抖窗口内连续切换两次（A → B → C，合并为一条消息）
+ * - bounce: 每名玩家切换后立即返回（A → B → A，不发送消息）
+ * - leave: 全部玩家离开
+ * 第一轮均为首次加入，之后的轮次为回归玩家。
+ *
+ * 每个阶段报告：吞吐量、处理器延迟 p50 / p99、每个事件发送的消息数
+ * （chain / bounce 中一名玩家的两次切换计为一个事件）。
+ * 消息数在阶段内的延迟任务（欢迎消息、切换防抖、名册清理）全部执行后统计
+ *
+ * 参数: [玩家数 默认2000] [轮数 默认3] [线程数 默认1]
+ */
+public final class JoinStormSimulation {
+
+    private static final List<String> SERVER_NAMES = List.of("lobby", "survival", "creative", "minigames");
+
+    // 等待阶段内延迟任务执行完成的上限（防抖窗口最多延长到 4 倍）
+    private static final long SETTLE_TIMEOUT_MILLIS = 30_000;
+
+    private final FakeVelocity velocity;
+    private final VelocityAdapter adapter;
+    private final List<Player> players;
+    private final int threads;
+
+    private JoinStormSimulation(FakeVelocity velocity, VelocityAdapter adapter, List<Player> players, int threads) {
+        this.velocity = velocity;
+        this.adapter = adapter;
+        this.players = players;
+        this.threads = threads;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int playerCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        Path dataDirectory = Files.createTempDirectory("cjm-loadtest");
+        FakeVelocity velocity = new FakeVelocity(SERVER_NAMES);
+        VelocityPluginMain pluginMain = new VelocityPluginMain(
+            velocity.getProxyServer(), LoggerFactory.getLogger("CustomJoinMessage"), dataDirectory);
+
+        try {
+            pluginMain.onProxyInitialize(new ProxyInitializeEvent());
+            if (pluginMain.getCustomJoinMessagePlugin() == null
+                || !(pluginMain.getCustomJoinMessagePlugin().getPlatformAdapter() instanceof VelocityAdapter adapter)) {
+                throw new IllegalStateException("插件未能以 Velocity 模式启动");
+            }
+
+            List<Player> players = new ArrayList<>(playerCount);
+            for (int i = 0; i < playerCount; i++) {
+                // 每4名玩家中1名使用英文客户端，覆盖多语言分组
+                Locale locale = i % 4 == 0 ? Locale.US : Locale.SIMPLIFIED_CHINESE;
+                players.add(velocity.createPlayer(new UUID(0x434A4DL, i), "Player" + i, locale));
+            }
+
+            System.out.printf(Locale.ROOT, "players=%d rounds=%d threads=%d servers=%d%n",
+                playerCount, rounds, threads, SERVER_NAMES.size());
+            System.out.printf(Locale.ROOT, "%-6s %-8s %10s %14s %12s %12s %12s%n",
+                "round", "phase", "events", "events/s", "p50(ms)", "p99(ms)", "msgs/event");
+
+            new JoinStormSimulation(velocity, adapter, players, threads).run(rounds);
+        } finally {
+            pluginMain.onProxyShutdown(new ProxyShutdownEvent());
+            velocity.shutdown();
+            deleteRecursively(dataDirectory);
+        }
+    }
+
+    private void run(int rounds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 1; round <= rounds; round++) {
+                runPhase(executor, round, "join", player -> {
+                    velocity.connect(player, homeServer(player), null);
+                    return timed(() -> adapter.onServerConnected(
+                        new ServerConnectedEvent(player, velocity.getServer(homeServer(player)), null)));
+                });
+                runPhase(executor, round, "switch", player -> switchTo(player, homeServer(player), server(player, 1)));
+                runPhase(executor, round, "chain", player ->
+                    switchTo(player, server(player, 1), server(player, 2))
+                        + switchTo(player, server(player, 2), server(player, 3)));
+                runPhase(executor, round, "bounce", player ->
+                    switchTo(player, server(player, 3), homeServer(player))
+                        + switchTo(player, homeServer(player), server(player, 3)));
+                runPhase(executor, round, "leave", player -> {
+                    long latency = timed(() -> adapter.onPlayerDisconnect(
+                        new DisconnectEvent(player, DisconnectEvent.LoginStatus.SUCCESSFUL_LOGIN)));
+                    velocity.disconnect(player, server(player, 3));
+                    return latency;
+                });
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ================================
+    // 阶段执行
+    // ================================
+
+    @FunctionalInterface
+    private interface PlayerEvent {
+        /**
+         * 处理一个玩家的事件，返回处理器耗时（纳秒）
+         */
+        long replay(Player player);
+    }
+
+    /**
+     * 按玩家分片到各线程并行重放，同一玩家的事件始终在同一线程上按顺序执行
+     */
+    private void runPhase(ExecutorService executor, int round, String phase, PlayerEvent event) throws Exception {
+        long[] latencies = new long[players.size()];
+        long messagesBefore = velocity.getMessagesSent();
+
+        List<Callable<Void>> workers = new ArrayList<>(threads);
+        for (int worker = 0; worker < threads; worker++) {
+            int offset = worker;
+            workers.add(() -> {
+                for (int i = offset; i < players.size(); i += threads) {
+                    latencies[i] = event.replay(players.get(i));
+                }
+                return null;
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Future<Void> future : executor.invokeAll(workers)) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (!velocity.awaitScheduledTasks(SETTLE_TIMEOUT_MILLIS)) {
+            throw new IllegalStateException("阶段 " + phase + " 的延迟任务未在 " + SETTLE_TIMEOUT_MILLIS + "ms 内完成");
+        }
+        long messages = velocity.getMessagesSent() - messagesBefore;
+        Arrays.sort(latencies);
+        System.out.printf(Locale.ROOT, "%-6d %-8s %10d %14.1f %12.3f %12.3f %12.1f%n",
+            round,
+            phase,
+            latencies.length,
+            latencies.length * 1_000_000_000.0 / elapsed,
+            percentile(latencies, 0.50) / 1_000_000.0,
+            percentile(latencies, 0.99) / 1_000_000.0,
+            (double) messages / latencies.length);
+    }
+
+    private static long timed(Runnable handler) {
+        long start = System.nanoTime();
+        handler.run();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * 玩家从一个服务器切换到另一个服务器，返回处理器耗时（纳秒）
+     */
+    private long switchTo(Player player, String from, String to) {
+        velocity.connect(player, to, from);
+        return timed(() -> adapter.onServerConnected(
+            new ServerConnectedEvent(player, velocity.getServer(to), velocity.getServer(from))));
+    }
+
+    private String homeServer(Player player) {
+        return server(player, 0);
+    }
+
+    /**
+     * 玩家的第 offset 个服务器（各玩家按 UUID 错开起点）
+     */
+    private String server(Player player, int offset) {
+        return SERVER_NAMES.get(Math.floorMod(player.getUniqueId().getLeastSignificantBits() + offset, SERVER_NAMES.size()));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
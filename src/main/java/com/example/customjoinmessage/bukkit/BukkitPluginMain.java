@@ -1,8 +1,13 @@
 package com.example.customjoinmessage.bukkit;
 
 import com.example.customjoinmessage.core.CustomJoinMessagePlugin;
+import com.example.customjoinmessage.core.PluginCommand;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.List;
+
 /**
  * Bukkit/Paper/Spigot/Folia 插件入口点
  * 
@@ -59,6 +64,22 @@ public class BukkitPluginMain extends JavaPlugin {
         }
     }
     
+    /**
+     * /cjm 命令（plugin.yml 中声明，权限由服务端检查）
+     */
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        for (String line : PluginCommand.execute(args)) {
+            sender.sendMessage(line);
+        }
+        return true;
+    }
+    
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        return PluginCommand.suggest(args);
+    }
+    
     // ================================
     // Getter 方法（给适配器使用）
     // ================================
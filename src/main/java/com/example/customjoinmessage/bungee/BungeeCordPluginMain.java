@@ -1,8 +1,13 @@
 package com.example.customjoinmessage.bungee;
 
 import com.example.customjoinmessage.core.CustomJoinMessagePlugin;
+import com.example.customjoinmessage.core.PluginCommand;
 
+import net.md_5.bungee.api.CommandSender;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.plugin.Command;
 import net.md_5.bungee.api.plugin.Plugin;
+import net.md_5.bungee.api.plugin.TabExecutor;
 
 import java.nio.file.Path;
 
@@ -15,6 +20,9 @@ public class BungeeCordPluginMain extends Plugin {
     
     private CustomJoinMessagePlugin corePlugin;
     
+    // 已注册的 /cjm 命令
+    private Command command;
+    
     @Override
     public void onEnable() {
         try {
@@ -27,6 +35,10 @@ public class BungeeCordPluginMain extends Plugin {
             // 启用插件
             corePlugin.onEnable();
             
+            // 注册 /cjm 命令
+            command = new MainCommand();
+            getProxy().getPluginManager().registerCommand(this, command);
+            
             getLogger().info("CustomJoinMessage v" + CustomJoinMessagePlugin.PLUGIN_VERSION + " 已在 BungeeCord 上启用");
             
         } catch (Exception e) {
@@ -38,6 +50,11 @@ public class BungeeCordPluginMain extends Plugin {
     @Override
     public void onDisable() {
         try {
+            if (command != null) {
+                getProxy().getPluginManager().unregisterCommand(command);
+                command = null;
+            }
+            
             if (corePlugin != null) {
                 corePlugin.onDisable();
             }
@@ -56,4 +73,26 @@ public class BungeeCordPluginMain extends Plugin {
     public CustomJoinMessagePlugin getCorePlugin() {
         return corePlugin;
     }
+    
+    /**
+     * /cjm 命令
+     */
+    private static class MainCommand extends Command implements TabExecutor {
+        
+        MainCommand() {
+            super(PluginCommand.NAME, PluginCommand.PERMISSION, PluginCommand.ALIASES);
+        }
+        
+        @Override
+        public void execute(CommandSender sender, String[] args) {
+            for (String line : PluginCommand.execute(args)) {
+                sender.sendMessage(new TextComponent(line));
+            }
+        }
+        
+        @Override
+        public Iterable<String> onTabComplete(CommandSender sender, String[] args) {
+            return PluginCommand.suggest(args);
+        }
+    }
 }
\ No newline at end of file
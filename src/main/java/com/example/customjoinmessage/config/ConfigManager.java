@@ -1,5 +1,10 @@
 package com.example.customjoinmessage.config;
 
+import com.example.customjoinmessage.core.PlayerRoster;
+import com.example.customjoinmessage.placeholder.ExternalPlaceholders;
+import com.example.customjoinmessage.platform.ServerInfoProvider;
+import com.example.customjoinmessage.utils.LoggerUtil;
+import com.example.customjoinmessage.utils.LoggerUtil.Category;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
@@ -21,14 +26,22 @@ public class ConfigManager {
     
     private final Path dataDirectory;
     private final Yaml yaml;
+    private final PlayerRoster playerRoster;
+    
+    // 由平台适配器注入的服务器信息提供者
+    private volatile ServerInfoProvider serverInfoProvider;
+    
+    // 由平台适配器注入的外部占位符集成（未安装占位符插件时为 null）
+    private volatile ExternalPlaceholders externalPlaceholders;
     
     // 配置对象
     private PluginConfig pluginConfig;
     private MessageConfig messageConfig;
     
-    public ConfigManager(Path dataDirectory) {
+    public ConfigManager(Path dataDirectory, PlayerRoster playerRoster) {
         this.dataDirectory = dataDirectory;
         this.yaml = new Yaml();
+        this.playerRoster = playerRoster;
     }
     
     /**
@@ -86,7 +99,12 @@ public class ConfigManager {
             this.pluginConfig = new PluginConfig(configData);
             
             // 创建消息配置对象（从同一个配置文件中读取messages部分）
-            this.messageConfig = new MessageConfig(configData);
+            this.messageConfig = new MessageConfig(configData, playerRoster, serverInfoProvider);
+            this.messageConfig.setExternalPlaceholders(externalPlaceholders);
+            
+            MessageConfig.CompileStats stats = messageConfig.getCompileStats();
+            LoggerUtil.verbose(Category.MESSAGES, "配置编译 - {} 个字符串, {} 个不同, 去重节省约 {} 字节",
+                stats.getTemplateCount(), stats.getDistinctCount(), stats.getSavedBytes());
         }
     }
     
@@ -112,7 +130,31 @@ public class ConfigManager {
     private void useDefaultConfigs() {
         logger.warn("使用默认配置");
         this.pluginConfig = new PluginConfig(null);
-        this.messageConfig = new MessageConfig(null);
+        this.messageConfig = new MessageConfig(null, playerRoster, serverInfoProvider);
+        this.messageConfig.setExternalPlaceholders(externalPlaceholders);
+    }
+    
+    /**
+     * 设置服务器信息提供者（由平台适配器注入）
+     */
+    public void setServerInfoProvider(ServerInfoProvider serverInfoProvider) {
+        this.serverInfoProvider = serverInfoProvider;
+        
+        // 已加载的消息配置同步使用新的提供者
+        if (messageConfig != null) {
+            messageConfig.setServerInfoProvider(serverInfoProvider);
+        }
+    }
+    
+    /**
+     * 设置外部占位符集成（由平台适配器注入）
+     */
+    public void setExternalPlaceholders(ExternalPlaceholders externalPlaceholders) {
+        this.externalPlaceholders = externalPlaceholders;
+        
+        if (messageConfig != null) {
+            messageConfig.setExternalPlaceholders(externalPlaceholders);
+        }
     }
     
     /**
@@ -132,7 +174,7 @@ public class ConfigManager {
     }
     
     public MessageConfig getMessageConfig() {
-        return messageConfig != null ? messageConfig : new MessageConfig(null);
+        return messageConfig != null ? messageConfig : new MessageConfig(null, playerRoster, serverInfoProvider);
     }
     
     public Path getDataDirectory() {
@@ -1,11 +1,25 @@
 package com.example.customjoinmessage.config;
 
+import com.example.customjoinmessage.core.CoarseClock;
+import com.example.customjoinmessage.core.PlayerRoster;
+import com.example.customjoinmessage.core.StageTracer;
+import com.example.customjoinmessage.placeholder.ExternalPlaceholders;
+import com.example.customjoinmessage.placeholder.PlaceholderContext;
+import com.example.customjoinmessage.placeholder.PlaceholderRegistry;
+import com.example.customjoinmessage.platform.ServerInfoProvider;
 import com.example.customjoinmessage.utils.PermissionUtil;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 消息配置类
@@ -20,12 +34,58 @@ public class MessageConfig {
     private static final String DEFAULT_WELCOME_MESSAGE = "<yellow>欢迎来到服务器，{player}！</yellow>";
     private static final String DEFAULT_SWITCH_MESSAGE = "<gray>{player} 从 <yellow>{from}</yellow> 切换到 <yellow>{to}</yellow></gray>";
     
+    private static final Pattern EXTERNAL_PLACEHOLDER_PATTERN =
+        Pattern.compile("\\{" + ExternalPlaceholders.NAMESPACE + ":([^}]+)\\}");
+    
     private final Map<String, Object> messageData;
-    private final Random random;
+    private final CompileStats compileStats;
+    private final PlayerRoster playerRoster;
+    private volatile ServerInfoProvider serverInfoProvider;
+    private final PlaceholderRegistry placeholders = new PlaceholderRegistry();
+    private volatile ExternalPlaceholders externalPlaceholders;
+    
+    // 模板中引用的外部占位符名称（首次使用时扫描配置）
+    private volatile Set<String> externalPlaceholderNames;
+    
+    // 消息路径 -> 编译后的随机消息池（配置重载时随对象一起重建）
+    private final Map<String, MessagePool> messagePools = new ConcurrentHashMap<>();
+    
+    // 客户端语言 -> 消息包语言（配置重载时随对象一起重建）
+    private final Map<Locale, String> languageCache = new ConcurrentHashMap<>();
     
     public MessageConfig(Map<String, Object> messageData) {
+        this(messageData, null, null);
+    }
+    
+    public MessageConfig(Map<String, Object> messageData, PlayerRoster playerRoster,
+                         ServerInfoProvider serverInfoProvider) {
         this.messageData = messageData != null ? messageData : new HashMap<>();
-        this.random = new Random();
+        // 相同的模板在各权限组和消息类型之间共享同一个实例
+        this.compileStats = TemplateDeduplicator.deduplicate(this.messageData);
+        this.playerRoster = playerRoster;
+        this.serverInfoProvider = serverInfoProvider;
+        registerBuiltinPlaceholders();
+    }
+    
+    /**
+     * 设置服务器信息提供者（由平台适配器注入）
+     */
+    public void setServerInfoProvider(ServerInfoProvider serverInfoProvider) {
+        this.serverInfoProvider = serverInfoProvider;
+    }
+    
+    /**
+     * 获取配置编译（模板去重）统计
+     */
+    public CompileStats getCompileStats() {
+        return compileStats;
+    }
+    
+    /**
+     * 设置外部占位符集成（由平台适配器注入）
+     */
+    public void setExternalPlaceholders(ExternalPlaceholders externalPlaceholders) {
+        this.externalPlaceholders = externalPlaceholders;
     }
     
     // ================================
@@ -38,7 +98,15 @@ public class MessageConfig {
      * @param type 消息类型 (default, first-time, returning)
      */
     public String getJoinMessage(String permissionGroup, String type) {
-        return getMessageWithFallback("join", permissionGroup, type, DEFAULT_JOIN_MESSAGE);
+        return getJoinMessage(permissionGroup, type, null);
+    }
+    
+    /**
+     * 获取指定语言的加入消息
+     * @param language 消息包语言（见 {@link #resolveLanguage(Locale)}），为null时使用默认语言
+     */
+    public String getJoinMessage(String permissionGroup, String type, String language) {
+        return getMessageWithFallback("join", permissionGroup, type, DEFAULT_JOIN_MESSAGE, language);
     }
     
     /**
@@ -47,7 +115,14 @@ public class MessageConfig {
      * @param type 消息类型 (default)
      */
     public String getLeaveMessage(String permissionGroup, String type) {
-        return getMessageWithFallback("leave", permissionGroup, type, DEFAULT_LEAVE_MESSAGE);
+        return getLeaveMessage(permissionGroup, type, null);
+    }
+    
+    /**
+     * 获取指定语言的离开消息
+     */
+    public String getLeaveMessage(String permissionGroup, String type, String language) {
+        return getMessageWithFallback("leave", permissionGroup, type, DEFAULT_LEAVE_MESSAGE, language);
     }
     
     /**
@@ -56,7 +131,14 @@ public class MessageConfig {
      * @param type 消息类型 (first-time, returning)
      */
     public String getWelcomeMessage(String permissionGroup, String type) {
-        return getMessageWithFallback("welcome", permissionGroup, type, DEFAULT_WELCOME_MESSAGE);
+        return getWelcomeMessage(permissionGroup, type, null);
+    }
+    
+    /**
+     * 获取指定语言的欢迎消息
+     */
+    public String getWelcomeMessage(String permissionGroup, String type, String language) {
+        return getMessageWithFallback("welcome", permissionGroup, type, DEFAULT_WELCOME_MESSAGE, language);
     }
     
     /**
@@ -65,21 +147,61 @@ public class MessageConfig {
      * @param type 消息类型 (default)
      */
     public String getServerSwitchMessage(String permissionGroup, String type) {
-        return getMessageWithFallback("server-switch", permissionGroup, type, DEFAULT_SWITCH_MESSAGE);
+        return getServerSwitchMessage(permissionGroup, type, null);
+    }
+    
+    /**
+     * 获取指定语言的服务器切换消息
+     */
+    public String getServerSwitchMessage(String permissionGroup, String type, String language) {
+        return getMessageWithFallback("server-switch", permissionGroup, type, DEFAULT_SWITCH_MESSAGE, language);
     }
     
     /**
      * 智能消息获取，支持回退机制
      * 
      * 回退顺序：
-     * 1. 尝试获取指定权限组的消息
-     * 2. 如果失败，回退到默认组的消息
-     * 3. 如果还失败，返回硬编码的默认消息
+     * 1. 尝试获取对应语言消息包中指定权限组的消息，再回退到该语言的默认组
+     * 2. 尝试获取 messages 中指定权限组的消息
+     * 3. 如果失败，回退到默认组的消息
+     * 4. 如果还失败，返回硬编码的默认消息
+     */
+    private String getMessageWithFallback(String messageCategory, String permissionGroup, String type,
+                                          String hardcodedDefault, String language) {
+        long traceStart = StageTracer.stageStart();
+        try {
+            return findMessage(messageCategory, permissionGroup, type, hardcodedDefault, language);
+        } finally {
+            StageTracer.stageEnd(StageTracer.Stage.TEMPLATE_LOOKUP, traceStart);
+        }
+    }
+    
+    private String findMessage(String messageCategory, String permissionGroup, String type,
+                               String hardcodedDefault, String language) {
+        // 首先尝试对应语言的消息包
+        if (language != null && !language.equals(getDefaultLanguage())) {
+            String message = getGroupMessage("localization.bundles." + language + ".", messageCategory, permissionGroup, type);
+            if (message != null) {
+                return message;
+            }
+        }
+        
+        // 然后尝试默认语言的消息
+        String message = getGroupMessage("messages.", messageCategory, permissionGroup, type);
+        if (message != null) {
+            return message;
+        }
+        
+        // 最后回退到硬编码默认值
+        return hardcodedDefault;
+    }
+    
+    /**
+     * 在指定消息根路径下获取权限组消息，找不到时回退到默认组
      */
-    private String getMessageWithFallback(String messageCategory, String permissionGroup, String type, String hardcodedDefault) {
+    private String getGroupMessage(String root, String messageCategory, String permissionGroup, String type) {
         // 首先尝试获取指定权限组的消息
-        String targetPath = "messages." + permissionGroup + "." + messageCategory + "." + type;
-        String message = getRandomMessage(targetPath, null);
+        String message = getRandomMessage(root + permissionGroup + "." + messageCategory + "." + type, null);
         
         // 如果找到消息且不为空，直接返回
         if (message != null && !message.trim().isEmpty()) {
@@ -88,16 +210,14 @@ public class MessageConfig {
         
         // 如果不是默认组，尝试回退到默认组
         if (!PermissionUtil.DEFAULT_GROUP.equals(permissionGroup)) {
-            String fallbackPath = "messages." + PermissionUtil.DEFAULT_GROUP + "." + messageCategory + "." + type;
-            message = getRandomMessage(fallbackPath, null);
+            message = getRandomMessage(root + PermissionUtil.DEFAULT_GROUP + "." + messageCategory + "." + type, null);
             
             if (message != null && !message.trim().isEmpty()) {
                 return message;
             }
         }
         
-        // 最后回退到硬编码默认值
-        return hardcodedDefault;
+        return null;
     }
     
     // ================================
@@ -225,109 +345,121 @@ public class MessageConfig {
      * 通用消息格式化
      */
     public String formatMessage(String template, String playerName, String fromServer, String toServer) {
-        if (template == null) {
-            return "";
+        long traceStart = StageTracer.stageStart();
+        try {
+            return replacePlaceholders(template, playerName, fromServer, toServer);
+        } finally {
+            StageTracer.stageEnd(StageTracer.Stage.FORMAT, traceStart);
         }
-        
-        String formatted = template;
-        
+    }
+    
+    private String replacePlaceholders(String template, String playerName, String fromServer, String toServer) {
+        return placeholders.format(template, new PlaceholderContext(playerName, fromServer, toServer));
+    }
+    
+    /**
+     * 获取占位符注册表（可注册额外的占位符提供者）
+     */
+    public PlaceholderRegistry getPlaceholderRegistry() {
+        return placeholders;
+    }
+    
+    /**
+     * 注册内置占位符（只有模板引用时才会计算）
+     */
+    private void registerBuiltinPlaceholders() {
         // 基础占位符
-        if (playerName != null) {
-            formatted = formatted.replace("{player}", playerName);
-        }
-        if (fromServer != null) {
-            formatted = formatted.replace("{from}", fromServer);
-            formatted = formatted.replace("{prev}", fromServer); // 兼容性
-        }
-        if (toServer != null) {
-            formatted = formatted.replace("{to}", toServer);
-            formatted = formatted.replace("{cur}", toServer); // 兼容性
-        }
+        placeholders.register("player", PlaceholderContext::getPlayerName);
+        placeholders.register("from", PlaceholderContext::getFromServer);
+        placeholders.register("prev", PlaceholderContext::getFromServer); // 兼容性
+        placeholders.register("to", PlaceholderContext::getToServer);
+        placeholders.register("cur", PlaceholderContext::getToServer); // 兼容性
         
-        // 时间占位符
-        formatted = formatted.replace("{time}", getCurrentTime());
-        formatted = formatted.replace("{date}", getCurrentDate());
+        // 时间占位符（读取粗粒度时钟每秒刷新的结果）
+        CoarseClock.Formatted time = clockFormat(getTimeFormat(), "HH:mm:ss");
+        CoarseClock.Formatted date = clockFormat(getDateFormat(), "yyyy-MM-dd");
+        placeholders.register("time", context -> time.get());
+        placeholders.register("date", context -> date.get());
         
-        // 🔥 新增：服务器状态占位符（跨平台兼容）
-        formatted = replaceServerPlaceholders(formatted);
+        // 在线人数占位符（来自事件维护的在线名册，O(1)；没有名册时使用服务器信息）
+        // {online_count} - 全网在线人数
+        // {server_online} - 玩家所在服务器的在线人数
+        // {group_online} - 玩家所在权限组的在线人数
+        if (playerRoster != null) {
+            placeholders.register("online_count", context -> String.valueOf(playerRoster.getOnlineCount()));
+            placeholders.register("server_online", context -> {
+                PlayerRoster.Entry entry = playerRoster.getEntry(context.getPlayerName());
+                return String.valueOf(entry != null ? playerRoster.getServerCount(entry.getServerName()) : 0);
+            });
+            placeholders.register("group_online", context -> {
+                PlayerRoster.Entry entry = playerRoster.getEntry(context.getPlayerName());
+                return String.valueOf(entry != null ? playerRoster.getGroupCount(entry.getPermissionGroup()) : 0);
+            });
+        } else {
+            placeholders.register("online_count",
+                context -> serverInfo(provider -> String.valueOf(provider.getOnlineCount()), "?", "?"));
+        }
         
-        // TODO: 添加更多占位符支持  
-        // - {uuid}
-        // - {world}
-        // - {ip}
-        // 等等
+        // 服务器状态占位符（通过平台适配器提供的信息直接解析）
+        placeholders.register("max_players",
+            context -> serverInfo(provider -> String.valueOf(provider.getMaxPlayers()), "?", "?"));
+        placeholders.register("server",
+            context -> serverInfo(ServerInfoProvider::getServerName, "Unknown", "Error"));
         
-        return formatted;
+        // 外部占位符 {ext:名称}（PlaceholderAPI / MiniPlaceholders，按玩家缓存）
+        placeholders.registerNamespace(ExternalPlaceholders.NAMESPACE, (context, name) -> {
+            ExternalPlaceholders external = externalPlaceholders;
+            if (external == null || playerRoster == null || context.getPlayerName() == null) {
+                return null;
+            }
+            UUID playerId = playerRoster.getUniqueId(context.getPlayerName());
+            return playerId != null ? external.resolve(playerId, name) : null;
+        });
     }
     
     /**
-     * 🔥 跨平台替换服务器占位符
+     * 获取消息模板中引用的外部占位符名称（用于玩家加入时预取）
      */
-    private String replaceServerPlaceholders(String formatted) {
-        try {
-            // 尝试检测当前环境并获取服务器信息
-            if (isBukkitEnvironment()) {
-                // Bukkit环境：使用反射避免直接依赖
-                Class<?> bukkitClass = Class.forName("org.bukkit.Bukkit");
-                Object server = bukkitClass.getMethod("getServer").invoke(null);
-                
-                // 获取在线玩家数
-                Object onlinePlayers = server.getClass().getMethod("getOnlinePlayers").invoke(server);
-                int onlineCount = ((java.util.Collection<?>) onlinePlayers).size();
-                
-                // 获取最大玩家数
-                int maxPlayers = (Integer) server.getClass().getMethod("getMaxPlayers").invoke(server);
-                
-                // 获取服务器名称
-                String serverName = (String) server.getClass().getMethod("getName").invoke(server);
-                
-                formatted = formatted.replace("{online_count}", String.valueOf(onlineCount));
-                formatted = formatted.replace("{max_players}", String.valueOf(maxPlayers));
-                formatted = formatted.replace("{server}", serverName);
-                
-            } else if (isVelocityEnvironment()) {
-                // Velocity环境：暂时使用占位符，后续可以通过适配器传递数据
-                formatted = formatted.replace("{online_count}", "?");
-                formatted = formatted.replace("{max_players}", "?");
-                formatted = formatted.replace("{server}", "Velocity");
-                
-            } else {
-                // 未知环境：使用默认值
-                formatted = formatted.replace("{online_count}", "?");
-                formatted = formatted.replace("{max_players}", "?");
-                formatted = formatted.replace("{server}", "Unknown");
-            }
-        } catch (Exception e) {
-            // 任何错误都使用默认值
-            formatted = formatted.replace("{online_count}", "?");
-            formatted = formatted.replace("{max_players}", "?");
-            formatted = formatted.replace("{server}", "Error");
+    public Set<String> getExternalPlaceholderNames() {
+        Set<String> names = externalPlaceholderNames;
+        if (names == null) {
+            Set<String> found = new HashSet<>();
+            collectExternalPlaceholderNames(messageData, found);
+            names = Set.copyOf(found);
+            externalPlaceholderNames = names;
         }
-        
-        return formatted;
+        return names;
     }
     
-    /**
-     * 检查是否在Bukkit环境中
-     */
-    private boolean isBukkitEnvironment() {
-        try {
-            Class.forName("org.bukkit.Bukkit");
-            return true;
-        } catch (ClassNotFoundException e) {
-            return false;
+    private static void collectExternalPlaceholderNames(Object value, Set<String> names) {
+        if (value instanceof String) {
+            Matcher matcher = EXTERNAL_PLACEHOLDER_PATTERN.matcher((String) value);
+            while (matcher.find()) {
+                names.add(matcher.group(1));
+            }
+        } else if (value instanceof Map) {
+            for (Object child : ((Map<?, ?>) value).values()) {
+                collectExternalPlaceholderNames(child, names);
+            }
+        } else if (value instanceof List) {
+            for (Object child : (List<?>) value) {
+                collectExternalPlaceholderNames(child, names);
+            }
         }
     }
     
     /**
-     * 检查是否在Velocity环境中
+     * 读取服务器信息，未注入提供者或出错时使用默认值
      */
-    private boolean isVelocityEnvironment() {
+    private String serverInfo(Function<ServerInfoProvider, String> getter, String missingValue, String errorValue) {
+        ServerInfoProvider provider = serverInfoProvider;
+        if (provider == null) {
+            return missingValue;
+        }
         try {
-            Class.forName("com.velocitypowered.api.proxy.ProxyServer");
-            return true;
-        } catch (ClassNotFoundException e) {
-            return false;
+            return getter.apply(provider);
+        } catch (Exception e) {
+            return errorValue;
         }
     }
     
@@ -408,27 +540,97 @@ public class MessageConfig {
         return getString("localization.detection-method", "client");
     }
     
+    /**
+     * 根据客户端语言选择消息包语言（结果按语言缓存）
+     * 
+     * 匹配顺序：完整语言代码(en_US) -> 语言(en) -> 同语言的其他地区(en_GB) -> 默认语言
+     * 
+     * @param locale 客户端语言，可以为null
+     * @return 消息包语言，可直接传给带 language 参数的消息获取方法
+     */
+    public String resolveLanguage(Locale locale) {
+        if (locale == null) {
+            return getDefaultLanguage();
+        }
+        return languageCache.computeIfAbsent(locale, this::lookupLanguage);
+    }
+    
+    /**
+     * 将消息包语言转换为 Locale（用于 {last_seen} 等本地化格式）
+     */
+    public Locale toLocale(String language) {
+        String tag = language != null ? language : getDefaultLanguage();
+        return Locale.forLanguageTag(tag.replace('_', '-'));
+    }
+    
+    /**
+     * 查找与客户端语言匹配的消息包
+     */
+    private String lookupLanguage(Locale locale) {
+        String defaultLanguage = getDefaultLanguage();
+        if (!"client".equalsIgnoreCase(getDetectionMethod())) {
+            return defaultLanguage;
+        }
+        
+        Object bundles = getValue("localization.bundles");
+        if (!(bundles instanceof Map) || ((Map<?, ?>) bundles).isEmpty()) {
+            return defaultLanguage;
+        }
+        
+        String language = locale.getLanguage();
+        String fullTag = locale.getCountry().isEmpty() ? language : language + "_" + locale.getCountry();
+        
+        // 默认语言本身不需要消息包
+        if (defaultLanguage.equalsIgnoreCase(fullTag)) {
+            return defaultLanguage;
+        }
+        
+        String languageMatch = null;
+        String regionMatch = null;
+        for (Object key : ((Map<?, ?>) bundles).keySet()) {
+            String bundle = String.valueOf(key);
+            if (bundle.equalsIgnoreCase(fullTag)) {
+                return bundle;
+            }
+            if (bundle.equalsIgnoreCase(language)) {
+                languageMatch = bundle;
+            } else if (regionMatch == null && bundle.regionMatches(true, 0, language + "_", 0, language.length() + 1)) {
+                regionMatch = bundle;
+            }
+        }
+        
+        if (languageMatch != null) {
+            return languageMatch;
+        }
+        return regionMatch != null ? regionMatch : defaultLanguage;
+    }
+    
     // ================================
     // 辅助方法
     // ================================
     
     /**
-     * 获取随机消息（支持消息列表）
+     * 获取随机消息（支持消息列表、权重和不重复抽取，见 {@link MessagePool}）
      */
     private String getRandomMessage(String path, String defaultValue) {
-        Object value = getValue(path);
-        
-        if (value instanceof List) {
-            @SuppressWarnings("unchecked")
-            List<String> messages = (List<String>) value;
-            if (!messages.isEmpty()) {
-                return messages.get(random.nextInt(messages.size()));
-            }
-        } else if (value instanceof String) {
-            return (String) value;
+        MessagePool pool = messagePools.get(path);
+        if (pool == null) {
+            pool = messagePools.computeIfAbsent(path, key -> MessagePool.compile(getValue(key)));
         }
         
-        return defaultValue;
+        String message = pool.next();
+        return message != null ? message : defaultValue;
+    }
+    
+    /**
+     * 获取时钟中的时间格式，配置的格式无效时使用默认格式
+     */
+    private static CoarseClock.Formatted clockFormat(String pattern, String defaultPattern) {
+        try {
+            return CoarseClock.get().format(pattern);
+        } catch (IllegalArgumentException e) {
+            return CoarseClock.get().format(defaultPattern);
+        }
     }
     
     /**
@@ -480,18 +682,38 @@ public class MessageConfig {
     }
     
     /**
-     * 获取当前时间
-     */
-    private String getCurrentTime() {
-        // 简单实现，后续可以使用 DateTimeFormatter
-        return java.time.LocalTime.now().toString();
-    }
-    
-    /**
-     * 获取当前日期
+     * 配置编译统计
      */
-    private String getCurrentDate() {
-        // 简单实现，后续可以使用 DateTimeFormatter
-        return java.time.LocalDate.now().toString();
+    public static final class CompileStats {
+        private final int templateCount;
+        private final int distinctCount;
+        private final long savedBytes;
+        
+        CompileStats(int templateCount, int distinctCount, long savedBytes) {
+            this.templateCount = templateCount;
+            this.distinctCount = distinctCount;
+            this.savedBytes = savedBytes;
+        }
+        
+        /**
+         * 配置中的字符串总数
+         */
+        public int getTemplateCount() {
+            return templateCount;
+        }
+        
+        /**
+         * 去重后的不同字符串数
+         */
+        public int getDistinctCount() {
+            return distinctCount;
+        }
+        
+        /**
+         * 去重节省的内存（估算，字节）
+         */
+        public long getSavedBytes() {
+            return savedBytes;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,242 @@
+package com.example.customjoinmessage.config;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 随机消息池（配置编译步骤）
+ *
+ * 配置中的消息列表在首次使用时编译为 Vose 别名表，按权重抽取只需一次随机下标和一次比较（O(1)），
+ * 使用 ThreadLocalRandom，多个事件线程之间不再争用同一个 Random。
+ *
+ * 支持的配置形式：
+ * <pre>
+ * default: "单条消息"
+ * default:
+ *   - "消息A"                # 权重默认为 1
+ *   - message: "消息B"
+ *     weight: 3
+ * default:
+ *   no-repeat: 2            # 最近 2 次抽到的消息不会再次出现
+ *   messages:
+ *     - ...
+ * </pre>
+ */
+final class MessagePool {
+
+    // 配置中不存在该路径（缓存未命中的结果，避免重复遍历配置）
+    static final MessagePool EMPTY = new MessagePool(new String[0], null, null, 0);
+
+    // 拒绝采样的最大次数，超过后在剩余消息中按权重顺序查找
+    private static final int MAX_REJECTIONS = 16;
+
+    private final String[] messages;
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    // 最近抽到的消息下标（最新的在最前），不可变数组 + CAS 更新
+    private final int noRepeat;
+    private final AtomicReference<int[]> recent;
+
+    private MessagePool(String[] messages, double[] probabilities, int[] aliases, int noRepeat) {
+        this.messages = messages;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+        // 至少留一条可选的消息
+        this.noRepeat = Math.max(0, Math.min(noRepeat, messages.length - 1));
+        this.recent = new AtomicReference<>(new int[0]);
+    }
+
+    /**
+     * 编译配置值
+     *
+     * @param value 配置中的字符串、列表或带 messages 的节点
+     * @return 消息池，没有可用消息时返回 EMPTY
+     */
+    static MessagePool compile(Object value) {
+        int noRepeat = 0;
+        if (value instanceof Map) {
+            Map<?, ?> section = (Map<?, ?>) value;
+            if (section.get("no-repeat") instanceof Number) {
+                noRepeat = ((Number) section.get("no-repeat")).intValue();
+            }
+            value = section.get("messages");
+        }
+
+        List<String> messages = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        if (value instanceof String) {
+            messages.add((String) value);
+            weights.add(1.0);
+        } else if (value instanceof List) {
+            for (Object entry : (List<?>) value) {
+                addEntry(entry, messages, weights);
+            }
+        }
+
+        if (messages.isEmpty()) {
+            return EMPTY;
+        }
+        if (messages.size() == 1) {
+            return new MessagePool(messages.toArray(new String[0]), null, null, 0);
+        }
+        return build(messages.toArray(new String[0]), weights, noRepeat);
+    }
+
+    private static void addEntry(Object entry, List<String> messages, List<Double> weights) {
+        String message = null;
+        double weight = 1.0;
+        if (entry instanceof String) {
+            message = (String) entry;
+        } else if (entry instanceof Map) {
+            Map<?, ?> weighted = (Map<?, ?>) entry;
+            Object text = weighted.get("message");
+            message = text instanceof String ? (String) text : null;
+            if (weighted.get("weight") instanceof Number) {
+                weight = ((Number) weighted.get("weight")).doubleValue();
+            }
+        }
+
+        // 权重不大于0的消息视为禁用
+        if (message != null && weight > 0 && !Double.isInfinite(weight)) {
+            messages.add(message);
+            weights.add(weight);
+        }
+    }
+
+    /**
+     * Vose 别名表构建
+     */
+    private static MessagePool build(String[] messages, List<Double> weights, int noRepeat) {
+        int size = messages.length;
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+
+        double[] scaled = new double[size];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            scaled[i] = weights.get(i) * size / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+
+        double[] probabilities = new double[size];
+        int[] aliases = new int[size];
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+        // 剩余条目的概率只因浮点误差偏离 1
+        while (!large.isEmpty()) {
+            probabilities[large.pop()] = 1.0;
+        }
+        while (!small.isEmpty()) {
+            probabilities[small.pop()] = 1.0;
+        }
+
+        return new MessagePool(messages, probabilities, aliases, noRepeat);
+    }
+
+    // ================================
+    // 抽取
+    // ================================
+
+    /**
+     * 按权重抽取一条消息
+     *
+     * @return 消息，池为空时返回 null
+     */
+    String next() {
+        if (messages.length <= 1) {
+            return messages.length == 1 ? messages[0] : null;
+        }
+        if (noRepeat == 0) {
+            return messages[sample(ThreadLocalRandom.current())];
+        }
+
+        while (true) {
+            int[] history = recent.get();
+            int index = sampleExcluding(history);
+
+            int[] updated = new int[Math.min(noRepeat, history.length + 1)];
+            updated[0] = index;
+            System.arraycopy(history, 0, updated, 1, updated.length - 1);
+            if (recent.compareAndSet(history, updated)) {
+                return messages[index];
+            }
+        }
+    }
+
+    private int sample(ThreadLocalRandom random) {
+        int column = random.nextInt(messages.length);
+        return random.nextDouble() < probabilities[column] ? column : aliases[column];
+    }
+
+    /**
+     * 抽取不在最近记录中的消息（拒绝采样，分布与排除这些消息后重新归一化的权重一致）
+     */
+    private int sampleExcluding(int[] history) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+            int index = sample(random);
+            if (!contains(history, index)) {
+                return index;
+            }
+        }
+
+        // 最近的消息占了绝大部分权重时，直接按剩余权重顺序查找
+        double[] weights = new double[messages.length];
+        double total = 0;
+        for (int i = 0; i < messages.length; i++) {
+            if (!contains(history, i)) {
+                weights[i] = weightOf(i);
+                total += weights[i];
+            }
+        }
+        double target = random.nextDouble() * total;
+        int fallback = -1;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                fallback = i;
+                target -= weights[i];
+                if (target < 0) {
+                    return i;
+                }
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * 从别名表还原单条消息的相对权重
+     */
+    private double weightOf(int index) {
+        double weight = probabilities[index];
+        for (int column = 0; column < aliases.length; column++) {
+            if (aliases[column] == index && probabilities[column] < 1.0) {
+                weight += 1.0 - probabilities[column];
+            }
+        }
+        return weight;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
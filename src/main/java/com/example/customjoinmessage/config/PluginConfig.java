@@ -21,6 +21,9 @@ public class PluginConfig {
     
     private final Map<String, Object> configData;
     
+    // 解析后的回归阈值缓存（配置对象在重载时整体替换，-1 表示尚未解析）
+    private volatile long returningThresholdSeconds = -1;
+    
     public PluginConfig(Map<String, Object> configData) {
         this.configData = configData != null ? configData : new HashMap<>();
     }
@@ -52,6 +55,22 @@ public class PluginConfig {
         return isDebug();
     }
     
+    /**
+     * 是否开启某一类别的详细日志（调试模式下全部开启）
+     * 
+     * @param category 类别键，如 events、first-join
+     */
+    public boolean isLoggingCategoryEnabled(String category) {
+        return isDebug() || getBoolean("logging.categories." + category, false);
+    }
+    
+    /**
+     * 是否在独立线程输出详细日志
+     */
+    public boolean isAsyncLogging() {
+        return getBoolean("logging.async", false);
+    }
+    
     /**
      * 获取通信通道（硬编码，用户无需配置）
      */
@@ -96,6 +115,18 @@ public class PluginConfig {
      * 支持友好时间格式，如 "1d", "2h30m", "1d12h30m"
      */
     public long getReturningThreshold() {
+        long cached = returningThresholdSeconds;
+        if (cached < 0) {
+            cached = parseReturningThreshold();
+            returningThresholdSeconds = cached;
+        }
+        return cached;
+    }
+    
+    /**
+     * 解析回归阈值配置
+     */
+    private long parseReturningThreshold() {
         Object value = getValue("features.welcome-message.returning-threshold");
         
         if (value instanceof String) {
@@ -133,6 +164,13 @@ public class PluginConfig {
         return getBoolean("features.server-switch-message.show-to-all", false);
     }
     
+    /**
+     * 获取切换消息防抖窗口（毫秒），0 表示不防抖
+     */
+    public int getServerSwitchDebounceMillis() {
+        return getInt("features.server-switch-message.debounce-ms", 1500);
+    }
+    
     /**
      * 自定义加入格式是否启用
      */
@@ -207,6 +245,116 @@ public class PluginConfig {
     public boolean hasServerAlias(String serverName) {
         return getValue("server-aliases." + serverName) != null;
     }
+    
+    // ================================
+    // 指标导出
+    // ================================
+    
+    /**
+     * 是否启用 Prometheus 指标端点
+     */
+    public boolean isPrometheusEnabled() {
+        return getBoolean("metrics.prometheus.enabled", false);
+    }
+    
+    /**
+     * Prometheus 端点监听地址（默认仅本机）
+     */
+    public String getPrometheusBindAddress() {
+        return getString("metrics.prometheus.bind-address", "127.0.0.1");
+    }
+    
+    /**
+     * Prometheus 端点端口
+     */
+    public int getPrometheusPort() {
+        return getInt("metrics.prometheus.port", 9464);
+    }
+    
+    /**
+     * 是否启用事件阶段采样追踪
+     */
+    public boolean isTracingEnabled() {
+        return getBoolean("metrics.tracing.enabled", false);
+    }
+    
+    /**
+     * 追踪采样率（每 N 个事件采样 1 个）
+     */
+    public int getTracingSampleRate() {
+        return getInt("metrics.tracing.sample-rate", 100);
+    }
+    
+    /**
+     * 保留的最近追踪数
+     */
+    public int getTracingBufferSize() {
+        return getInt("metrics.tracing.buffer-size", 256);
+    }
+    
+    // ================================
+    // 外部占位符
+    // ================================
+    
+    /**
+     * 是否启用外部占位符（PlaceholderAPI / MiniPlaceholders）
+     */
+    public boolean isExternalPlaceholdersEnabled() {
+        return getBoolean("placeholders.external.enabled", true);
+    }
+    
+    /**
+     * 外部占位符缓存时间（秒）
+     */
+    public int getExternalPlaceholderCacheSeconds() {
+        return getInt("placeholders.external.cache-seconds", 30);
+    }
+    
+    // ================================
+    // 审计日志
+    // ================================
+    
+    /**
+     * 是否启用审计日志
+     */
+    public boolean isAuditEnabled() {
+        return getBoolean("audit.enabled", false);
+    }
+    
+    /**
+     * 审计日志目录（相对于插件数据目录）
+     */
+    public String getAuditDirectory() {
+        return getString("audit.directory", "audit");
+    }
+    
+    /**
+     * 单个审计文件大小上限（MB）
+     */
+    public int getAuditMaxFileSizeMb() {
+        return getInt("audit.max-file-size-mb", 16);
+    }
+    
+    /**
+     * 审计文件保留天数（0 表示不清理）
+     */
+    public int getAuditRetentionDays() {
+        return getInt("audit.retention-days", 14);
+    }
+    
+    /**
+     * 批量 fsync 间隔（毫秒）
+     */
+    public int getAuditFsyncIntervalMs() {
+        return getInt("audit.fsync-interval-ms", 1000);
+    }
+    
+    /**
+     * 审计内存队列容量
+     */
+    public int getAuditBufferSize() {
+        return getInt("audit.buffer-size", 8192);
+    }
 
     
     // ================================
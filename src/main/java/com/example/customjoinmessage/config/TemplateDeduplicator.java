@@ -0,0 +1,100 @@
+package com.example.customjoinmessage.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 消息模板去重（配置编译步骤）
+ *
+ * 遍历 SnakeYAML 加载的配置树，相同内容的模板字符串和消息列表替换为同一个实例。
+ * 多个权限组、多种消息类型重复同一模板时只保留一份，
+ * 模板缓存（按模板内容作键）也因此在这些组之间共享同一个编译结果
+ */
+final class TemplateDeduplicator {
+
+    // 相同内容 -> 规范实例
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<List<?>, List<?>> lists = new HashMap<>();
+
+    private int templateCount;
+    private long savedBytes;
+
+    private TemplateDeduplicator() {
+    }
+
+    /**
+     * 对配置树原地去重
+     *
+     * @param root 配置根节点
+     * @return 去重统计
+     */
+    static MessageConfig.CompileStats deduplicate(Map<String, Object> root) {
+        TemplateDeduplicator deduplicator = new TemplateDeduplicator();
+        deduplicator.visitMap(root);
+        return new MessageConfig.CompileStats(deduplicator.templateCount, deduplicator.strings.size(),
+            deduplicator.savedBytes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void visitMap(Map<?, ?> map) {
+        ((Map<Object, Object>) map).replaceAll((key, value) -> visit(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object visit(Object value) {
+        if (value instanceof String) {
+            return canonical((String) value);
+        }
+        if (value instanceof Map) {
+            visitMap((Map<?, ?>) value);
+            return value;
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            list.replaceAll(this::visit);
+
+            List<?> existing = lists.putIfAbsent(list, list);
+            if (existing != null) {
+                savedBytes += estimateListSize(list.size());
+                return existing;
+            }
+        }
+        return value;
+    }
+
+    private String canonical(String value) {
+        templateCount++;
+        String existing = strings.putIfAbsent(value, value);
+        if (existing != null) {
+            savedBytes += estimateStringSize(value);
+            return existing;
+        }
+        return value;
+    }
+
+    /**
+     * String 实例的近似大小（压缩指针：对象头 + byte[]，Latin-1 每字符 1 字节，否则 2 字节）
+     */
+    private static long estimateStringSize(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return 24 + align(16 + (long) value.length() * bytesPerChar);
+    }
+
+    /**
+     * ArrayList 实例的近似大小（对象 + 引用数组）
+     */
+    private static long estimateListSize(int size) {
+        return 24 + align(16 + 4L * size);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.customjoinmessage.core;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 粗粒度时钟
+ *
+ * 按格式缓存已格式化的当前时间字符串，由后台线程在每秒整点刷新。
+ * 占位符读取时只是一次 volatile 读，不再在每条消息上创建 DateTimeFormatter 结果和临时对象。
+ *
+ * 时钟未运行（插件启动前或关闭后）时读取会直接格式化当前时间，结果始终可用
+ */
+public final class CoarseClock {
+
+    private static final CoarseClock INSTANCE = new CoarseClock();
+
+    private final Map<String, Formatted> formats = new ConcurrentHashMap<>();
+
+    private volatile Thread ticker;
+
+    private CoarseClock() {
+    }
+
+    /**
+     * 获取全局时钟
+     */
+    public static CoarseClock get() {
+        return INSTANCE;
+    }
+
+    // ================================
+    // 生命周期
+    // ================================
+
+    /**
+     * 启动每秒刷新的后台线程
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        refresh();
+        Thread thread = Thread.ofVirtual().name("CustomJoinMessage-Clock").unstarted(this::tickLoop);
+        ticker = thread;
+        thread.start();
+    }
+
+    /**
+     * 停止后台线程
+     */
+    public synchronized void stop() {
+        Thread current = ticker;
+        ticker = null;
+        if (current != null) {
+            current.interrupt();
+        }
+    }
+
+    // ================================
+    // 格式
+    // ================================
+
+    /**
+     * 获取指定格式的当前时间（相同格式共用一个条目）
+     *
+     * @param pattern DateTimeFormatter 格式
+     * @return 可重复读取的格式化时间
+     * @throws IllegalArgumentException 格式无效
+     */
+    public Formatted format(String pattern) {
+        Formatted formatted = formats.get(pattern);
+        if (formatted == null) {
+            formatted = formats.computeIfAbsent(pattern, key -> new Formatted(DateTimeFormatter.ofPattern(key)));
+        }
+        return formatted;
+    }
+
+    private void tickLoop() {
+        while (ticker == Thread.currentThread()) {
+            try {
+                // 对齐到下一秒整点，使秒数变化与实际时间一致
+                Thread.sleep(1000 - System.currentTimeMillis() % 1000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            refresh();
+        }
+    }
+
+    private void refresh() {
+        ZonedDateTime now = ZonedDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
+        for (Formatted formatted : formats.values()) {
+            formatted.update(now);
+        }
+    }
+
+    /**
+     * 某一格式的当前时间
+     */
+    public final class Formatted {
+        private final DateTimeFormatter formatter;
+        private volatile String value;
+
+        private Formatted(DateTimeFormatter formatter) {
+            this.formatter = formatter;
+            this.value = formatter.format(ZonedDateTime.now());
+        }
+
+        /**
+         * 当前时间（时钟运行时精确到秒）
+         */
+        public String get() {
+            return ticker != null ? value : formatter.format(ZonedDateTime.now());
+        }
+
+        private void update(ZonedDateTime now) {
+            value = formatter.format(now);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.customjoinmessage.core;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 预编译的消息组件模板
+ *
+ * 模板（颜色、权限组前缀、静态文本）只解析一次，占位符（{key} 与 {命名空间:名称}）以字面文本保留在组件树中。
+ * 渲染时只替换包含占位符的文本节点，其余节点在所有玩家间共享，
+ * 不再对每条消息做完整的 MiniMessage 解析。
+ *
+ * 占位符出现在标签参数中（例如 click/hover 的值），或位于 gradient/rainbow/transition 区段内
+ * （MiniMessage 会把其中的文本逐字符拆成独立组件）时无法按文本节点替换，
+ * 这类模板标记为不可编译（同样会被缓存，避免重复检查），render 返回 null，
+ * 调用方应回退为先格式化再解析
+ */
+public final class ComponentTemplate {
+
+    private static final Pattern SLOT_PATTERN = Pattern.compile("\\{[A-Za-z0-9_]+(?::[^}]+)?}");
+
+    private static final Pattern TAG_PATTERN = Pattern.compile("<(/?)([A-Za-z_]+)[^<>]*>");
+
+    /** 逐字符着色的标签，区段内文本会被拆成单字符组件 */
+    private static final Set<String> SPLITTING_TAGS = Set.of("gradient", "rainbow", "transition");
+
+    private static final ComponentTemplate UNCOMPILABLE = new ComponentTemplate(null, Set.of());
+
+    private final Component component;
+    private final Set<String> slots;
+    private final Pattern slotPattern;
+
+    private ComponentTemplate(Component component, Set<String> slots) {
+        this.component = component;
+        this.slots = slots;
+        this.slotPattern = slots.isEmpty() ? null : Pattern.compile(alternation(slots));
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param template 原始模板（包含 {key} 或 {命名空间:名称} 占位符）
+     * @param parser 模板文本 -> 组件（通常为 MiniMessage 解析）
+     * @return 编译结果，不可编译时 isCompiled() 为 false
+     */
+    public static ComponentTemplate compile(String template, Function<String, Component> parser) {
+        Set<String> slots = new LinkedHashSet<>();
+        Matcher matcher = SLOT_PATTERN.matcher(template);
+        while (matcher.find()) {
+            if (isInsideTag(template, matcher.start()) || isInsideSplittingSection(template, matcher.start())) {
+                return UNCOMPILABLE;
+            }
+            slots.add(matcher.group());
+        }
+
+        Component component = parser.apply(template);
+        return component != null ? new ComponentTemplate(component, slots) : UNCOMPILABLE;
+    }
+
+    /**
+     * 渲染组件
+     *
+     * @param formatter 格式化函数，对单个占位符（例如 "{player}"、"{ext:vault_prefix}"）返回替换后的值
+     * @return 模板不可编译，或替换值本身包含标签时返回 null（需要完整解析才能保持原有效果）
+     */
+    public Component render(UnaryOperator<String> formatter) {
+        if (component == null) {
+            return null;
+        }
+        if (slotPattern == null) {
+            return component;
+        }
+
+        Map<String, String> values = new HashMap<>(slots.size() * 2);
+        for (String slot : slots) {
+            String value = formatter.apply(slot);
+            if (value != null && !value.equals(slot)) {
+                if (value.indexOf('<') >= 0) {
+                    return null;
+                }
+                values.put(slot, value);
+            }
+        }
+        if (values.isEmpty()) {
+            return component;
+        }
+
+        return component.replaceText(TextReplacementConfig.builder()
+            .match(slotPattern)
+            .replacement((match, builder) -> {
+                String value = values.get(match.group());
+                return value != null ? builder.content(value) : builder;
+            })
+            .build());
+    }
+
+    /**
+     * 是否已编译（占位符均位于文本中）
+     */
+    public boolean isCompiled() {
+        return component != null;
+    }
+
+    /**
+     * 位置是否在 <...> 标签内
+     */
+    private static boolean isInsideTag(String template, int index) {
+        int open = template.lastIndexOf('<', index);
+        return open >= 0 && template.lastIndexOf('>', index) < open;
+    }
+
+    /**
+     * 位置是否在未闭合的 gradient/rainbow/transition 区段内（reset 会关闭所有区段）
+     */
+    private static boolean isInsideSplittingSection(String template, int index) {
+        int depth = 0;
+        Matcher tag = TAG_PATTERN.matcher(template).region(0, index);
+        while (tag.find()) {
+            String name = tag.group(2).toLowerCase(Locale.ROOT);
+            if (name.equals("reset")) {
+                depth = 0;
+            } else if (SPLITTING_TAGS.contains(name)) {
+                depth = tag.group(1).isEmpty() ? depth + 1 : Math.max(0, depth - 1);
+            }
+        }
+        return depth > 0;
+    }
+
+    private static String alternation(Set<String> slots) {
+        StringBuilder regex = new StringBuilder();
+        for (String slot : slots) {
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            regex.append(Pattern.quote(slot));
+        }
+        return regex.toString();
+    }
+}
@@ -2,7 +2,16 @@ package com.example.customjoinmessage.core;
 
 
 import com.example.customjoinmessage.config.ConfigManager;
+import com.example.customjoinmessage.config.PluginConfig;
 import com.example.customjoinmessage.platform.AbstractPlatformAdapter;
+import com.example.customjoinmessage.platform.backend.FoliaAdapter;
+import com.example.customjoinmessage.platform.backend.PaperAdapter;
+import com.example.customjoinmessage.platform.backend.SpigotAdapter;
+import com.example.customjoinmessage.platform.proxy.BungeeCordAdapter;
+import com.example.customjoinmessage.platform.proxy.VelocityAdapter;
+import com.example.customjoinmessage.storage.AuditLog;
+import com.example.customjoinmessage.utils.LoggerUtil;
+import com.example.customjoinmessage.utils.LoggerUtil.Category;
 import com.example.customjoinmessage.utils.PermissionUtil;
 
 import org.slf4j.Logger;
@@ -10,6 +19,7 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.io.File;
+import java.util.function.BiFunction;
 
 /**
  * CustomJoinMessage 统一主插件类
@@ -30,10 +40,13 @@ public class CustomJoinMessagePlugin {
     public static final String COMMUNICATION_CHANNEL = "customjoinmessage:sync";
     
     // 核心组件
+    private final PlatformDetector.PlatformCapabilities capabilities;
     private final PlatformDetector.PlatformType platformType;
     private volatile PluginMode pluginMode; // 改为volatile，支持动态修改
     private final ConfigManager configManager;
     private final AbstractPlatformAdapter platformAdapter;
+    private final PlayerRoster playerRoster;
+    private volatile AuditLog auditLog;
     
 
     
@@ -56,11 +69,15 @@ public class CustomJoinMessagePlugin {
         this.pluginInstance = pluginInstance;
         this.dataDirectory = dataDirectory;
         
-        // 检测平台类型
-        this.platformType = PlatformDetector.detectPlatform();
+        // 检测平台能力（只探测一次，所有适配器共享该快照）
+        this.capabilities = PlatformDetector.getCapabilities();
+        this.platformType = capabilities.getPlatformType();
+        
+        // 初始化在线名册（由适配器的事件维护）
+        this.playerRoster = new PlayerRoster();
         
         // 初始化配置管理器
-        this.configManager = new ConfigManager(dataDirectory);
+        this.configManager = new ConfigManager(dataDirectory, playerRoster);
         
 
         
@@ -78,6 +95,7 @@ public class CustomJoinMessagePlugin {
         try {
             // 加载配置
             configManager.loadConfigs();
+            configureLogging();
             
             // 配置加载后重新决定运行模式
             this.pluginMode = determineInitialMode();
@@ -88,9 +106,17 @@ public class CustomJoinMessagePlugin {
             // 初始化智能权限检测
             PermissionUtil.initializePermissions(configManager.getPluginConfig());
             
+            // 启动时间占位符时钟
+            CoarseClock.get().start();
+            
             // 启用平台适配器
             platformAdapter.onEnable();
             
+            // 注册队列深度指标并启动导出器
+            registerGauges();
+            configureMetrics();
+            configureAudit();
+            
             // 注册常规通信通道
             platformAdapter.registerCommunicationChannel();
             
@@ -115,6 +141,18 @@ public class CustomJoinMessagePlugin {
                 platformAdapter.onDisable();
             }
             
+            // 停止指标导出
+            PluginMetrics.get().stopExporters();
+            
+            // 停止时间占位符时钟
+            CoarseClock.get().stop();
+            
+            // 写出剩余审计记录
+            closeAudit();
+            
+            // 输出剩余的异步日志
+            LoggerUtil.shutdown();
+            
             // 保存配置
             if (configManager != null) {
                 configManager.saveConfigs();
@@ -136,10 +174,15 @@ public class CustomJoinMessagePlugin {
             
             // 重新加载配置
             configManager.loadConfigs();
+            configureLogging();
             
             // 重新加载适配器
             platformAdapter.reload();
             
+            // 按新配置重启指标导出器和审计日志
+            configureMetrics();
+            configureAudit();
+            
             logger.info("配置已重新加载");
             
         } catch (Exception e) {
@@ -147,15 +190,95 @@ public class CustomJoinMessagePlugin {
         }
     }
     
+    /**
+     * 注册瞬时指标（在 /cjm stats 和导出器中显示）
+     */
+    private void registerGauges() {
+        PluginMetrics metrics = PluginMetrics.get();
+        metrics.registerGauge("online_players", "在线名册玩家数", playerRoster::getOnlineCount);
+        metrics.registerGauge("pending_tasks", "待执行的延迟任务", platformAdapter::getPendingTaskCount);
+        metrics.registerGauge("audit_queue", "待写入的审计记录", () -> {
+            AuditLog current = auditLog;
+            return current != null ? current.getQueueSize() : 0;
+        });
+        metrics.registerGauge("audit_dropped", "丢弃的审计记录", () -> {
+            AuditLog current = auditLog;
+            return current != null ? current.getDroppedCount() : 0;
+        });
+        metrics.registerGauge("config_distinct_templates", "去重后的配置字符串",
+            () -> configManager.getMessageConfig().getCompileStats().getDistinctCount());
+        metrics.registerGauge("config_dedup_bytes", "配置去重节省的内存（字节）",
+            () -> configManager.getMessageConfig().getCompileStats().getSavedBytes());
+    }
+    
+    /**
+     * 按配置启动审计日志（先关闭已有的审计日志）
+     */
+    private void configureAudit() {
+        closeAudit();
+        
+        PluginConfig pluginConfig = configManager.getPluginConfig();
+        if (!pluginConfig.isAuditEnabled()) {
+            return;
+        }
+        
+        AuditLog newAuditLog = new AuditLog(
+            dataDirectory.resolve(pluginConfig.getAuditDirectory()),
+            pluginConfig.getAuditMaxFileSizeMb() * 1024L * 1024L,
+            pluginConfig.getAuditRetentionDays(),
+            pluginConfig.getAuditFsyncIntervalMs(),
+            pluginConfig.getAuditBufferSize());
+        try {
+            newAuditLog.start();
+            auditLog = newAuditLog;
+        } catch (Exception e) {
+            logger.error("启动审计日志失败: {}", e.getMessage(), e);
+        }
+    }
+    
+    private void closeAudit() {
+        AuditLog current = auditLog;
+        auditLog = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+    
+    /**
+     * 按配置刷新各类别详细日志的开关
+     */
+    private void configureLogging() {
+        PluginConfig pluginConfig = configManager.getPluginConfig();
+        for (Category category : Category.values()) {
+            LoggerUtil.setEnabled(category, pluginConfig.isLoggingCategoryEnabled(category.getKey()));
+        }
+        LoggerUtil.setAsync(pluginConfig.isAsyncLogging());
+    }
+    
+    /**
+     * 按配置启动指标导出器（先停止已有的导出器）并应用阶段追踪设置
+     */
+    private void configureMetrics() {
+        PluginMetrics metrics = PluginMetrics.get();
+        metrics.stopExporters();
+        
+        PluginConfig pluginConfig = configManager.getPluginConfig();
+        if (pluginConfig.isPrometheusEnabled()) {
+            metrics.addExporter(new PrometheusExporter(
+                pluginConfig.getPrometheusBindAddress(), pluginConfig.getPrometheusPort()));
+        }
+        
+        StageTracer.get().configure(pluginConfig.isTracingEnabled(),
+            pluginConfig.getTracingSampleRate(), pluginConfig.getTracingBufferSize());
+    }
+    
     /**
      * 决定初始运行模式（基于平台类型和配置文件）
      */
     private PluginMode determineInitialMode() {
         // 代理端强制使用主控模式，忽略配置文件
         if (platformType.isProxy()) {
-            if (configManager.getPluginConfig().isDebug()) {
-                logger.info("模式决定: 检测到代理平台，强制启用代理主控模式");
-            }
+            LoggerUtil.verbose(Category.PLATFORM, "模式决定: 检测到代理平台，强制启用代理主控模式");
             return PluginMode.PROXY_MASTER;
         }
         
@@ -168,9 +291,7 @@ public class CustomJoinMessagePlugin {
             case "backend":
                 return PluginMode.BACKEND_SLAVE;
             case "auto":  // 兼容旧配置，默认为 backend 模式
-                if (configManager.getPluginConfig().isDebug()) {
-                    logger.info("'auto' 模式已废弃，自动转换为后端从属模式");
-                }
+                LoggerUtil.verbose(Category.PLATFORM, "'auto' 模式已废弃，自动转换为后端从属模式");
                 return PluginMode.BACKEND_SLAVE;
             default:
                 // 后端无效配置默认为从属模式
@@ -216,31 +337,34 @@ public class CustomJoinMessagePlugin {
     
     
     /**
-     * 创建平台适配器 - 使用反射动态加载，避免类加载冲突
+     * 创建平台适配器
+     * 
+     * 构造器引用只有在执行到对应分支时才会解析，
+     * 因此其他平台的适配器类（及其依赖的平台API）不会被加载
      */
     private AbstractPlatformAdapter createPlatformAdapter() {
-        String adapterClassName;
+        BiFunction<CustomJoinMessagePlugin, Object, AbstractPlatformAdapter> factory;
         
         switch (platformType) {
             case VELOCITY:
-                adapterClassName = "com.example.customjoinmessage.platform.proxy.VelocityAdapter";
+                factory = VelocityAdapter::new;
                 break;
                 
             case BUNGEECORD:
-                adapterClassName = "com.example.customjoinmessage.platform.proxy.BungeeCordAdapter";
+                factory = BungeeCordAdapter::new;
                 break;
                 
             case PAPER:
-                adapterClassName = "com.example.customjoinmessage.platform.backend.PaperAdapter";
+                factory = PaperAdapter::new;
                 break;
                 
             case FOLIA:
-                adapterClassName = "com.example.customjoinmessage.platform.backend.FoliaAdapter";
+                factory = FoliaAdapter::new;
                 break;
                 
             case SPIGOT:
             case CRAFTBUKKIT:
-                adapterClassName = "com.example.customjoinmessage.platform.backend.SpigotAdapter";
+                factory = SpigotAdapter::new;
                 break;
                 
             default:
@@ -250,21 +374,9 @@ public class CustomJoinMessagePlugin {
         }
         
         try {
-            // 使用反射动态创建适配器，避免在编译时加载所有平台的类
-            Class<?> adapterClass = Class.forName(adapterClassName);
-            
-            // 获取构造函数
-            java.lang.reflect.Constructor<?> constructor = adapterClass.getConstructor(
-                CustomJoinMessagePlugin.class, 
-                Object.class
-            );
+            return factory.apply(this, pluginInstance);
             
-            // 创建实例
-            Object adapterInstance = constructor.newInstance(this, pluginInstance);
-            
-            return (AbstractPlatformAdapter) adapterInstance;
-            
-        } catch (Exception e) {
+        } catch (Exception | LinkageError e) {
             logger.error("创建平台适配器失败: {}", e.getMessage(), e);
             throw new RuntimeException("无法创建平台适配器: " + platformType.getDisplayName(), e);
         }
@@ -276,8 +388,9 @@ public class CustomJoinMessagePlugin {
     private void printStartupInfo() {
         // 显示简洁的启动信息
         logger.info("CustomJoinMessage 启动中...");
-        logger.info("平台: {} | 模式: {}", 
+        logger.info("平台: {} ({}) | 模式: {}", 
                    platformType.getDisplayName(), 
+                   capabilities.getServerVersion(),
                    pluginMode.getDisplayName());
         logger.info("CustomJoinMessage 启动完成");
     }
@@ -294,6 +407,10 @@ public class CustomJoinMessagePlugin {
         return platformType;
     }
     
+    public PlatformDetector.PlatformCapabilities getCapabilities() {
+        return capabilities;
+    }
+    
     public PluginMode getPluginMode() {
         return pluginMode;
     }
@@ -306,6 +423,21 @@ public class CustomJoinMessagePlugin {
         return platformAdapter;
     }
     
+    public PlayerRoster getPlayerRoster() {
+        return playerRoster;
+    }
+    
+    public PluginMetrics getMetrics() {
+        return PluginMetrics.get();
+    }
+    
+    /**
+     * 获取审计日志（未启用时为 null）
+     */
+    public AuditLog getAuditLog() {
+        return auditLog;
+    }
+    
     public Object getPluginInstance() {
         return pluginInstance;
     }
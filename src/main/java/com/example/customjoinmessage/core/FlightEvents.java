@@ -0,0 +1,119 @@
+package com.example.customjoinmessage.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder 自定义事件
+ *
+ * 所有事件默认关闭，需要在录制设置（.jfc）中显式开启，例如:
+ * &lt;event name="cjm.Join"&gt;&lt;setting name="enabled"&gt;true&lt;/setting&gt;&lt;/event&gt;
+ * 然后 -XX:StartFlightRecording:settings=default,settings=cjm.jfc 或 jcmd &lt;pid&gt; JFR.start settings=cjm.jfc
+ *
+ * 未录制时 shouldCommit() 为常量 false，事件对象可被逃逸分析消除，字段不会被填充
+ */
+public final class FlightEvents {
+
+    private static final String CATEGORY = "CustomJoinMessage";
+
+    private FlightEvents() {
+    }
+
+    /**
+     * 创建并开始计时对应类型的事件处理事件
+     */
+    public static HandlerEvent beginHandler(PluginMetrics.CounterType counter) {
+        HandlerEvent event;
+        switch (counter) {
+            case LEAVES:
+                event = new Leave();
+                break;
+            case SWITCHES:
+                event = new Switch();
+                break;
+            default:
+                event = new Join();
+                break;
+        }
+        event.begin();
+        return event;
+    }
+
+    // ================================
+    // 事件处理
+    // ================================
+
+    /**
+     * 加入/离开/切换事件处理的公共字段
+     */
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public abstract static class HandlerEvent extends Event {
+        @Label("Online Players")
+        @Description("处理时的在线名册玩家数")
+        public int onlinePlayers;
+    }
+
+    @Name("cjm.Join")
+    @Label("Join Handler")
+    @Description("处理玩家加入事件")
+    public static final class Join extends HandlerEvent {
+    }
+
+    @Name("cjm.Leave")
+    @Label("Leave Handler")
+    @Description("处理玩家离开事件")
+    public static final class Leave extends HandlerEvent {
+    }
+
+    @Name("cjm.Switch")
+    @Label("Switch Handler")
+    @Description("处理玩家切换服务器事件")
+    public static final class Switch extends HandlerEvent {
+    }
+
+    // ================================
+    // 广播与持久化
+    // ================================
+
+    @Name("cjm.Broadcast")
+    @Label("Broadcast")
+    @Description("按语言渲染并发送一条消息")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Broadcast extends Event {
+        @Label("Template Key")
+        @Description("消息类别与类型，例如 join.first-time")
+        public String templateKey;
+
+        @Label("Recipients")
+        public int recipients;
+
+        @Label("Languages")
+        @Description("渲染的语言分组数")
+        public int languages;
+    }
+
+    @Name("cjm.Persist")
+    @Label("Persist")
+    @Description("读取或写入玩家数据文件")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    public static final class Persist extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.customjoinmessage.core;
+
+/**
+ * 指标导出器接口
+ *
+ * 导出器在注册时启动，插件关闭时停止；
+ * 推送型导出器可在 start 中自行调度，拉取型导出器在被请求时调用 {@link PluginMetrics#snapshot()}
+ */
+public interface MetricsExporter {
+
+    /**
+     * 导出器名称（用于日志和 /cjm stats）
+     */
+    String getName();
+
+    /**
+     * 启动导出
+     */
+    void start(PluginMetrics metrics) throws Exception;
+
+    /**
+     * 停止导出并释放资源
+     */
+    void stop();
+}
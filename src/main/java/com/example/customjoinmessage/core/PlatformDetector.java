@@ -6,11 +6,12 @@ import org.slf4j.LoggerFactory;
 /**
  * 平台检测器
  * 自动检测当前运行的服务器核心类型
+ * 
+ * 所有类探测只在首次访问时执行一次，结果保存为不可变的 {@link PlatformCapabilities} 快照
  */
 public class PlatformDetector {
     
     private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
-    private static PlatformType detectedPlatform = null;
     
     public enum PlatformType {
         // 代理端
@@ -64,64 +65,80 @@ public class PlatformDetector {
      * 检测当前平台类型
      */
     public static PlatformType detectPlatform() {
-        if (detectedPlatform != null) {
-            return detectedPlatform;
-        }
-        
-        // 检测 Velocity
-        if (isClassPresent("com.velocitypowered.api.proxy.ProxyServer")) {
-            detectedPlatform = PlatformType.VELOCITY;
-            return detectedPlatform;
-        }
-        
-        // 检测 BungeeCord
-        if (isClassPresent("net.md_5.bungee.api.ProxyServer")) {
-            detectedPlatform = PlatformType.BUNGEECORD;
-            return detectedPlatform;
-        }
+        return getCapabilities().getPlatformType();
+    }
+    
+    /**
+     * 执行一次完整的平台探测（包级可见，供基准测试测量探测开销）
+     */
+    static PlatformCapabilities detect() {
+        PlatformType platform;
+        Class<?> velocityServer = findClass("com.velocitypowered.api.proxy.ProxyServer");
+        Class<?> bungeeServer = velocityServer == null ? findClass("net.md_5.bungee.api.ProxyServer") : null;
+        Class<?> bukkit = null;
         
-        // 检测 Folia (Paper的分支，需要先检测)
-        if (isClassPresent("io.papermc.paper.threadedregions.RegionizedServer")) {
-            detectedPlatform = PlatformType.FOLIA;
-            return detectedPlatform;
+        if (velocityServer != null) {
+            // 检测 Velocity
+            platform = PlatformType.VELOCITY;
+        } else if (bungeeServer != null) {
+            // 检测 BungeeCord
+            platform = PlatformType.BUNGEECORD;
+        } else if (isClassPresent("io.papermc.paper.threadedregions.RegionizedServer")) {
+            // 检测 Folia (Paper的分支，需要先检测)
+            platform = PlatformType.FOLIA;
+        } else if (isClassPresent("io.papermc.paper.event.player.PlayerItemCooldownEvent") ||
+                   isClassPresent("com.destroystokyo.paper.PaperConfig")) {
+            // 检测 Paper
+            platform = PlatformType.PAPER;
+        } else if (isClassPresent("org.spigotmc.SpigotConfig") ||
+                   isClassPresent("net.md_5.bungee.api.chat.BaseComponent")) {
+            // 检测 Spigot
+            platform = PlatformType.SPIGOT;
+        } else if (isClassPresent("org.bukkit.Bukkit")) {
+            // 检测 CraftBukkit
+            platform = PlatformType.CRAFTBUKKIT;
+        } else {
+            // 未知平台
+            platform = PlatformType.UNKNOWN;
+            logger.warn("无法检测到已知的服务器平台类型");
         }
         
-        // 检测 Paper
-        if (isClassPresent("io.papermc.paper.event.player.PlayerItemCooldownEvent") ||
-            isClassPresent("com.destroystokyo.paper.PaperConfig")) {
-            detectedPlatform = PlatformType.PAPER;
-            return detectedPlatform;
+        if (platform.isBackend() && platform != PlatformType.UNKNOWN) {
+            bukkit = findClass("org.bukkit.Bukkit");
         }
         
-        // 检测 Spigot
-        if (isClassPresent("org.spigotmc.SpigotConfig") ||
-            isClassPresent("net.md_5.bungee.api.chat.BaseComponent")) {
-            detectedPlatform = PlatformType.SPIGOT;
-            return detectedPlatform;
-        }
+        boolean hasAdventure = isClassPresent("net.kyori.adventure.text.Component") &&
+                               isClassPresent("net.kyori.adventure.text.minimessage.MiniMessage");
         
-        // 检测 CraftBukkit
-        if (isClassPresent("org.bukkit.Bukkit")) {
-            detectedPlatform = PlatformType.CRAFTBUKKIT;
-            return detectedPlatform;
+        return new PlatformCapabilities(
+            platform,
+            readServerVersion(platform, bungeeServer, bukkit),
+            platform.isProxy(),
+            platform.isBackend(),
+            platform != PlatformType.UNKNOWN,
+            supportsPluginMessaging(platform),
+            supportsModernEvents(platform),
+            hasAdventure,
+            platform == PlatformType.FOLIA
+        );
+    }
+    
+    /**
+     * 查找指定的类，不存在时返回 null
+     */
+    private static Class<?> findClass(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
         }
-        
-        // 未知平台
-        detectedPlatform = PlatformType.UNKNOWN;
-        logger.warn("无法检测到已知的服务器平台类型");
-        return detectedPlatform;
     }
     
     /**
      * 检查指定的类是否存在
      */
     private static boolean isClassPresent(String className) {
-        try {
-            Class.forName(className);
-            return true;
-        } catch (ClassNotFoundException e) {
-            return false;
-        }
+        return findClass(className) != null;
     }
     
     /**
@@ -142,19 +159,24 @@ public class PlatformDetector {
      * 获取服务器版本信息
      */
     public static String getServerVersion() {
+        return getCapabilities().getServerVersion();
+    }
+    
+    /**
+     * 读取服务器版本（仅在探测时执行一次）
+     */
+    private static String readServerVersion(PlatformType platform, Class<?> bungeeServer, Class<?> bukkit) {
         try {
-            PlatformType platform = detectPlatform();
-            
             switch (platform) {
                 case VELOCITY:
                     return getVelocityVersion();
                 case BUNGEECORD:
-                    return getBungeeCordVersion();
+                    return getBungeeCordVersion(bungeeServer);
                 case PAPER:
                 case FOLIA:
                 case SPIGOT:
                 case CRAFTBUKKIT:
-                    return getBukkitVersion();
+                    return getBukkitVersion(bukkit);
                 default:
                     return "Unknown";
             }
@@ -165,56 +187,50 @@ public class PlatformDetector {
     }
     
     /**
-     * 获取 Velocity 版本
+     * 获取 Velocity 版本（读取代理核心的清单信息）
      */
     private static String getVelocityVersion() {
-        try {
-            // 尝试通过反射获取Velocity版本
-            Class.forName("com.velocitypowered.proxy.VelocityServer");
-            return "Velocity (版本检测需要运行时)";
-        } catch (Exception e) {
-            return "Velocity (未知版本)";
-        }
+        Class<?> velocityServer = findClass("com.velocitypowered.proxy.VelocityServer");
+        String version = velocityServer != null && velocityServer.getPackage() != null
+            ? velocityServer.getPackage().getImplementationVersion()
+            : null;
+        return version != null ? "Velocity " + version : "Velocity (未知版本)";
     }
     
     /**
      * 获取 BungeeCord 版本
      */
-    private static String getBungeeCordVersion() {
-        try {
-            Class.forName("net.md_5.bungee.api.ProxyServer");
-            return "BungeeCord (版本检测需要运行时)";
-        } catch (Exception e) {
+    private static String getBungeeCordVersion(Class<?> proxyServerClass) throws ReflectiveOperationException {
+        Object proxy = proxyServerClass.getMethod("getInstance").invoke(null);
+        if (proxy == null) {
             return "BungeeCord (未知版本)";
         }
+        return "BungeeCord " + proxyServerClass.getMethod("getVersion").invoke(proxy);
     }
     
     /**
      * 获取 Bukkit 系列版本
      */
-    private static String getBukkitVersion() {
-        try {
-            Class.forName("org.bukkit.Bukkit");
-            // 在运行时可以调用 Bukkit.getVersion()
-            return "Bukkit系列 (版本检测需要运行时)";
-        } catch (Exception e) {
+    private static String getBukkitVersion(Class<?> bukkitClass) throws ReflectiveOperationException {
+        if (bukkitClass == null) {
             return "Bukkit系列 (未知版本)";
         }
+        Object version = bukkitClass.getMethod("getVersion").invoke(null);
+        return version != null ? version.toString() : "Bukkit系列 (未知版本)";
     }
     
     /**
-     * 获取平台能力信息
+     * 获取平台能力信息（启动时探测一次，之后直接返回缓存的快照）
      */
     public static PlatformCapabilities getCapabilities() {
-        PlatformType platform = detectPlatform();
-        
-        return new PlatformCapabilities(
-            platform.isProxy(),
-            platform.isBackend(),
-            platform != PlatformType.UNKNOWN,
-            supportsPluginMessaging(platform),
-            supportsModernEvents(platform)
-        );
+        return CapabilitiesHolder.CAPABILITIES;
+    }
+    
+    /**
+     * 延迟初始化的快照持有者（类加载保证线程安全且只执行一次）
+     */
+    private static final class CapabilitiesHolder {
+        private static final PlatformCapabilities CAPABILITIES = detect();
     }
     
     /**
@@ -234,29 +250,43 @@ public class PlatformDetector {
     }
     
     /**
-     * 平台能力信息
+     * 平台能力信息（不可变快照）
      */
-    public static class PlatformCapabilities {
+    public static final class PlatformCapabilities {
+        private final PlatformType platformType;
+        private final String serverVersion;
         private final boolean isProxy;
         private final boolean isBackend;
         private final boolean isSupported;
         private final boolean supportsPluginMessaging;
         private final boolean supportsModernEvents;
+        private final boolean hasAdventure;
+        private final boolean hasFolia;
         
-        public PlatformCapabilities(boolean isProxy, boolean isBackend, boolean isSupported, 
-                                  boolean supportsPluginMessaging, boolean supportsModernEvents) {
+        public PlatformCapabilities(PlatformType platformType, String serverVersion,
+                                  boolean isProxy, boolean isBackend, boolean isSupported, 
+                                  boolean supportsPluginMessaging, boolean supportsModernEvents,
+                                  boolean hasAdventure, boolean hasFolia) {
+            this.platformType = platformType;
+            this.serverVersion = serverVersion;
             this.isProxy = isProxy;
             this.isBackend = isBackend;
             this.isSupported = isSupported;
             this.supportsPluginMessaging = supportsPluginMessaging;
             this.supportsModernEvents = supportsModernEvents;
+            this.hasAdventure = hasAdventure;
+            this.hasFolia = hasFolia;
         }
         
         // Getters
+        public PlatformType getPlatformType() { return platformType; }
+        public String getServerVersion() { return serverVersion; }
         public boolean isProxy() { return isProxy; }
         public boolean isBackend() { return isBackend; }
         public boolean isSupported() { return isSupported; }
         public boolean supportsPluginMessaging() { return supportsPluginMessaging; }
         public boolean supportsModernEvents() { return supportsModernEvents; }
+        public boolean hasAdventure() { return hasAdventure; }
+        public boolean hasFolia() { return hasFolia; }
     }
-}
\ No newline at end of file
+}
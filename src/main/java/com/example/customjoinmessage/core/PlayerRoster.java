@@ -0,0 +1,215 @@
+package com.example.customjoinmessage.core;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在线玩家名册
+ *
+ * 由加入/切换/离开事件维护的全网在线索引：
+ * - 总在线人数、每个服务器人数、每个权限组人数
+ * - 玩家名 -> UUID 映射
+ *
+ * 读取全部为无锁操作，占位符 {online_count}、{server_online}、{group_online} 的解析为 O(1)
+ */
+public class PlayerRoster {
+
+    // UUID -> 在线记录
+    private final Map<UUID, Entry> players = new ConcurrentHashMap<>();
+
+    // 小写玩家名 -> UUID
+    private final Map<String, UUID> nameIndex = new ConcurrentHashMap<>();
+
+    // 计数器
+    private final AtomicInteger onlineCount = new AtomicInteger();
+    private final Map<String, AtomicInteger> serverCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> groupCounts = new ConcurrentHashMap<>();
+
+    // ================================
+    // 事件写入
+    // ================================
+
+    /**
+     * 记录玩家加入（重复加入视为覆盖旧记录）
+     */
+    public void join(UUID playerId, String playerName, String serverName, String permissionGroup) {
+        if (playerId == null || playerName == null) {
+            return;
+        }
+
+        Entry entry = new Entry(playerId, playerName, serverName, permissionGroup);
+        Entry previous = players.put(playerId, entry);
+
+        if (previous != null) {
+            decrement(serverCounts, previous.serverName);
+            decrement(groupCounts, previous.permissionGroup);
+            nameIndex.remove(normalize(previous.playerName), playerId);
+        } else {
+            onlineCount.incrementAndGet();
+        }
+
+        increment(serverCounts, serverName);
+        increment(groupCounts, permissionGroup);
+        nameIndex.put(normalize(playerName), playerId);
+    }
+
+    /**
+     * 记录玩家切换服务器
+     */
+    public void switchServer(UUID playerId, String serverName) {
+        if (playerId == null) {
+            return;
+        }
+
+        while (true) {
+            Entry current = players.get(playerId);
+            if (current == null || sameKey(current.serverName, serverName)) {
+                return;
+            }
+
+            Entry updated = new Entry(playerId, current.playerName, serverName, current.permissionGroup);
+            if (players.replace(playerId, current, updated)) {
+                decrement(serverCounts, current.serverName);
+                increment(serverCounts, serverName);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 记录玩家离开
+     */
+    public void leave(UUID playerId) {
+        if (playerId == null) {
+            return;
+        }
+
+        Entry removed = players.remove(playerId);
+        if (removed == null) {
+            return;
+        }
+
+        onlineCount.decrementAndGet();
+        decrement(serverCounts, removed.serverName);
+        decrement(groupCounts, removed.permissionGroup);
+        nameIndex.remove(normalize(removed.playerName), playerId);
+    }
+
+    /**
+     * 清空名册（适配器禁用时调用）
+     */
+    public void clear() {
+        players.clear();
+        nameIndex.clear();
+        serverCounts.clear();
+        groupCounts.clear();
+        onlineCount.set(0);
+    }
+
+    // ================================
+    // 无锁读取
+    // ================================
+
+    /**
+     * 全网在线人数
+     */
+    public int getOnlineCount() {
+        return onlineCount.get();
+    }
+
+    /**
+     * 指定服务器的在线人数
+     */
+    public int getServerCount(String serverName) {
+        AtomicInteger counter = serverName != null ? serverCounts.get(serverName) : null;
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * 指定权限组的在线人数
+     */
+    public int getGroupCount(String permissionGroup) {
+        AtomicInteger counter = permissionGroup != null ? groupCounts.get(permissionGroup) : null;
+        return counter != null ? counter.get() : 0;
+    }
+
+    /**
+     * 根据玩家名查找UUID（忽略大小写）
+     */
+    public UUID getUniqueId(String playerName) {
+        return playerName != null ? nameIndex.get(normalize(playerName)) : null;
+    }
+
+    /**
+     * 根据玩家名检查是否在线（忽略大小写）
+     */
+    public boolean isOnline(String playerName) {
+        return getUniqueId(playerName) != null;
+    }
+
+    /**
+     * 根据UUID获取在线记录
+     */
+    public Entry getEntry(UUID playerId) {
+        return playerId != null ? players.get(playerId) : null;
+    }
+
+    /**
+     * 根据玩家名获取在线记录
+     */
+    public Entry getEntry(String playerName) {
+        return getEntry(getUniqueId(playerName));
+    }
+
+    // ================================
+    // 辅助方法
+    // ================================
+
+    private static void increment(Map<String, AtomicInteger> counters, String key) {
+        if (key != null) {
+            counters.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    private static void decrement(Map<String, AtomicInteger> counters, String key) {
+        if (key != null) {
+            AtomicInteger counter = counters.get(key);
+            if (counter != null) {
+                counter.decrementAndGet();
+            }
+        }
+    }
+
+    private static boolean sameKey(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static String normalize(String playerName) {
+        return playerName.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 单个玩家的在线记录（不可变）
+     */
+    public static final class Entry {
+        private final UUID playerId;
+        private final String playerName;
+        private final String serverName;
+        private final String permissionGroup;
+
+        private Entry(UUID playerId, String playerName, String serverName, String permissionGroup) {
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.serverName = serverName;
+            this.permissionGroup = permissionGroup;
+        }
+
+        public UUID getPlayerId() { return playerId; }
+        public String getPlayerName() { return playerName; }
+        public String getServerName() { return serverName; }
+        public String getPermissionGroup() { return permissionGroup; }
+    }
+}
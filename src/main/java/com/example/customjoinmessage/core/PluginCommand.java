@@ -0,0 +1,203 @@
+package com.example.customjoinmessage.core;
+
+import com.example.customjoinmessage.utils.TimeUtil;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * /cjm 命令的平台无关实现
+ *
+ * 各平台入口只负责注册命令、检查权限并把返回的纯文本行发送给执行者
+ */
+public final class PluginCommand {
+
+    public static final String NAME = "customjoinmessage";
+    public static final String[] ALIASES = {"cjm", "joinmsg"};
+    public static final String PERMISSION = "customjoinmessage.admin";
+
+    private static final int DEFAULT_TRACE_COUNT = 10;
+    private static final DateTimeFormatter TRACE_TIME_FORMAT =
+        DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final List<String> SUBCOMMANDS = List.of("stats", "trace");
+
+    private PluginCommand() {
+    }
+
+    /**
+     * 执行命令
+     *
+     * @param args 子命令及参数
+     * @return 需要发送给执行者的文本行
+     */
+    public static List<String> execute(String[] args) {
+        if (args.length == 0) {
+            return usage();
+        }
+
+        switch (args[0].toLowerCase(Locale.ROOT)) {
+            case "stats":
+                if (args.length > 1 && "reset".equalsIgnoreCase(args[1])) {
+                    PluginMetrics.get().reset();
+                    return List.of("[CustomJoinMessage] 统计数据已重置");
+                }
+                return formatStats(PluginMetrics.get().snapshot());
+            case "trace":
+                if (args.length > 1 && "clear".equalsIgnoreCase(args[1])) {
+                    StageTracer.get().clear();
+                    return List.of("[CustomJoinMessage] 追踪记录已清空");
+                }
+                return formatTraces(args.length > 1 ? parseCount(args[1]) : DEFAULT_TRACE_COUNT);
+            default:
+                return usage();
+        }
+    }
+
+    /**
+     * Tab 补全
+     */
+    public static List<String> suggest(String[] args) {
+        if (args.length <= 1) {
+            String prefix = args.length == 0 ? "" : args[0].toLowerCase(Locale.ROOT);
+            List<String> matches = new ArrayList<>();
+            for (String subcommand : SUBCOMMANDS) {
+                if (subcommand.startsWith(prefix)) {
+                    matches.add(subcommand);
+                }
+            }
+            return matches;
+        }
+        if (args.length == 2 && "stats".equalsIgnoreCase(args[0]) && "reset".startsWith(args[1].toLowerCase(Locale.ROOT))) {
+            return List.of("reset");
+        }
+        if (args.length == 2 && "trace".equalsIgnoreCase(args[0]) && "clear".startsWith(args[1].toLowerCase(Locale.ROOT))) {
+            return List.of("clear");
+        }
+        return Collections.emptyList();
+    }
+
+    private static List<String> usage() {
+        return List.of(
+            "[CustomJoinMessage] 用法:",
+            "  /cjm stats - 查看运行统计",
+            "  /cjm stats reset - 重置运行统计",
+            "  /cjm trace [数量] - 查看最近的事件阶段追踪",
+            "  /cjm trace clear - 清空追踪记录"
+        );
+    }
+
+    // ================================
+    // 统计输出
+    // ================================
+
+    private static List<String> formatStats(PluginMetrics.Snapshot snapshot) {
+        List<String> lines = new ArrayList<>();
+        long elapsedSeconds = Math.max(0, (System.currentTimeMillis() - snapshot.getStartedAtMillis()) / 1000);
+        lines.add("[CustomJoinMessage] 运行统计（最近 " + TimeUtil.formatSecondsToTime(elapsedSeconds) + "）");
+
+        lines.add("计数:");
+        for (PluginMetrics.CounterType type : PluginMetrics.CounterType.values()) {
+            lines.add("  " + type.getDescription() + ": " + snapshot.getCounter(type));
+        }
+
+        lines.add("分布（次数 / 平均 / p50 / p99 / 最大）:");
+        for (PluginMetrics.HistogramType type : PluginMetrics.HistogramType.values()) {
+            Histogram.Snapshot histogram = snapshot.getHistogram(type);
+            if (histogram.getCount() == 0) {
+                lines.add("  " + type.getDescription() + ": 无数据");
+                continue;
+            }
+            lines.add(String.format(Locale.ROOT, "  %s: %d / %s / %s / %s / %s",
+                type.getDescription(),
+                histogram.getCount(),
+                formatValue(type, histogram.getMean()),
+                formatValue(type, histogram.getPercentile(0.50)),
+                formatValue(type, histogram.getPercentile(0.99)),
+                formatValue(type, histogram.getMax())));
+        }
+
+        if (!snapshot.getGauges().isEmpty()) {
+            lines.add("队列:");
+            snapshot.getGauges().forEach((key, value) ->
+                lines.add("  " + snapshot.getGaugeDescription(key) + ": " + value));
+        }
+
+        List<MetricsExporter> exporters = PluginMetrics.get().getExporters();
+        if (!exporters.isEmpty()) {
+            List<String> names = new ArrayList<>();
+            for (MetricsExporter exporter : exporters) {
+                names.add(exporter.getName());
+            }
+            lines.add("导出器: " + String.join(", ", names));
+        }
+        return lines;
+    }
+
+    private static String formatValue(PluginMetrics.HistogramType type, double value) {
+        if (!type.isNanos()) {
+            return String.format(Locale.ROOT, "%.1f", value);
+        }
+        return formatNanos(value);
+    }
+
+    // ================================
+    // 追踪输出
+    // ================================
+
+    private static List<String> formatTraces(int count) {
+        StageTracer tracer = StageTracer.get();
+        List<String> lines = new ArrayList<>();
+        if (!tracer.isEnabled()) {
+            lines.add("[CustomJoinMessage] 阶段追踪未启用（config.yml: metrics.tracing.enabled）");
+        }
+
+        List<StageTracer.Trace> traces = tracer.getRecent(count);
+        if (traces.isEmpty()) {
+            lines.add("[CustomJoinMessage] 暂无追踪记录");
+            return lines;
+        }
+
+        lines.add("[CustomJoinMessage] 最近 " + traces.size() + " 条追踪（采样率 1/" + tracer.getSampleRate()
+            + "，缓冲区 " + tracer.size() + " 条）");
+        for (StageTracer.Trace trace : traces) {
+            StringBuilder line = new StringBuilder("  ")
+                .append(TRACE_TIME_FORMAT.format(Instant.ofEpochMilli(trace.getTimestampMillis())))
+                .append(' ').append(trace.getEvent())
+                .append(" [").append(trace.getThreadName()).append("] ")
+                .append(formatNanos(trace.getTotalNanos()));
+            for (StageTracer.Stage stage : StageTracer.Stage.values()) {
+                long nanos = trace.getStageNanos(stage);
+                if (nanos > 0) {
+                    line.append(" | ").append(stage.getDisplayName()).append(' ').append(formatNanos(nanos));
+                }
+            }
+            lines.add(line.toString());
+        }
+
+        lines.add("各阶段平均（缓冲区内全部追踪）:");
+        tracer.getStageAverages().forEach((stage, nanos) ->
+            lines.add("  " + stage.getDisplayName() + ": " + formatNanos(nanos)));
+        return lines;
+    }
+
+    private static int parseCount(String value) {
+        try {
+            return Math.max(1, Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return DEFAULT_TRACE_COUNT;
+        }
+    }
+
+    private static String formatNanos(double value) {
+        if (value >= 1_000_000) {
+            return String.format(Locale.ROOT, "%.2fms", value / 1_000_000.0);
+        }
+        return String.format(Locale.ROOT, "%.1fµs", value / 1_000.0);
+    }
+}
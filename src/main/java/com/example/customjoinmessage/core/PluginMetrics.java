@@ -0,0 +1,292 @@
+package com.example.customjoinmessage.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 插件指标注册表
+ *
+ * 计数器基于 LongAdder，直方图基于无锁对数桶，热路径上不加锁也不分配；
+ * 队列深度等瞬时值以 Gauge 形式在读取快照时采样。
+ *
+ * 全局单例，供适配器、存储和工具类直接记录
+ */
+public final class PluginMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
+
+    private static final PluginMetrics INSTANCE = new PluginMetrics();
+
+    /**
+     * 计数器类型
+     */
+    public enum CounterType {
+        JOINS("joins", "处理的加入事件"),
+        LEAVES("leaves", "处理的离开事件"),
+        SWITCHES("switches", "处理的切换服务器事件"),
+        SWITCHES_SUPPRESSED("switches_suppressed", "防抖合并或丢弃的切换消息"),
+        BROADCASTS("broadcasts", "发送的广播"),
+        MESSAGES_SENT("messages_sent", "发送给玩家的消息"),
+        RENDER_CACHE_HITS("render_cache_hits", "模板缓存命中"),
+        RENDER_CACHE_MISSES("render_cache_misses", "模板缓存未命中");
+
+        private final String key;
+        private final String description;
+
+        CounterType(String key, String description) {
+            this.key = key;
+            this.description = description;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * 直方图类型（耗时类以纳秒记录）
+     */
+    public enum HistogramType {
+        JOIN_HANDLER("join_handler", "加入事件处理耗时", true),
+        LEAVE_HANDLER("leave_handler", "离开事件处理耗时", true),
+        SWITCH_HANDLER("switch_handler", "切换事件处理耗时", true),
+        BROADCAST_RECIPIENTS("broadcast_recipients", "每次广播的接收者数", false),
+        TEMPLATE_RENDER("template_render", "模板格式化与渲染耗时", true),
+        PERSISTENCE_READ("persistence_read", "玩家数据读取耗时", true),
+        PERSISTENCE_WRITE("persistence_write", "玩家数据写入耗时", true),
+        PERMISSION_RESOLUTION("permission_resolution", "权限组解析耗时", true);
+
+        private final String key;
+        private final String description;
+        private final boolean nanos;
+
+        HistogramType(String key, String description, boolean nanos) {
+            this.key = key;
+            this.description = description;
+            this.nanos = nanos;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * 是否为纳秒耗时
+         */
+        public boolean isNanos() {
+            return nanos;
+        }
+    }
+
+    private final Map<CounterType, LongAdder> counters = new EnumMap<>(CounterType.class);
+    private final Map<HistogramType, Histogram> histograms = new EnumMap<>(HistogramType.class);
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+    private final List<MetricsExporter> exporters = new CopyOnWriteArrayList<>();
+    private volatile long startedAtMillis = System.currentTimeMillis();
+
+    private PluginMetrics() {
+        for (CounterType type : CounterType.values()) {
+            counters.put(type, new LongAdder());
+        }
+        for (HistogramType type : HistogramType.values()) {
+            histograms.put(type, new Histogram());
+        }
+    }
+
+    /**
+     * 获取全局指标注册表
+     */
+    public static PluginMetrics get() {
+        return INSTANCE;
+    }
+
+    // ================================
+    // 记录
+    // ================================
+
+    public void increment(CounterType type) {
+        counters.get(type).increment();
+    }
+
+    public void add(CounterType type, long amount) {
+        counters.get(type).add(amount);
+    }
+
+    public void record(HistogramType type, long value) {
+        histograms.get(type).record(value);
+    }
+
+    /**
+     * 记录从 startNanos（System.nanoTime()）到现在的耗时
+     */
+    public void recordSince(HistogramType type, long startNanos) {
+        histograms.get(type).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 记录一次广播及其接收者数
+     */
+    public void recordBroadcast(int recipients) {
+        counters.get(CounterType.BROADCASTS).increment();
+        counters.get(CounterType.MESSAGES_SENT).add(recipients);
+        histograms.get(HistogramType.BROADCAST_RECIPIENTS).record(recipients);
+    }
+
+    // ================================
+    // Gauge（队列深度等瞬时值）
+    // ================================
+
+    /**
+     * 注册瞬时值，同名覆盖
+     */
+    public void registerGauge(String key, String description, LongSupplier supplier) {
+        gauges.put(key, new Gauge(description, supplier));
+    }
+
+    public void unregisterGauge(String key) {
+        gauges.remove(key);
+    }
+
+    // ================================
+    // 导出器
+    // ================================
+
+    /**
+     * 注册并启动导出器
+     */
+    public void addExporter(MetricsExporter exporter) {
+        try {
+            exporter.start(this);
+            exporters.add(exporter);
+        } catch (Exception e) {
+            logger.error("启动指标导出器 {} 失败: {}", exporter.getName(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 停止并移除所有导出器
+     */
+    public void stopExporters() {
+        for (MetricsExporter exporter : exporters) {
+            try {
+                exporter.stop();
+            } catch (Exception e) {
+                logger.error("停止指标导出器 {} 失败: {}", exporter.getName(), e.getMessage(), e);
+            }
+        }
+        exporters.clear();
+    }
+
+    public List<MetricsExporter> getExporters() {
+        return Collections.unmodifiableList(exporters);
+    }
+
+    // ================================
+    // 读取
+    // ================================
+
+    /**
+     * 清空计数器和直方图（Gauge 不受影响）
+     */
+    public void reset() {
+        counters.values().forEach(LongAdder::reset);
+        histograms.values().forEach(Histogram::reset);
+        startedAtMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 获取所有指标的快照
+     */
+    public Snapshot snapshot() {
+        Map<CounterType, Long> counterValues = new EnumMap<>(CounterType.class);
+        counters.forEach((type, adder) -> counterValues.put(type, adder.sum()));
+
+        Map<HistogramType, Histogram.Snapshot> histogramValues = new EnumMap<>(HistogramType.class);
+        histograms.forEach((type, histogram) -> histogramValues.put(type, histogram.snapshot()));
+
+        Map<String, Long> gaugeValues = new LinkedHashMap<>();
+        Map<String, String> gaugeDescriptions = new LinkedHashMap<>();
+        gauges.forEach((key, gauge) -> {
+            try {
+                gaugeValues.put(key, gauge.supplier.getAsLong());
+                gaugeDescriptions.put(key, gauge.description);
+            } catch (Exception e) {
+                logger.warn("读取指标 {} 失败: {}", key, e.getMessage());
+            }
+        });
+
+        return new Snapshot(startedAtMillis, counterValues, histogramValues, gaugeValues, gaugeDescriptions);
+    }
+
+    private static final class Gauge {
+        private final String description;
+        private final LongSupplier supplier;
+
+        private Gauge(String description, LongSupplier supplier) {
+            this.description = description;
+            this.supplier = supplier;
+        }
+    }
+
+    /**
+     * 指标快照
+     */
+    public static final class Snapshot {
+        private final long startedAtMillis;
+        private final Map<CounterType, Long> counters;
+        private final Map<HistogramType, Histogram.Snapshot> histograms;
+        private final Map<String, Long> gauges;
+        private final Map<String, String> gaugeDescriptions;
+
+        private Snapshot(long startedAtMillis, Map<CounterType, Long> counters,
+                         Map<HistogramType, Histogram.Snapshot> histograms,
+                         Map<String, Long> gauges, Map<String, String> gaugeDescriptions) {
+            this.startedAtMillis = startedAtMillis;
+            this.counters = counters;
+            this.histograms = histograms;
+            this.gauges = gauges;
+            this.gaugeDescriptions = gaugeDescriptions;
+        }
+
+        /**
+         * 统计起始时间（插件启动或上次重置）
+         */
+        public long getStartedAtMillis() {
+            return startedAtMillis;
+        }
+
+        public long getCounter(CounterType type) {
+            return counters.get(type);
+        }
+
+        public Histogram.Snapshot getHistogram(HistogramType type) {
+            return histograms.get(type);
+        }
+
+        public Map<String, Long> getGauges() {
+            return Collections.unmodifiableMap(gauges);
+        }
+
+        public String getGaugeDescription(String key) {
+            return gaugeDescriptions.get(key);
+        }
+    }
+}
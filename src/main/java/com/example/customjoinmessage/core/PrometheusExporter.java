@@ -0,0 +1,164 @@
+package com.example.customjoinmessage.core;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prometheus 文本格式导出器
+ *
+ * 使用 JDK 内置 HttpServer 在 /metrics 提供指标（拉取型，每次抓取时读取快照），
+ * 本地验证: curl http://127.0.0.1:9464/metrics
+ *
+ * - 计数器导出为 cjm_*_total
+ * - 直方图导出为 summary（耗时类单位为秒），附带 _max
+ * - Gauge 直接导出
+ */
+public class PrometheusExporter implements MetricsExporter {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String PREFIX = "cjm_";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final String bindAddress;
+    private final int port;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PrometheusExporter(String bindAddress, int port) {
+        this.bindAddress = bindAddress;
+        this.port = port;
+    }
+
+    @Override
+    public String getName() {
+        return "prometheus(" + bindAddress + ":" + port + ")";
+    }
+
+    @Override
+    public void start(PluginMetrics metrics) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(bindAddress, port), 0);
+        server.createContext("/metrics", exchange -> handleScrape(exchange, metrics));
+
+        // 抓取频率很低，单个守护线程即可
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CustomJoinMessage-Prometheus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handleScrape(HttpExchange exchange, PluginMetrics metrics) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render(metrics.snapshot()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // ================================
+    // 文本格式
+    // ================================
+
+    /**
+     * 以 Prometheus 文本格式渲染快照
+     */
+    static String render(PluginMetrics.Snapshot snapshot) {
+        StringBuilder out = new StringBuilder(4096);
+
+        for (PluginMetrics.CounterType type : PluginMetrics.CounterType.values()) {
+            String name = PREFIX + type.getKey() + "_total";
+            header(out, name, type.getDescription(), "counter");
+            sample(out, name, null, snapshot.getCounter(type));
+        }
+
+        // 模板缓存命中率（便于直接绘图，也可由两个计数器自行计算）
+        long hits = snapshot.getCounter(PluginMetrics.CounterType.RENDER_CACHE_HITS);
+        long lookups = hits + snapshot.getCounter(PluginMetrics.CounterType.RENDER_CACHE_MISSES);
+        header(out, PREFIX + "render_cache_hit_ratio", "模板缓存命中率", "gauge");
+        sample(out, PREFIX + "render_cache_hit_ratio", null, lookups == 0 ? 0 : (double) hits / lookups);
+
+        for (PluginMetrics.HistogramType type : PluginMetrics.HistogramType.values()) {
+            Histogram.Snapshot histogram = snapshot.getHistogram(type);
+            double scale = type.isNanos() ? 1e-9 : 1;
+            String name = PREFIX + type.getKey() + (type.isNanos() ? "_seconds" : "");
+
+            header(out, name, type.getDescription(), "summary");
+            for (double quantile : QUANTILES) {
+                sample(out, name, "quantile=\"" + quantile + "\"", histogram.getPercentile(quantile) * scale);
+            }
+            sample(out, name + "_sum", null, histogram.getSum() * scale);
+            sample(out, name + "_count", null, histogram.getCount());
+
+            header(out, name + "_max", type.getDescription() + "（最大值）", "gauge");
+            sample(out, name + "_max", null, histogram.getMax() * scale);
+        }
+
+        for (Map.Entry<String, Long> gauge : snapshot.getGauges().entrySet()) {
+            String name = PREFIX + gauge.getKey();
+            header(out, name, snapshot.getGaugeDescription(gauge.getKey()), "gauge");
+            sample(out, name, null, gauge.getValue());
+        }
+
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ')
+           .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(String.format(Locale.ROOT, "%.9g", value)).append('\n');
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.customjoinmessage.core;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 采样式事件阶段追踪器
+ *
+ * 每 N 个事件随机采样 1 个，记录处理过程中各阶段的耗时，写入固定大小的环形缓冲区
+ * （覆盖最旧的记录），通过 /cjm trace 查看。
+ *
+ * 未采样的事件只多一次 volatile 读和 ThreadLocal 查询，不产生分配，也不输出日志。
+ * 阶段耗时为包含式：嵌套阶段（如组件构建中对占位符的格式化）会同时计入两个阶段。
+ * 只追踪事件线程上的阶段，I/O 线程上的玩家数据写入不计入
+ */
+public final class StageTracer {
+
+    private static final StageTracer INSTANCE = new StageTracer();
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    // 任意线程上是否可能存在进行中的追踪（关闭时阶段埋点直接返回）
+    private static volatile boolean active;
+
+    /**
+     * 追踪阶段
+     */
+    public enum Stage {
+        PERMISSION_RESOLVE("权限解析"),
+        FIRST_JOIN_DETECTION("首次检测"),
+        TEMPLATE_LOOKUP("模板查找"),
+        FORMAT("格式化"),
+        COMPONENT_BUILD("组件构建"),
+        FAN_OUT("分发");
+
+        private final String displayName;
+
+        Stage(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private volatile int sampleRate = 100;
+    private volatile AtomicReferenceArray<Trace> buffer = new AtomicReferenceArray<>(256);
+    private final AtomicLong written = new AtomicLong();
+
+    private StageTracer() {
+    }
+
+    /**
+     * 获取全局追踪器
+     */
+    public static StageTracer get() {
+        return INSTANCE;
+    }
+
+    /**
+     * 应用配置（缓冲区大小变化时丢弃已有记录）
+     *
+     * @param enabled 是否启用
+     * @param sampleRate 每 N 个事件采样 1 个
+     * @param bufferSize 保留的最近追踪数
+     */
+    public void configure(boolean enabled, int sampleRate, int bufferSize) {
+        this.sampleRate = Math.max(1, sampleRate);
+        int size = Math.max(1, bufferSize);
+        if (buffer.length() != size) {
+            buffer = new AtomicReferenceArray<>(size);
+            written.set(0);
+        }
+        active = enabled;
+    }
+
+    public boolean isEnabled() {
+        return active;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    // ================================
+    // 事件追踪
+    // ================================
+
+    /**
+     * 按采样率决定是否追踪当前线程上的事件
+     *
+     * @return 进行中的追踪，未采样时返回 null
+     */
+    public Trace begin(String event) {
+        if (!active || ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return null;
+        }
+        Trace trace = new Trace(event, Thread.currentThread().getName());
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * 结束追踪并写入环形缓冲区
+     */
+    public void finish(Trace trace) {
+        if (trace == null) {
+            return;
+        }
+        CURRENT.remove();
+        trace.totalNanos = System.nanoTime() - trace.startNanos;
+
+        AtomicReferenceArray<Trace> target = buffer;
+        long index = written.getAndIncrement();
+        target.set((int) (index % target.length()), trace);
+    }
+
+    /**
+     * 阶段开始，当前线程没有进行中的追踪时返回 0
+     */
+    public static long stageStart() {
+        if (!active || CURRENT.get() == null) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * 阶段结束，累加到当前线程的追踪
+     *
+     * @param startNanos stageStart() 的返回值，或调用方已有的 System.nanoTime() 起点
+     */
+    public static void stageEnd(Stage stage, long startNanos) {
+        if (startNanos == 0 || !active) {
+            return;
+        }
+        Trace trace = CURRENT.get();
+        if (trace != null) {
+            trace.stageNanos[stage.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    // ================================
+    // 读取
+    // ================================
+
+    /**
+     * 获取最近的追踪记录（从新到旧）
+     */
+    public List<Trace> getRecent(int limit) {
+        AtomicReferenceArray<Trace> source = buffer;
+        long end = written.get();
+        long start = Math.max(0, end - Math.min(limit, source.length()));
+
+        List<Trace> traces = new ArrayList<>();
+        for (long i = end - 1; i >= start; i--) {
+            Trace trace = source.get((int) (i % source.length()));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    /**
+     * 缓冲区内所有追踪的各阶段平均耗时（纳秒）
+     */
+    public Map<Stage, Long> getStageAverages() {
+        List<Trace> traces = getRecent(buffer.length());
+        Map<Stage, Long> averages = new EnumMap<>(Stage.class);
+        if (traces.isEmpty()) {
+            return averages;
+        }
+        for (Stage stage : Stage.values()) {
+            long total = 0;
+            for (Trace trace : traces) {
+                total += trace.stageNanos[stage.ordinal()];
+            }
+            averages.put(stage, total / traces.size());
+        }
+        return averages;
+    }
+
+    /**
+     * 缓冲区中的追踪数
+     */
+    public int size() {
+        return (int) Math.min(written.get(), buffer.length());
+    }
+
+    /**
+     * 清空缓冲区
+     */
+    public void clear() {
+        AtomicReferenceArray<Trace> target = buffer;
+        for (int i = 0; i < target.length(); i++) {
+            target.set(i, null);
+        }
+        written.set(0);
+    }
+
+    /**
+     * 单个事件的追踪记录（只由处理该事件的线程写入）
+     */
+    public static final class Trace {
+        private final String event;
+        private final String threadName;
+        private final long timestampMillis = System.currentTimeMillis();
+        private final long startNanos = System.nanoTime();
+        private final long[] stageNanos = new long[Stage.values().length];
+        private volatile long totalNanos;
+
+        private Trace(String event, String threadName) {
+            this.event = event;
+            this.threadName = threadName;
+        }
+
+        public String getEvent() {
+            return event;
+        }
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getStageNanos(Stage stage) {
+            return stageNanos[stage.ordinal()];
+        }
+    }
+}
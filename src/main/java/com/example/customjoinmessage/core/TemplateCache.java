@@ -0,0 +1,65 @@
+package com.example.customjoinmessage.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 消息模板编译缓存
+ *
+ * 按模板内容缓存编译结果（例如 ComponentTemplate 或转换后的颜色代码模板），
+ * 同一模板只编译一次；编译结果与语言和玩家无关，占位符在使用时再替换。
+ * 条目数达到上限时整体清空，配置重载时由适配器主动清空
+ *
+ * @param <T> 编译结果类型
+ */
+public class TemplateCache<T> {
+
+    private static final int DEFAULT_MAX_ENTRIES = 512;
+
+    private final Map<String, T> cache = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public TemplateCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public TemplateCache(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * 获取模板的编译结果，未命中时使用 compiler 编译并缓存
+     */
+    public T get(String template, Function<String, T> compiler) {
+        T cached = cache.get(template);
+        if (cached != null) {
+            PluginMetrics.get().increment(PluginMetrics.CounterType.RENDER_CACHE_HITS);
+            return cached;
+        }
+
+        PluginMetrics.get().increment(PluginMetrics.CounterType.RENDER_CACHE_MISSES);
+        T compiled = compiler.apply(template);
+        if (compiled != null) {
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+            cache.put(template, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 当前缓存条目数
+     */
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.customjoinmessage.placeholder;
+
+import java.util.UUID;
+
+/**
+ * 外部占位符来源（PlaceholderAPI、MiniPlaceholders 等）
+ *
+ * 由 ExternalPlaceholders 调用并缓存结果，实现可以是阻塞的。
+ * 预取时在 I/O 线程上调用；isThreadSafe() 返回 false 时改为在玩家所属线程上调用
+ */
+public interface ExternalPlaceholderSource {
+
+    /**
+     * 来源名称（用于日志）
+     */
+    String getName();
+
+    /**
+     * 解析玩家的外部占位符
+     *
+     * @param playerId 玩家
+     * @param name 占位符名称（不含来源自身的分隔符，例如 "vault_prefix"）
+     * @return 解析结果，玩家不在线或无法解析时返回 null
+     */
+    String resolve(UUID playerId, String name);
+
+    /**
+     * 是否可以在任意线程解析（PlaceholderAPI 等只能在玩家所属线程访问玩家数据的来源返回 false）
+     */
+    default boolean isThreadSafe() {
+        return true;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.customjoinmessage.placeholder;
+
+import com.example.customjoinmessage.platform.PlatformScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 外部占位符集成
+ *
+ * 模板中以 {ext:名称} 引用外部占位符（例如 {ext:vault_prefix}）。
+ * 解析结果按玩家缓存：同一事件中无论有多少接收者、多少种语言，每个占位符只解析一次；
+ * 玩家加入时在欢迎延迟期间异步预取，玩家离开时清除缓存
+ */
+public class ExternalPlaceholders {
+
+    private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
+
+    /**
+     * 模板中外部占位符的命名空间
+     */
+    public static final String NAMESPACE = "ext";
+
+    private final ExternalPlaceholderSource source;
+    private final PlatformScheduler scheduler;
+    private final long ttlNanos;
+
+    // 玩家 -> (占位符名称 -> 缓存值)
+    private final Map<UUID, Map<String, CachedValue>> cache = new ConcurrentHashMap<>();
+
+    public ExternalPlaceholders(ExternalPlaceholderSource source, PlatformScheduler scheduler, long ttlMillis) {
+        this.source = source;
+        this.scheduler = scheduler;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+    }
+
+    /**
+     * 来源名称
+     */
+    public String getSourceName() {
+        return source.getName();
+    }
+
+    // ================================
+    // 解析
+    // ================================
+
+    /**
+     * 获取玩家的外部占位符，缓存未命中或过期时同步解析一次
+     *
+     * @return 解析结果，无法解析时返回 null
+     */
+    public String resolve(UUID playerId, String name) {
+        Map<String, CachedValue> values = cache.computeIfAbsent(playerId, id -> new ConcurrentHashMap<>());
+        CachedValue cached = values.get(name);
+        long now = System.nanoTime();
+        if (cached != null && now - cached.expiresAt < 0) {
+            return cached.value;
+        }
+        return load(playerId, name, values, now);
+    }
+
+    /**
+     * 异步预取玩家的外部占位符（玩家加入时在事件线程上调用，欢迎消息发送前完成解析）
+     *
+     * 缓存在调用线程上创建，预取任务只写入这份缓存：玩家在预取完成前离开时，
+     * invalidate 移除的缓存不会被预取任务重新创建
+     *
+     * @param playerId 玩家
+     * @param names 模板中引用的占位符名称
+     */
+    public void prefetch(UUID playerId, Collection<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        Map<String, CachedValue> values = cache.computeIfAbsent(playerId, id -> new ConcurrentHashMap<>());
+        Runnable task = () -> {
+            if (cache.get(playerId) != values) {
+                // 玩家已离开
+                return;
+            }
+            long now = System.nanoTime();
+            for (String name : names) {
+                // 加入消息已经解析过的占位符不再重复解析
+                CachedValue cached = values.get(name);
+                if (cached == null || now - cached.expiresAt >= 0) {
+                    load(playerId, name, values, now);
+                }
+            }
+        };
+
+        if (source.isThreadSafe()) {
+            scheduler.runAsync(task);
+        } else {
+            // 玩家离线时不再预取
+            scheduler.runForPlayer(playerId, task, () -> { }, 0);
+        }
+    }
+
+    /**
+     * 清除玩家的缓存（玩家离开时调用）
+     */
+    public void invalidate(UUID playerId) {
+        cache.remove(playerId);
+    }
+
+    /**
+     * 清除全部缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    /**
+     * 当前缓存的玩家数
+     */
+    public int getCachedPlayerCount() {
+        return cache.size();
+    }
+
+    private String load(UUID playerId, String name, Map<String, CachedValue> values, long now) {
+        String value;
+        try {
+            value = source.resolve(playerId, name);
+        } catch (Exception e) {
+            logger.warn("解析外部占位符失败 ({}: {}): {}", source.getName(), name, e.getMessage());
+            return null;
+        }
+        // 无法解析的结果同样缓存，避免每个接收者重复调用；
+        // 玩家已离开时不再写回（invalidate 之后的预取结果直接丢弃）
+        if (cache.get(playerId) == values) {
+            values.put(name, new CachedValue(value, now + ttlNanos));
+        }
+        return value;
+    }
+
+    private static final class CachedValue {
+        private final String value;
+        private final long expiresAt;
+
+        private CachedValue(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
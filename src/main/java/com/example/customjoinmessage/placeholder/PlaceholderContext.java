@@ -0,0 +1,54 @@
+package com.example.customjoinmessage.placeholder;
+
+import java.util.Map;
+
+/**
+ * 占位符上下文
+ *
+ * 一次格式化中与玩家和事件相关的值，由提供者按需读取。
+ * values 中的显式值优先于已注册的提供者
+ */
+public final class PlaceholderContext {
+
+    private final String playerName;
+    private final String fromServer;
+    private final String toServer;
+    private final Map<String, String> values;
+
+    public PlaceholderContext(String playerName, String fromServer, String toServer) {
+        this(playerName, fromServer, toServer, null);
+    }
+
+    public PlaceholderContext(String playerName, String fromServer, String toServer, Map<String, String> values) {
+        this.playerName = playerName;
+        this.fromServer = fromServer;
+        this.toServer = toServer;
+        this.values = values;
+    }
+
+    /**
+     * 使用显式值创建上下文（不包含玩家和服务器信息）
+     */
+    public static PlaceholderContext of(Map<String, String> values) {
+        return new PlaceholderContext(null, null, null, values);
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public String getFromServer() {
+        return fromServer;
+    }
+
+    public String getToServer() {
+        return toServer;
+    }
+
+    /**
+     * 获取显式值，没有时返回 null
+     */
+    public String getValue(String key) {
+        return values != null ? values.get(key) : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.customjoinmessage.placeholder;
+
+/**
+ * 占位符提供者
+ *
+ * 按键注册到 PlaceholderRegistry，只有模板中引用了对应占位符时才会被调用
+ */
+@FunctionalInterface
+public interface PlaceholderProvider {
+
+    /**
+     * 解析占位符的值
+     *
+     * @param context 当前消息的上下文（玩家、来源/目标服务器等）
+     * @return 占位符的值，返回 null 时保留原始占位符文本
+     */
+    String resolve(PlaceholderContext context);
+}
@@ -0,0 +1,235 @@
+package com.example.customjoinmessage.placeholder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 占位符注册表
+ *
+ * 提供者按键注册，模板首次使用时编译为"文本片段 + 占位符槽位"，
+ * 格式化时只调用模板实际引用到的提供者，未引用的占位符不产生任何开销。
+ *
+ * 开销较大且与玩家无关的提供者（例如时间、内存统计）可以声明缓存时长，
+ * 在时长内直接复用上次的结果
+ */
+public class PlaceholderRegistry {
+
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([^}]+)\\}");
+
+    private static final int MAX_COMPILED_TEMPLATES = 512;
+
+    private final Map<String, PlaceholderProvider> providers = new ConcurrentHashMap<>();
+    private final Map<String, NamespaceProvider> namespaces = new ConcurrentHashMap<>();
+    private final Map<String, Segment[]> compiledTemplates = new ConcurrentHashMap<>();
+
+    // ================================
+    // 注册
+    // ================================
+
+    /**
+     * 注册占位符提供者（替换同名的已有提供者）
+     *
+     * @param key 占位符键（不含花括号，例如 "player"）
+     * @param provider 提供者
+     */
+    public void register(String key, PlaceholderProvider provider) {
+        providers.put(key, provider);
+    }
+
+    /**
+     * 注册带缓存时长的占位符提供者
+     *
+     * 缓存的值在所有玩家间共享，只适用于与上下文无关的提供者
+     *
+     * @param key 占位符键
+     * @param provider 提供者
+     * @param cacheTtlMillis 缓存时长（毫秒），不大于0时不缓存
+     */
+    public void register(String key, PlaceholderProvider provider, long cacheTtlMillis) {
+        register(key, cacheTtlMillis > 0 ? new CachingProvider(provider, cacheTtlMillis) : provider);
+    }
+
+    /**
+     * 注册命名空间提供者，处理所有 {namespace:name} 形式的占位符
+     *
+     * @param namespace 命名空间（例如 "ext"）
+     * @param provider 提供者，收到冒号之后的名称
+     */
+    public void registerNamespace(String namespace, NamespaceProvider provider) {
+        namespaces.put(namespace, provider);
+    }
+
+    /**
+     * 注销占位符提供者
+     */
+    public void unregister(String key) {
+        providers.remove(key);
+    }
+
+    /**
+     * 是否已注册该占位符
+     */
+    public boolean isRegistered(String key) {
+        return providers.containsKey(key);
+    }
+
+    // ================================
+    // 格式化
+    // ================================
+
+    /**
+     * 格式化模板
+     *
+     * 上下文中的显式值优先，其次为已注册的提供者；
+     * 都没有或提供者返回 null 时保留原始占位符文本
+     *
+     * @param template 消息模板
+     * @param context 占位符上下文
+     * @return 格式化后的消息
+     */
+    public String format(String template, PlaceholderContext context) {
+        if (template == null) {
+            return "";
+        }
+
+        Segment[] segments = compile(template);
+        if (segments == null) {
+            return template;
+        }
+
+        StringBuilder result = new StringBuilder(template.length() + 16);
+        for (Segment segment : segments) {
+            if (segment.key == null) {
+                result.append(segment.text);
+                continue;
+            }
+
+            String value = context.getValue(segment.key);
+            if (value == null) {
+                PlaceholderProvider provider = providers.get(segment.key);
+                if (provider != null) {
+                    value = provider.resolve(context);
+                } else if (segment.namespace != null) {
+                    NamespaceProvider namespaceProvider = namespaces.get(segment.namespace);
+                    if (namespaceProvider != null) {
+                        value = namespaceProvider.resolve(context, segment.name);
+                    }
+                }
+            }
+            result.append(value != null ? value : segment.text);
+        }
+        return result.toString();
+    }
+
+    /**
+     * 编译模板，不包含占位符时返回 null
+     */
+    private Segment[] compile(String template) {
+        if (template.indexOf('{') < 0) {
+            return null;
+        }
+
+        Segment[] segments = compiledTemplates.get(template);
+        if (segments != null) {
+            return segments.length > 0 ? segments : null;
+        }
+
+        List<Segment> parts = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                parts.add(new Segment(template.substring(last, matcher.start()), null));
+            }
+            parts.add(new Segment(matcher.group(0), matcher.group(1)));
+            last = matcher.end();
+        }
+        // 没有占位符时缓存空数组，避免重复扫描
+        if (!parts.isEmpty() && last < template.length()) {
+            parts.add(new Segment(template.substring(last), null));
+        }
+
+        segments = parts.toArray(new Segment[0]);
+        if (compiledTemplates.size() >= MAX_COMPILED_TEMPLATES) {
+            compiledTemplates.clear();
+        }
+        compiledTemplates.put(template, segments);
+        return segments.length > 0 ? segments : null;
+    }
+
+    /**
+     * 命名空间占位符提供者
+     */
+    @FunctionalInterface
+    public interface NamespaceProvider {
+
+        /**
+         * 解析命名空间内的占位符
+         *
+         * @param context 当前消息的上下文
+         * @param name 冒号之后的名称
+         * @return 占位符的值，返回 null 时保留原始占位符文本
+         */
+        String resolve(PlaceholderContext context, String name);
+    }
+
+    /**
+     * 模板片段：key 为 null 时是普通文本，否则是占位符（text 为原始占位符文本）
+     */
+    private static final class Segment {
+        private final String text;
+        private final String key;
+        private final String namespace;
+        private final String name;
+
+        private Segment(String text, String key) {
+            this.text = text;
+            this.key = key;
+            int colon = key != null ? key.indexOf(':') : -1;
+            this.namespace = colon > 0 ? key.substring(0, colon) : null;
+            this.name = colon > 0 ? key.substring(colon + 1) : null;
+        }
+    }
+
+    /**
+     * 带缓存时长的提供者，过期后由下一次调用刷新（并发刷新时以后写入的为准）
+     */
+    private static final class CachingProvider implements PlaceholderProvider {
+        private final PlaceholderProvider delegate;
+        private final long ttlNanos;
+        private volatile CachedValue cached;
+
+        private CachingProvider(PlaceholderProvider delegate, long ttlMillis) {
+            this.delegate = delegate;
+            this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        }
+
+        @Override
+        public String resolve(PlaceholderContext context) {
+            long now = System.nanoTime();
+            CachedValue current = cached;
+            if (current != null && now - current.expiresAt < 0) {
+                return current.value;
+            }
+
+            String value = delegate.resolve(context);
+            cached = new CachedValue(value, now + ttlNanos);
+            return value;
+        }
+    }
+
+    private static final class CachedValue {
+        private final String value;
+        private final long expiresAt;
+
+        private CachedValue(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.customjoinmessage.placeholder;
+
+import com.example.customjoinmessage.core.PlayerRoster;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 观看者占位符
+ *
+ * 值取决于接收消息的玩家（而不是触发事件的玩家）的占位符，例如 {viewer}、{viewer_date}。
+ * 每个占位符声明一个作用域：作用域相同的接收者得到相同的值。
+ * 广播时按模板引用到的占位符的作用域组合对接收者分组，每组只渲染一次；
+ * 只有引用了按玩家区分的占位符（例如 {viewer}）时才会退化为每个玩家渲染一次
+ *
+ * 内置占位符：
+ * {viewer} - 接收者名称（按玩家）
+ * {viewer_server} - 接收者所在服务器（按服务器）
+ * {viewer_time} / {viewer_date} - 按接收者客户端语言格式化的当前时间/日期（按语言）
+ */
+public class ViewerPlaceholders {
+
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([^}]+)\\}");
+
+    private static final int MAX_CACHED_TEMPLATES = 512;
+
+    private final Map<String, ViewerPlaceholder> placeholders = new ConcurrentHashMap<>();
+
+    // 模板 -> 引用到的观看者占位符（没有时为空集合）
+    private final Map<String, Set<String>> referencedKeys = new ConcurrentHashMap<>();
+
+    private final Map<Locale, DateTimeFormatter> timeFormatters = new ConcurrentHashMap<>();
+    private final Map<Locale, DateTimeFormatter> dateFormatters = new ConcurrentHashMap<>();
+
+    public ViewerPlaceholders(PlayerRoster playerRoster) {
+        register("viewer", new ViewerPlaceholder() {
+            @Override
+            public Object scope(Viewer viewer) {
+                return viewer.getPlayerId();
+            }
+
+            @Override
+            public String resolve(Viewer viewer) {
+                return viewer.getPlayerName();
+            }
+        });
+        register("viewer_server", new ViewerPlaceholder() {
+            @Override
+            public Object scope(Viewer viewer) {
+                PlayerRoster.Entry entry = playerRoster.getEntry(viewer.getPlayerId());
+                return entry != null ? entry.getServerName() : null;
+            }
+
+            @Override
+            public String resolve(Viewer viewer) {
+                return (String) scope(viewer);
+            }
+        });
+        register("viewer_time", byLocale(locale -> timeFormatters.computeIfAbsent(locale,
+            key -> DateTimeFormatter.ofLocalizedTime(FormatStyle.MEDIUM).withLocale(key))));
+        register("viewer_date", byLocale(locale -> dateFormatters.computeIfAbsent(locale,
+            key -> DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(key))));
+    }
+
+    // ================================
+    // 注册
+    // ================================
+
+    /**
+     * 注册观看者占位符（替换同名的已有占位符）
+     *
+     * @param key 占位符键（不含花括号）
+     * @param placeholder 占位符实现
+     */
+    public void register(String key, ViewerPlaceholder placeholder) {
+        placeholders.put(key, placeholder);
+        referencedKeys.clear();
+    }
+
+    /**
+     * 获取模板引用到的观看者占位符（没有时返回空集合，调用方按普通模板处理）
+     */
+    public Set<String> getReferencedKeys(String template) {
+        if (template.indexOf('{') < 0) {
+            return Set.of();
+        }
+
+        Set<String> keys = referencedKeys.get(template);
+        if (keys == null) {
+            Set<String> found = new LinkedHashSet<>();
+            Matcher matcher = PLACEHOLDER_PATTERN.matcher(template);
+            while (matcher.find()) {
+                if (placeholders.containsKey(matcher.group(1))) {
+                    found.add(matcher.group(1));
+                }
+            }
+            keys = found.isEmpty() ? Set.of() : found;
+            if (referencedKeys.size() >= MAX_CACHED_TEMPLATES) {
+                referencedKeys.clear();
+            }
+            referencedKeys.put(template, keys);
+        }
+        return keys;
+    }
+
+    // ================================
+    // 分组
+    // ================================
+
+    /**
+     * 按观看者占位符的作用域对接收者分组，每组的值只解析一次
+     *
+     * @param keys 模板引用到的观看者占位符（来自 getReferencedKeys）
+     * @param recipients 接收者
+     * @param viewerFactory 接收者 -> 观看者信息
+     * @return 分组，保持接收者的原有顺序
+     */
+    public <P> Collection<Group<P>> group(Set<String> keys, Collection<? extends P> recipients,
+                                          Function<? super P, Viewer> viewerFactory) {
+        Map<Object, Group<P>> groups = new LinkedHashMap<>();
+        Object[] scopes = new Object[keys.size()];
+
+        for (P recipient : recipients) {
+            Viewer viewer = viewerFactory.apply(recipient);
+            int index = 0;
+            for (String key : keys) {
+                scopes[index++] = placeholders.get(key).scope(viewer);
+            }
+            Object groupKey = scopes.length == 1 ? scopes[0] : Arrays.asList(scopes.clone());
+
+            Group<P> group = groups.get(groupKey);
+            if (group == null) {
+                group = new Group<>(resolveValues(keys, viewer));
+                groups.put(groupKey, group);
+            }
+            group.members.add(recipient);
+        }
+        return groups.values();
+    }
+
+    private Map<String, String> resolveValues(Set<String> keys, Viewer viewer) {
+        Map<String, String> values = new HashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            values.put(key, placeholders.get(key).resolve(viewer));
+        }
+        return values;
+    }
+
+    private static ViewerPlaceholder byLocale(Function<Locale, DateTimeFormatter> formatters) {
+        return new ViewerPlaceholder() {
+            @Override
+            public Object scope(Viewer viewer) {
+                return viewer.getLocale();
+            }
+
+            @Override
+            public String resolve(Viewer viewer) {
+                Locale locale = viewer.getLocale() != null ? viewer.getLocale() : Locale.getDefault();
+                return formatters.apply(locale).format(ZonedDateTime.now());
+            }
+        };
+    }
+
+    /**
+     * 观看者占位符
+     */
+    public interface ViewerPlaceholder {
+
+        /**
+         * 作用域：作用域相等的观看者必须得到相同的值（例如语言、服务器；按玩家区分时返回玩家 UUID）
+         */
+        Object scope(Viewer viewer);
+
+        /**
+         * 解析占位符的值，返回 null 时保留原始占位符文本
+         */
+        String resolve(Viewer viewer);
+    }
+
+    /**
+     * 观看者（消息接收者）信息
+     */
+    public static final class Viewer {
+        private final UUID playerId;
+        private final String playerName;
+        private final Locale locale;
+
+        public Viewer(UUID playerId, String playerName, Locale locale) {
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.locale = locale;
+        }
+
+        public UUID getPlayerId() {
+            return playerId;
+        }
+
+        public String getPlayerName() {
+            return playerName;
+        }
+
+        public Locale getLocale() {
+            return locale;
+        }
+    }
+
+    /**
+     * 作用域相同的一组接收者
+     */
+    public static final class Group<P> {
+        // 占位符键 -> 值（值为 null 时保留原始占位符文本）
+        private final Map<String, String> values;
+        private final List<P> members = new ArrayList<>();
+
+        private Group(Map<String, String> values) {
+            this.values = values;
+        }
+
+        /**
+         * 该组的接收者
+         */
+        public List<P> getMembers() {
+            return members;
+        }
+
+        /**
+         * 在事件格式化之后代入该组的观看者占位符
+         */
+        public UnaryOperator<String> bind(UnaryOperator<String> formatter) {
+            return text -> {
+                String formatted = formatter.apply(text);
+                for (Map.Entry<String, String> value : values.entrySet()) {
+                    if (value.getValue() != null) {
+                        formatted = formatted.replace("{" + value.getKey() + "}", value.getValue());
+                    }
+                }
+                return formatted;
+            };
+        }
+    }
+}
@@ -1,9 +1,32 @@
 package com.example.customjoinmessage.platform;
 
 
+import com.example.customjoinmessage.config.MessageConfig;
+import com.example.customjoinmessage.config.PluginConfig;
 import com.example.customjoinmessage.core.CustomJoinMessagePlugin;
+import com.example.customjoinmessage.core.FlightEvents;
+import com.example.customjoinmessage.core.PlatformDetector;
+import com.example.customjoinmessage.core.PlayerRoster;
+import com.example.customjoinmessage.core.PluginMetrics;
+import com.example.customjoinmessage.core.StageTracer;
+import com.example.customjoinmessage.placeholder.ExternalPlaceholderSource;
+import com.example.customjoinmessage.placeholder.ExternalPlaceholders;
+import com.example.customjoinmessage.placeholder.ViewerPlaceholders;
+import com.example.customjoinmessage.storage.AuditLog;
+import com.example.customjoinmessage.utils.LoggerUtil;
+import com.example.customjoinmessage.utils.LoggerUtil.Category;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 /**
  * 抽象平台适配器
  * 
@@ -14,11 +37,31 @@ public abstract class AbstractPlatformAdapter {
     protected final CustomJoinMessagePlugin plugin;
     protected final Object platformInstance;
     protected final Logger logger;
+    protected final PlatformDetector.PlatformCapabilities capabilities;
+    protected final PluginMetrics metrics;
+    
+    // 已调度但尚未执行的延迟任务（执行完、提交失败或停止调度时移除，计数不会只增不减）
+    private final Set<Runnable> pendingTasks = ConcurrentHashMap.newKeySet();
+    
+    // 欢迎消息分发器（首次调度时创建）
+    private volatile WelcomeDispatcher welcomeDispatcher;
+    
+    // 外部占位符集成（未安装占位符插件或已禁用时为 null）
+    private volatile ExternalPlaceholders externalPlaceholders;
+    
+    // 观看者占位符（值取决于接收者，广播时按作用域分组渲染）
+    protected final ViewerPlaceholders viewerPlaceholders;
     
     public AbstractPlatformAdapter(CustomJoinMessagePlugin plugin, Object platformInstance) {
         this.plugin = plugin;
         this.platformInstance = platformInstance;
         this.logger = plugin.getLogger();
+        this.capabilities = plugin.getCapabilities();
+        this.metrics = PluginMetrics.get();
+        this.viewerPlaceholders = new ViewerPlaceholders(plugin.getPlayerRoster());
+        
+        // 向消息配置注入服务器信息提供者
+        plugin.getConfigManager().setServerInfoProvider(new AdapterServerInfoProvider());
     }
     
     /**
@@ -68,6 +111,21 @@ public abstract class AbstractPlatformAdapter {
      */
     public abstract boolean isPlayerOnline(String playerName);
     
+    /**
+     * 获取最大玩家数量
+     */
+    public abstract int getMaxPlayers();
+    
+    /**
+     * 获取服务器名称（用于 {server} 占位符）
+     */
+    public abstract String getServerName();
+    
+    /**
+     * 获取任务调度器
+     */
+    public abstract PlatformScheduler getScheduler();
+    
     /**
      * 获取适配器类型
      */
@@ -83,35 +141,234 @@ public abstract class AbstractPlatformAdapter {
     // ================================
     
     /**
-     * 记录调试信息
+     * 安全地转换平台实例
      */
-    protected void debug(String message, Object... args) {
-        if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-            logger.info("[DEBUG] " + message, args);
+    @SuppressWarnings("unchecked")
+    protected <T> T safeCast(Class<T> targetClass) {
+        if (targetClass.isInstance(platformInstance)) {
+            return (T) platformInstance;
         }
+        throw new ClassCastException(
+            "无法将 " + platformInstance.getClass().getSimpleName() + 
+            " 转换为 " + targetClass.getSimpleName()
+        );
     }
     
     /**
-     * 记录详细信息
+     * 执行事件处理并记录事件计数和处理耗时（按采样率追踪各阶段，录制时提交 JFR 事件）
      */
-    protected void verbose(String message, Object... args) {
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("[VERBOSE] " + message, args);
+    protected void measured(PluginMetrics.CounterType counter, PluginMetrics.HistogramType latency, Runnable handler) {
+        FlightEvents.HandlerEvent flightEvent = FlightEvents.beginHandler(counter);
+        StageTracer.Trace trace = StageTracer.get().begin(counter.getKey());
+        long startNanos = System.nanoTime();
+        try {
+            handler.run();
+        } finally {
+            metrics.increment(counter);
+            metrics.recordSince(latency, startNanos);
+            StageTracer.get().finish(trace);
+            commitHandlerEvent(flightEvent);
         }
     }
     
     /**
-     * 安全地转换平台实例
+     * 结束并提交事件处理的 JFR 事件（未录制时不填充字段）
      */
-    @SuppressWarnings("unchecked")
-    protected <T> T safeCast(Class<T> targetClass) {
-        if (targetClass.isInstance(platformInstance)) {
-            return (T) platformInstance;
+    protected void commitHandlerEvent(FlightEvents.HandlerEvent flightEvent) {
+        flightEvent.end();
+        if (flightEvent.shouldCommit()) {
+            flightEvent.onlinePlayers = plugin.getPlayerRoster().getOnlineCount();
+            flightEvent.commit();
+        }
+    }
+    
+    /**
+     * 提交广播的 JFR 事件（未录制时不填充字段）
+     */
+    protected void commitBroadcastEvent(FlightEvents.Broadcast flightEvent, String templateKey, int recipients, int languages) {
+        flightEvent.end();
+        if (flightEvent.shouldCommit()) {
+            flightEvent.templateKey = templateKey;
+            flightEvent.recipients = recipients;
+            flightEvent.languages = languages;
+            flightEvent.commit();
+        }
+    }
+    
+    /**
+     * 记录审计事件（未启用审计日志时直接返回）
+     */
+    protected void audit(AuditLog.Type type, UUID playerId, String playerName, String from, String to) {
+        AuditLog auditLog = plugin.getAuditLog();
+        if (auditLog != null) {
+            auditLog.record(type, playerId, playerName, from, to);
+        }
+    }
+    
+    /**
+     * 记录离开审计事件（来源服务器取自在线名册，需在移出名册前调用）
+     */
+    protected void auditLeave(UUID playerId, String playerName) {
+        AuditLog auditLog = plugin.getAuditLog();
+        if (auditLog != null) {
+            PlayerRoster.Entry entry = plugin.getPlayerRoster().getEntry(playerId);
+            auditLog.record(AuditLog.Type.LEAVE, playerId, playerName, entry != null ? entry.getServerName() : null, null);
+        }
+    }
+    
+    /**
+     * 调度延迟任务，并计入待执行任务数
+     */
+    protected void runLaterTracked(Runnable task, long delayMillis) {
+        Runnable tracked = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    pendingTasks.remove(this);
+                }
+            }
+        };
+        pendingTasks.add(tracked);
+        try {
+            getScheduler().runLater(tracked, delayMillis);
+        } catch (RuntimeException e) {
+            pendingTasks.remove(tracked);
+            throw e;
+        }
+    }
+    
+    /**
+     * 获取已调度但尚未执行的延迟任务数（包括待发送的欢迎消息）
+     */
+    public int getPendingTaskCount() {
+        WelcomeDispatcher dispatcher = welcomeDispatcher;
+        return pendingTasks.size() + (dispatcher != null ? dispatcher.getPendingCount() : 0);
+    }
+    
+    /**
+     * 调度欢迎消息（所有玩家共用一个分发器，玩家离开后不再发送）
+     * 
+     * @param playerId 玩家
+     * @param delivery 到期时在平台线程上执行的发送逻辑
+     * @param delayMillis 延迟（毫秒）
+     */
+    protected void scheduleWelcome(UUID playerId, Runnable delivery, long delayMillis) {
+        WelcomeDispatcher dispatcher = welcomeDispatcher;
+        if (dispatcher == null) {
+            synchronized (this) {
+                dispatcher = welcomeDispatcher;
+                if (dispatcher == null) {
+                    dispatcher = new WelcomeDispatcher(getScheduler(), plugin.getPlayerRoster());
+                    dispatcher.start();
+                    welcomeDispatcher = dispatcher;
+                }
+            }
+        }
+        dispatcher.schedule(playerId, delivery, delayMillis);
+    }
+    
+    /**
+     * 取消玩家尚未发送的欢迎消息（玩家离开时调用）
+     */
+    protected void cancelWelcome(UUID playerId) {
+        WelcomeDispatcher dispatcher = welcomeDispatcher;
+        if (dispatcher != null) {
+            dispatcher.cancel(playerId);
+        }
+    }
+    
+    /**
+     * 停止欢迎分发器并等待尚未完成的异步任务（适配器禁用时调用）
+     */
+    protected void shutdownScheduling() {
+        synchronized (this) {
+            if (welcomeDispatcher != null) {
+                welcomeDispatcher.stop();
+                welcomeDispatcher = null;
+            }
+        }
+        // 平台在插件禁用时取消尚未执行的延迟任务，这些任务不会再运行
+        pendingTasks.clear();
+        getScheduler().shutdown();
+    }
+    
+    // ================================
+    // 外部占位符
+    // ================================
+    
+    /**
+     * 创建外部占位符来源（平台未安装占位符插件时返回 null）
+     */
+    protected ExternalPlaceholderSource createExternalPlaceholderSource() throws ReflectiveOperationException {
+        return null;
+    }
+    
+    /**
+     * 启用外部占位符集成（适配器启用时调用）
+     */
+    protected void enableExternalPlaceholders() {
+        PluginConfig pluginConfig = plugin.getConfigManager().getPluginConfig();
+        if (!pluginConfig.isExternalPlaceholdersEnabled()) {
+            return;
+        }
+        
+        ExternalPlaceholderSource source;
+        try {
+            source = createExternalPlaceholderSource();
+        } catch (Exception e) {
+            logger.warn("初始化外部占位符失败: {}", e.getMessage());
+            return;
+        }
+        if (source == null) {
+            return;
+        }
+        
+        ExternalPlaceholders placeholders = new ExternalPlaceholders(source, getScheduler(),
+            pluginConfig.getExternalPlaceholderCacheSeconds() * 1000L);
+        externalPlaceholders = placeholders;
+        plugin.getConfigManager().setExternalPlaceholders(placeholders);
+        LoggerUtil.verbose(Category.MESSAGES, "已启用外部占位符: {}", source.getName());
+    }
+    
+    /**
+     * 禁用外部占位符集成（适配器禁用时调用）
+     */
+    protected void disableExternalPlaceholders() {
+        ExternalPlaceholders placeholders = externalPlaceholders;
+        externalPlaceholders = null;
+        if (placeholders != null) {
+            plugin.getConfigManager().setExternalPlaceholders(null);
+            placeholders.clear();
+        }
+    }
+    
+    /**
+     * 异步预取玩家的外部占位符（加入消息发送后调用，欢迎延迟期间完成解析）
+     */
+    protected void prefetchPlaceholders(UUID playerId) {
+        ExternalPlaceholders placeholders = externalPlaceholders;
+        if (placeholders != null) {
+            placeholders.prefetch(playerId, plugin.getConfigManager().getMessageConfig().getExternalPlaceholderNames());
         }
-        throw new ClassCastException(
-            "无法将 " + platformInstance.getClass().getSimpleName() + 
-            " 转换为 " + targetClass.getSimpleName()
-        );
+    }
+    
+    /**
+     * 清除玩家的外部占位符缓存（玩家离开时调用）
+     */
+    protected void invalidatePlaceholders(UUID playerId) {
+        ExternalPlaceholders placeholders = externalPlaceholders;
+        if (placeholders != null) {
+            placeholders.invalidate(playerId);
+        }
+    }
+    
+    /**
+     * 获取观看者占位符（可注册额外的观看者占位符）
+     */
+    public ViewerPlaceholders getViewerPlaceholders() {
+        return viewerPlaceholders;
     }
     
     /**
@@ -120,4 +377,51 @@ public abstract class AbstractPlatformAdapter {
     protected boolean isFeatureEnabled(String feature) {
         return plugin.isFeatureEnabled(feature);
     }
+    
+    /**
+     * 按玩家的消息包语言分组
+     * 
+     * 广播时每种语言只需格式化和渲染一次，而不是每个玩家一次
+     * 
+     * @param players 接收者
+     * @param localeResolver 获取玩家客户端语言
+     * @return 消息包语言 -> 该语言的接收者
+     */
+    protected <P> Map<String, List<P>> groupByLanguage(Iterable<? extends P> players, Function<? super P, Locale> localeResolver) {
+        MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+        Map<String, List<P>> groups = new LinkedHashMap<>();
+        
+        for (P player : players) {
+            Locale locale;
+            try {
+                locale = localeResolver.apply(player);
+            } catch (Exception e) {
+                locale = null;
+            }
+            groups.computeIfAbsent(messageConfig.resolveLanguage(locale), k -> new ArrayList<>()).add(player);
+        }
+        
+        return groups;
+    }
+    
+    /**
+     * 基于当前适配器的服务器信息提供者
+     */
+    private class AdapterServerInfoProvider implements ServerInfoProvider {
+        
+        @Override
+        public int getOnlineCount() {
+            return getOnlinePlayerCount();
+        }
+        
+        @Override
+        public int getMaxPlayers() {
+            return AbstractPlatformAdapter.this.getMaxPlayers();
+        }
+        
+        @Override
+        public String getServerName() {
+            return AbstractPlatformAdapter.this.getServerName();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.example.customjoinmessage.platform;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 平台调度器基类
+ *
+ * 异步任务统一在虚拟线程上执行：每个任务一个虚拟线程，
+ * 阻塞文件读写时只挂起虚拟线程，不占用平台调度器的线程池。
+ *
+ * 执行器在首次提交任务时创建，shutdown 后丢弃：适配器禁用后重新启用（模式切换）时
+ * 会创建新的执行器，异步任务不会退化为在事件线程上执行
+ */
+public abstract class AbstractPlatformScheduler implements PlatformScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    // 当前的 I/O 执行器（尚未创建或已关闭时为 null）
+    private ExecutorService ioExecutor;
+
+    @Override
+    public void runAsync(Runnable task) {
+        try {
+            ioExecutor().execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    logger.error("异步任务执行失败: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 提交时执行器恰好被关闭（插件禁用过程中），在调用线程执行以免丢失写入
+            task.run();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = ioExecutor;
+            ioExecutor = null;
+        }
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("等待异步任务完成超时，剩余任务将被放弃");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized ExecutorService ioExecutor() {
+        if (ioExecutor == null) {
+            ioExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("CustomJoinMessage-IO-", 0).factory());
+        }
+        return ioExecutor;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.customjoinmessage.platform;
+
+import java.util.UUID;
+
+/**
+ * 跨平台任务调度接口
+ *
+ * 延迟统一以毫秒为单位，由各平台实现换算（Bukkit 向上取整为 tick）；
+ * 阻塞 I/O（玩家数据读写等）交给 runAsync，不占用平台线程池
+ */
+public interface PlatformScheduler {
+
+    /**
+     * 延迟执行全局任务
+     *
+     * @param task 任务
+     * @param delayMillis 延迟（毫秒），0 表示尽快执行
+     */
+    void runLater(Runnable task, long delayMillis);
+
+    /**
+     * 延迟执行与玩家相关的任务（在玩家所属线程上执行）
+     *
+     * 玩家在执行前离线时不执行 task，改为调用 retired
+     *
+     * @param playerId 目标玩家
+     * @param task 任务
+     * @param retired 任务不会再执行时的回调
+     * @param delayMillis 延迟（毫秒），0 表示尽快执行
+     */
+    void runForPlayer(UUID playerId, Runnable task, Runnable retired, long delayMillis);
+
+    /**
+     * 在 I/O 线程（虚拟线程）执行可能阻塞的任务
+     */
+    void runAsync(Runnable task);
+
+    /**
+     * 等待已提交的异步任务完成（适配器禁用时调用，之后提交的任务使用新的执行器）
+     */
+    void shutdown();
+}
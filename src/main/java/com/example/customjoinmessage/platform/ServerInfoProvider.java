@@ -0,0 +1,25 @@
+package com.example.customjoinmessage.platform;
+
+/**
+ * 服务器信息提供者
+ *
+ * 由当前平台适配器实现并注入到消息配置中，
+ * 用于解析 {online_count}、{max_players}、{server} 等服务器占位符（直接调用，无反射）
+ */
+public interface ServerInfoProvider {
+
+    /**
+     * 获取在线玩家数量
+     */
+    int getOnlineCount();
+
+    /**
+     * 获取最大玩家数量
+     */
+    int getMaxPlayers();
+
+    /**
+     * 获取服务器名称
+     */
+    String getServerName();
+}
@@ -0,0 +1,175 @@
+package com.example.customjoinmessage.platform;
+
+import com.example.customjoinmessage.core.PluginMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 服务器切换消息防抖
+ *
+ * 玩家在防抖窗口内的连续切换（大厅 → 中转服 → 游戏服、传送门来回跳转）合并为一条
+ * "起点 → 终点" 消息；终点回到起点（A → B → A）时不发送任何消息。
+ *
+ * 每个玩家只保留一条切换链（起点、当前服务器、到期时间），链创建时调度一次到期检查，
+ * 窗口被后续切换延长时由到期检查重新调度，到期后移出 Map 并发送。
+ * 链的总时长不超过窗口的 {@value #MAX_WINDOW_FACTOR} 倍，持续跳服的玩家也会定期收到消息
+ *
+ * @param <P> 平台的玩家类型
+ * @param <S> 平台的服务器类型
+ */
+public class SwitchDebouncer<P, S> {
+
+    private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
+
+    private static final int MAX_WINDOW_FACTOR = 4;
+
+    private final PlatformScheduler scheduler;
+    private final Emitter<P, S> emitter;
+    private final LongSupplier clock;
+
+    // 玩家 -> 尚未发送的切换链
+    private final Map<UUID, Chain<P, S>> chains = new ConcurrentHashMap<>();
+
+    public SwitchDebouncer(PlatformScheduler scheduler, Emitter<P, S> emitter) {
+        this(scheduler, emitter, System::currentTimeMillis);
+    }
+
+    /**
+     * 使用指定的时钟（毫秒）
+     */
+    SwitchDebouncer(PlatformScheduler scheduler, Emitter<P, S> emitter, LongSupplier clock) {
+        this.scheduler = scheduler;
+        this.emitter = emitter;
+        this.clock = clock;
+    }
+
+    /**
+     * 记录一次切换
+     *
+     * @param playerId 玩家
+     * @param player 玩家对象（发送时使用最后一次切换的对象）
+     * @param from 来源服务器
+     * @param to 目标服务器
+     * @param windowMillis 防抖窗口（毫秒），不大于0时立即发送
+     */
+    public void submit(UUID playerId, P player, S from, S to, long windowMillis) {
+        if (windowMillis <= 0) {
+            emit(new Chain<>(player, from, to, 0, 0));
+            return;
+        }
+
+        long now = clock.getAsLong();
+        boolean[] created = new boolean[1];
+        chains.compute(playerId, (key, existing) -> {
+            if (existing == null) {
+                created[0] = true;
+                return new Chain<>(player, from, to, now, now + windowMillis);
+            }
+            long maxDue = existing.startMillis + windowMillis * MAX_WINDOW_FACTOR;
+            return existing.extend(player, to, Math.min(now + windowMillis, maxDue));
+        });
+
+        if (created[0]) {
+            scheduler.runLater(() -> expire(playerId), windowMillis);
+        } else {
+            // 上一次切换被合并到当前链中
+            PluginMetrics.get().increment(PluginMetrics.CounterType.SWITCHES_SUPPRESSED);
+        }
+    }
+
+    /**
+     * 丢弃玩家尚未发送的切换（玩家离开时调用）
+     */
+    public void cancel(UUID playerId) {
+        chains.remove(playerId);
+    }
+
+    /**
+     * 丢弃所有尚未发送的切换（适配器禁用时调用）
+     */
+    public void clear() {
+        chains.clear();
+    }
+
+    /**
+     * 尚未发送的切换链数
+     */
+    public int getPendingCount() {
+        return chains.size();
+    }
+
+    private void expire(UUID playerId) {
+        Chain<P, S> chain = chains.get(playerId);
+        if (chain == null) {
+            return;
+        }
+
+        long remaining = chain.dueMillis - clock.getAsLong();
+        if (remaining > 0) {
+            // 窗口被后续切换延长
+            scheduler.runLater(() -> expire(playerId), remaining);
+            return;
+        }
+        if (chains.remove(playerId, chain)) {
+            emit(chain);
+        }
+    }
+
+    private void emit(Chain<P, S> chain) {
+        if (Objects.equals(chain.origin, chain.current)) {
+            // 往返切换，最终没有离开原服务器
+            PluginMetrics.get().increment(PluginMetrics.CounterType.SWITCHES_SUPPRESSED);
+            return;
+        }
+        try {
+            emitter.emit(chain.player, chain.origin, chain.current);
+        } catch (Exception e) {
+            logger.error("发送服务器切换消息失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 切换消息发送回调
+     */
+    @FunctionalInterface
+    public interface Emitter<P, S> {
+
+        /**
+         * 发送合并后的切换消息
+         *
+         * @param player 玩家
+         * @param from 切换链的起点
+         * @param to 切换链的终点
+         */
+        void emit(P player, S from, S to);
+    }
+
+    /**
+     * 一名玩家尚未发送的切换链（不可变，更新时整体替换）
+     */
+    private static final class Chain<P, S> {
+        private final P player;
+        private final S origin;
+        private final S current;
+        private final long startMillis;
+        private final long dueMillis;
+
+        private Chain(P player, S origin, S current, long startMillis, long dueMillis) {
+            this.player = player;
+            this.origin = origin;
+            this.current = current;
+            this.startMillis = startMillis;
+            this.dueMillis = dueMillis;
+        }
+
+        private Chain<P, S> extend(P player, S to, long dueMillis) {
+            return new Chain<>(player, origin, to, startMillis, dueMillis);
+        }
+    }
+}
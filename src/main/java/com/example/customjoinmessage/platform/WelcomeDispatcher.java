@@ -0,0 +1,169 @@
+package com.example.customjoinmessage.platform;
+
+import com.example.customjoinmessage.core.PlayerRoster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 欢迎消息延迟分发器
+ *
+ * 所有玩家的延迟欢迎共用一个 DelayQueue 和一个分发线程，不再为每次加入创建平台延迟任务。
+ * 到期时间按 tick（50ms）对齐，同一 tick 到期的欢迎合并为一个平台任务投递。
+ *
+ * 每个玩家最多保留一条待发送欢迎（重新调度会替换旧的），
+ * 玩家离开时取消，投递前再确认玩家仍在在线名册中，重连风暴中不会发送无用的欢迎
+ */
+public class WelcomeDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
+
+    private static final long TICK_MILLIS = 50;
+
+    private final PlatformScheduler scheduler;
+    private final PlayerRoster roster;
+    private final DelayQueue<Pending> queue = new DelayQueue<>();
+
+    // 每个玩家当前有效的待发送欢迎（队列中被替换或取消的条目在到期时丢弃）
+    private final Map<UUID, Pending> pending = new ConcurrentHashMap<>();
+
+    private final Thread dispatcher;
+    private volatile boolean running;
+
+    public WelcomeDispatcher(PlatformScheduler scheduler, PlayerRoster roster) {
+        this.scheduler = scheduler;
+        this.roster = roster;
+        this.dispatcher = Thread.ofVirtual().name("CustomJoinMessage-Welcome").unstarted(this::dispatchLoop);
+    }
+
+    /**
+     * 启动分发线程
+     */
+    public void start() {
+        running = true;
+        dispatcher.start();
+    }
+
+    /**
+     * 停止分发线程，丢弃尚未到期的欢迎
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        dispatcher.interrupt();
+        try {
+            dispatcher.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queue.clear();
+        pending.clear();
+    }
+
+    // ================================
+    // 调度
+    // ================================
+
+    /**
+     * 调度一条欢迎消息（替换该玩家尚未发送的欢迎）
+     *
+     * @param playerId 玩家
+     * @param delivery 到期时在平台线程上执行的发送逻辑
+     * @param delayMillis 延迟（毫秒）
+     */
+    public void schedule(UUID playerId, Runnable delivery, long delayMillis) {
+        long now = System.currentTimeMillis();
+        long dueMillis = now + Math.max(0, delayMillis);
+        // 向上对齐到 tick，同一 tick 内到期的欢迎一起投递
+        dueMillis = (dueMillis + TICK_MILLIS - 1) / TICK_MILLIS * TICK_MILLIS;
+
+        Pending entry = new Pending(playerId, delivery, dueMillis);
+        pending.put(playerId, entry);
+        queue.offer(entry);
+    }
+
+    /**
+     * 取消玩家尚未发送的欢迎（玩家离开时调用）
+     */
+    public void cancel(UUID playerId) {
+        pending.remove(playerId);
+    }
+
+    /**
+     * 尚未发送的欢迎数
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // ================================
+    // 分发线程
+    // ================================
+
+    private void dispatchLoop() {
+        List<Pending> expired = new ArrayList<>();
+        while (running) {
+            try {
+                expired.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(expired);
+
+            List<Pending> batch = new ArrayList<>(expired.size());
+            for (Pending entry : expired) {
+                // 已被替换或取消，或玩家已离线
+                if (pending.remove(entry.playerId, entry) && roster.getEntry(entry.playerId) != null) {
+                    batch.add(entry);
+                }
+            }
+            expired.clear();
+
+            if (!batch.isEmpty()) {
+                scheduler.runLater(() -> deliver(batch), 0);
+            }
+        }
+    }
+
+    private void deliver(List<Pending> batch) {
+        for (Pending entry : batch) {
+            try {
+                entry.delivery.run();
+            } catch (Exception e) {
+                logger.error("发送欢迎消息失败: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class Pending implements Delayed {
+        private final UUID playerId;
+        private final Runnable delivery;
+        private final long dueMillis;
+
+        private Pending(UUID playerId, Runnable delivery, long dueMillis) {
+            this.playerId = playerId;
+            this.delivery = delivery;
+            this.dueMillis = dueMillis;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueMillis, ((Pending) other).dueMillis);
+        }
+    }
+}
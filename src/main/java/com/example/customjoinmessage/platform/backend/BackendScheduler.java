@@ -0,0 +1,70 @@
+package com.example.customjoinmessage.platform.backend;
+
+import com.example.customjoinmessage.platform.AbstractPlatformScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.UUID;
+
+/**
+ * 后端任务调度器
+ *
+ * 屏蔽 Bukkit 主线程调度器与 Folia 区域化调度器的差异：
+ * 与某个玩家相关的任务交给该玩家所在的线程（Folia 上为实体调度器），
+ * 全局任务交给主线程或全局区域，阻塞 I/O 交给虚拟线程
+ */
+public abstract class BackendScheduler extends AbstractPlatformScheduler {
+
+    private static final long MILLIS_PER_TICK = 50;
+
+    protected final JavaPlugin plugin;
+
+    protected BackendScheduler(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 根据服务器类型创建调度器
+     *
+     * @param plugin 插件实例
+     * @param folia 是否为 Folia 服务器
+     */
+    public static BackendScheduler create(JavaPlugin plugin, boolean folia) {
+        return folia ? new FoliaBackendScheduler(plugin) : new BukkitBackendScheduler(plugin);
+    }
+
+    @Override
+    public void runForPlayer(UUID playerId, Runnable task, Runnable retired, long delayMillis) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null) {
+            retired.run();
+            return;
+        }
+        runForPlayer(player, task, retired, delayMillis);
+    }
+
+    /**
+     * 在玩家所属线程上执行任务
+     *
+     * 已在该线程上且无需延迟时直接执行；玩家在执行前离线时不执行 task，改为调用 retired
+     *
+     * @param player 目标玩家
+     * @param task 任务
+     * @param retired 任务不会再执行时的回调
+     * @param delayMillis 延迟（毫秒），0 表示尽快执行
+     */
+    public abstract void runForPlayer(Player player, Runnable task, Runnable retired, long delayMillis);
+
+    /**
+     * 当前线程是否可以直接操作该玩家
+     */
+    public abstract boolean isOwnedByCurrentThread(Player player);
+
+    /**
+     * 毫秒换算为 tick（向上取整，避免短延迟被截断为 0）
+     */
+    protected static long toTicks(long delayMillis) {
+        return delayMillis <= 0 ? 0 : (delayMillis + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK;
+    }
+}
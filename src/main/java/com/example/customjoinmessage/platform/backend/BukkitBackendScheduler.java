@@ -0,0 +1,52 @@
+package com.example.customjoinmessage.platform.backend;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Paper/Spigot 调度器：所有玩家共享主线程
+ */
+final class BukkitBackendScheduler extends BackendScheduler {
+
+    BukkitBackendScheduler(JavaPlugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public void runForPlayer(Player player, Runnable task, Runnable retired, long delayMillis) {
+        Runnable guarded = () -> {
+            if (player.isOnline()) {
+                task.run();
+            } else {
+                retired.run();
+            }
+        };
+
+        long delayTicks = toTicks(delayMillis);
+        if (delayTicks > 0) {
+            Bukkit.getScheduler().runTaskLater(plugin, guarded, delayTicks);
+        } else if (isOwnedByCurrentThread(player)) {
+            guarded.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, guarded);
+        }
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Player player) {
+        return Bukkit.isPrimaryThread();
+    }
+
+    @Override
+    public void runLater(Runnable task, long delayMillis) {
+        long delayTicks = toTicks(delayMillis);
+        if (delayTicks > 0) {
+            Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+        } else if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.customjoinmessage.platform.backend;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Folia 区域化调度器
+ *
+ * 玩家任务交给玩家的实体调度器，在其所在区域的线程上执行，
+ * 因此广播会按区域并行发送，而不是全部挤在触发事件的区域线程上
+ */
+final class FoliaBackendScheduler extends BackendScheduler {
+
+    FoliaBackendScheduler(JavaPlugin plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public void runForPlayer(Player player, Runnable task, Runnable retired, long delayMillis) {
+        long delayTicks = toTicks(delayMillis);
+        if (delayTicks == 0 && isOwnedByCurrentThread(player)) {
+            task.run();
+            return;
+        }
+
+        // 实体调度器的最小延迟为 1 tick；玩家已失效时返回 false 且不会调用 retired
+        if (!player.getScheduler().execute(plugin, task, retired, Math.max(1, delayTicks))) {
+            retired.run();
+        }
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(Player player) {
+        return Bukkit.isOwnedByCurrentRegion(player);
+    }
+
+    @Override
+    public void runLater(Runnable task, long delayMillis) {
+        long delayTicks = toTicks(delayMillis);
+        if (delayTicks > 0) {
+            Bukkit.getGlobalRegionScheduler().runDelayed(plugin, scheduledTask -> task.run(), delayTicks);
+        } else {
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        }
+    }
+}
@@ -1,11 +1,24 @@
 package com.example.customjoinmessage.platform.backend;
 
+import com.example.customjoinmessage.config.MessageConfig;
+import com.example.customjoinmessage.core.ComponentTemplate;
 import com.example.customjoinmessage.core.CustomJoinMessagePlugin;
+import com.example.customjoinmessage.core.FlightEvents;
+import com.example.customjoinmessage.core.PluginMetrics;
+import com.example.customjoinmessage.core.StageTracer;
+import com.example.customjoinmessage.core.TemplateCache;
 import com.example.customjoinmessage.core.PluginMode;
+import com.example.customjoinmessage.placeholder.ExternalPlaceholderSource;
+import com.example.customjoinmessage.placeholder.ViewerPlaceholders;
 import com.example.customjoinmessage.platform.AbstractPlatformAdapter;
+import com.example.customjoinmessage.storage.AuditLog;
+import com.example.customjoinmessage.utils.LoggerUtil;
+import com.example.customjoinmessage.utils.LoggerUtil.Category;
 import com.example.customjoinmessage.utils.MessageFormatter;
 import com.example.customjoinmessage.utils.PermissionUtil;
 import com.example.customjoinmessage.utils.TimeUtil;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -19,7 +32,15 @@ import org.bukkit.plugin.messaging.PluginMessageListener;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Paper 平台适配器
@@ -29,11 +50,20 @@ import java.lang.reflect.Method;
  */
 public class PaperAdapter extends AbstractPlatformAdapter implements Listener, PluginMessageListener {
     
+    private static final Runnable NO_OP = () -> { };
+    
     protected final JavaPlugin bukkitPlugin;
     
+    // 玩家任务与全局任务的调度器（Folia 上按区域调度）
+    protected final BackendScheduler scheduler;
+    
+    // 按模板内容缓存的预编译模板（仅 Paper；编译与语言无关，相同模板共用一个实例）
+    private final TemplateCache<ComponentTemplate> templateCache = new TemplateCache<>();
+    
     public PaperAdapter(CustomJoinMessagePlugin plugin, Object platformInstance) {
         super(plugin, platformInstance);
         this.bukkitPlugin = (JavaPlugin) platformInstance;
+        this.scheduler = BackendScheduler.create(bukkitPlugin, capabilities.hasFolia());
     }
     
     @Override
@@ -44,15 +74,23 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
         // 注册通信通道（如果需要与代理端通信）
         registerCommunicationChannel();
         
-        if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-            logger.info("Paper 后端适配器已启用");
-        }
+        // 以当前在线玩家初始化在线名册（支持热重载）
+        seedPlayerRoster();
+        
+        // 检测 PlaceholderAPI
+        enableExternalPlaceholders();
+        
+        LoggerUtil.verbose(Category.PLATFORM, "Paper 后端适配器已启用");
     }
     
     @Override
     public void onDisable() {
         // 注销通信通道
         unregisterCommunicationChannel();
+        plugin.getPlayerRoster().clear();
+        templateCache.clear();
+        disableExternalPlaceholders();
+        shutdownScheduling();
         logger.info("Paper 后端适配器已禁用");
     }
     
@@ -68,9 +106,7 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
                 bukkitPlugin.getServer().getMessenger()
                     .unregisterOutgoingPluginChannel(bukkitPlugin, channelName);
                 
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("已注销传出通信通道: {}", channelName);
-                }
+                LoggerUtil.verbose(Category.PLATFORM, "已注销传出通信通道: {}", channelName);
             }
             
             // 注销传入通道
@@ -78,9 +114,7 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
                 bukkitPlugin.getServer().getMessenger()
                     .unregisterIncomingPluginChannel(bukkitPlugin, channelName, this);
                 
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("已注销传入通信通道: {}", channelName);
-                }
+                LoggerUtil.verbose(Category.PLATFORM, "已注销传入通信通道: {}", channelName);
             }
             
         } catch (Exception e) {
@@ -88,6 +122,11 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
         }
     }
     
+    @Override
+    public BackendScheduler getScheduler() {
+        return scheduler;
+    }
+    
     @Override
     public String getAdapterType() {
         return "Paper Backend";
@@ -95,13 +134,14 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
     
     @Override
     public String getPlatformVersion() {
-        return bukkitPlugin.getServer().getVersion();
+        return capabilities.getServerVersion();
     }
     
     @Override
     public void reload() {
         // 重新加载配置
         plugin.getConfigManager().reload();
+        templateCache.clear();
         logger.info("Paper适配器已重新加载");
     }
     
@@ -120,12 +160,53 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
     
     @Override
     public int getOnlinePlayerCount() {
-        return Bukkit.getOnlinePlayers().size();
+        return plugin.getPlayerRoster().getOnlineCount();
     }
     
     @Override
     public boolean isPlayerOnline(String playerName) {
-        return Bukkit.getPlayer(playerName) != null;
+        return plugin.getPlayerRoster().isOnline(playerName);
+    }
+    
+    @Override
+    public int getMaxPlayers() {
+        return bukkitPlugin.getServer().getMaxPlayers();
+    }
+    
+    @Override
+    public String getServerName() {
+        return bukkitPlugin.getServer().getName();
+    }
+    
+    @Override
+    protected ExternalPlaceholderSource createExternalPlaceholderSource() throws ReflectiveOperationException {
+        return PlaceholderApiSource.detect();
+    }
+    
+    /**
+     * 以当前在线玩家初始化在线名册
+     */
+    protected void seedPlayerRoster() {
+        for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
+            trackPlayerJoin(onlinePlayer);
+        }
+    }
+    
+    /**
+     * 记录玩家加入在线名册
+     */
+    protected void trackPlayerJoin(Player player) {
+        plugin.getPlayerRoster().join(player.getUniqueId(), player.getName(),
+            bukkitPlugin.getServer().getName(), PermissionUtil.getPlayerPermissionGroup(player));
+    }
+    
+    /**
+     * 记录玩家离开在线名册
+     */
+    protected void trackPlayerQuit(Player player) {
+        plugin.getPlayerRoster().leave(player.getUniqueId());
+        cancelWelcome(player.getUniqueId());
+        invalidatePlaceholders(player.getUniqueId());
     }
     
     /**
@@ -135,28 +216,25 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        trackPlayerJoin(player);
         
         // 拦截系统消息（所有模式都需要）
         if (plugin.getConfigManager().getPluginConfig().isInterceptJoinMessages()) {
             event.joinMessage(null);
-            if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                logger.info("已拦截 {} 的系统加入消息", player.getName());
-            }
+            LoggerUtil.verbose(Category.EVENTS, "已拦截 {} 的系统加入消息", player.getName());
         }
         
         // 根据运行模式决定是否发送自定义消息
         if (plugin.getPluginMode() == PluginMode.BACKEND_STANDALONE) {
             // 独立模式：后端负责发送所有消息
-            if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                logger.info("后端独立模式 - 开始发送自定义消息");
-            }
-            handlePlayerJoin(player);
+            LoggerUtil.verbose(Category.EVENTS, "后端独立模式 - 开始发送自定义消息");
+            measured(PluginMetrics.CounterType.JOINS, PluginMetrics.HistogramType.JOIN_HANDLER,
+                () -> handlePlayerJoin(player));
         } else if (plugin.getPluginMode() == PluginMode.BACKEND_SLAVE) {
             // 从属模式：只拦截系统消息，通知代理端处理
-            if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                logger.info("后端从属模式 - 通知代理端处理玩家加入");
-            }
-            notifyProxyPlayerJoin(player);
+            LoggerUtil.verbose(Category.EVENTS, "后端从属模式 - 通知代理端处理玩家加入");
+            measured(PluginMetrics.CounterType.JOINS, PluginMetrics.HistogramType.JOIN_HANDLER,
+                () -> notifyProxyPlayerJoin(player));
         }
     }
     
@@ -170,17 +248,20 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
         // 拦截系统消息
         if (plugin.getConfigManager().getPluginConfig().isInterceptLeaveMessages()) {
             event.quitMessage(null);
-            if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                logger.info("已拦截 {} 的系统离开消息", player.getName());
-            }
+            LoggerUtil.verbose(Category.EVENTS, "已拦截 {} 的系统离开消息", player.getName());
         }
         
         // 根据运行模式决定是否发送自定义消息
         if (plugin.getPluginMode() == PluginMode.BACKEND_STANDALONE) {
-            handlePlayerLeave(player);
+            measured(PluginMetrics.CounterType.LEAVES, PluginMetrics.HistogramType.LEAVE_HANDLER,
+                () -> handlePlayerLeave(player));
         } else if (plugin.getPluginMode() == PluginMode.BACKEND_SLAVE) {
-            notifyProxyPlayerLeave(player);
+            measured(PluginMetrics.CounterType.LEAVES, PluginMetrics.HistogramType.LEAVE_HANDLER,
+                () -> notifyProxyPlayerLeave(player));
         }
+        
+        // 离开消息格式化完成后再移出名册
+        trackPlayerQuit(player);
     }
     
     /**
@@ -192,11 +273,15 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
             
             // 判断是否首次加入
+            long detectStartNanos = StageTracer.stageStart();
             boolean isFirstTime = isFirstTimeJoin(player);
+            StageTracer.stageEnd(StageTracer.Stage.FIRST_JOIN_DETECTION, detectStartNanos);
+            audit(isFirstTime ? AuditLog.Type.FIRST_JOIN : AuditLog.Type.JOIN,
+                player.getUniqueId(), player.getName(), null, null);
             
             if (isFirstTime) {
                 // 首次加入玩家
-                logger.info("新玩家 {} 首次加入服务器", player.getName());
+                LoggerUtil.verbose(Category.EVENTS, "新玩家 {} 首次加入服务器", player.getName());
                 
                 // 发送全局首次加入消息
                 sendGlobalFirstJoinMessage(player, permissionGroup);
@@ -209,7 +294,7 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
                 // 判断是否为回归玩家
                 if (shouldShowReturningMessage(player)) {
                     // 回归玩家
-                    logger.info("回归玩家 {} 重新加入服务器", player.getName());
+                    LoggerUtil.verbose(Category.EVENTS, "回归玩家 {} 重新加入服务器", player.getName());
                     
                     // 发送全局回归消息
                     sendGlobalReturningMessage(player, permissionGroup);
@@ -220,10 +305,13 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
                     }
                 } else {
                     // 普通玩家加入
-                    logger.info("玩家 {} 加入了服务器", player.getName());
+                    LoggerUtil.verbose(Category.EVENTS, "玩家 {} 加入了服务器", player.getName());
                     sendGlobalJoinMessage(player, permissionGroup);
                 }
             }
+            
+            // 加入消息已同步解析所需的外部占位符，其余的在欢迎延迟期间异步预取
+            prefetchPlaceholders(player.getUniqueId());
         } catch (Exception e) {
             logger.error("处理玩家加入时发生错误: {}", player.getName(), e);
         }
@@ -234,8 +322,9 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
      */
     private void handlePlayerLeave(Player player) {
         try {
+            auditLeave(player.getUniqueId(), player.getName());
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-            logger.info("玩家 {} 离开了服务器", player.getName());
+            LoggerUtil.verbose(Category.EVENTS, "玩家 {} 离开了服务器", player.getName());
             sendGlobalLeaveMessage(player, permissionGroup);
         } catch (Exception e) {
             logger.error("处理玩家离开时发生错误: {}", player.getName(), e);
@@ -305,55 +394,43 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
      * 发送全局首次加入消息
      */
     private void sendGlobalFirstJoinMessage(Player player, String permissionGroup) {
-        String template = plugin.getConfigManager().getMessageConfig()
-            .getJoinMessage(permissionGroup, "first-time");
-        
-        if (template != null && !template.trim().isEmpty()) {
-            String message = formatMessage(template, player);
-            // 发送给除了加入玩家之外的所有玩家
-            sendMessageToAllExcept(player, message);
-        }
+        MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+        // 发送给除了加入玩家之外的所有玩家
+        broadcastLocalized("join.first-time", getOtherPlayers(player),
+            language -> messageConfig.getJoinMessage(permissionGroup, "first-time", language),
+            text -> formatMessage(text, player));
     }
     
     /**
      * 发送全局回归消息
      */
     private void sendGlobalReturningMessage(Player player, String permissionGroup) {
-        String template = plugin.getConfigManager().getMessageConfig()
-            .getJoinMessage(permissionGroup, "returning");
-        
-        if (template != null && !template.trim().isEmpty()) {
-            String message = formatMessage(template, player);
-            // 发送给除了加入玩家之外的所有玩家
-            sendMessageToAllExcept(player, message);
-        }
+        MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+        // 发送给除了加入玩家之外的所有玩家
+        broadcastLocalized("join.returning", getOtherPlayers(player),
+            language -> messageConfig.getJoinMessage(permissionGroup, "returning", language),
+            text -> formatMessage(text, player));
     }
     
     /**
      * 发送全局加入消息
      */
     private void sendGlobalJoinMessage(Player player, String permissionGroup) {
-        String template = plugin.getConfigManager().getMessageConfig()
-            .getJoinMessage(permissionGroup, "default");
-        
-        if (template != null && !template.trim().isEmpty()) {
-            String message = formatMessage(template, player);
-            // 普通加入消息发送给所有玩家（包括加入的玩家自己）
-            sendMessageToAll(message);
-        }
+        MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+        // 普通加入消息发送给所有玩家（包括加入的玩家自己）
+        broadcastLocalized("join.default", Bukkit.getOnlinePlayers(),
+            language -> messageConfig.getJoinMessage(permissionGroup, "default", language),
+            text -> formatMessage(text, player));
     }
     
     /**
      * 发送全局离开消息
      */
     private void sendGlobalLeaveMessage(Player player, String permissionGroup) {
-        String template = plugin.getConfigManager().getMessageConfig()
-            .getLeaveMessage(permissionGroup, "default");
-        
-        if (template != null && !template.trim().isEmpty()) {
-            String message = formatMessage(template, player);
-            sendMessageToAll(message);
-        }
+        MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+        broadcastLocalized("leave.default", Bukkit.getOnlinePlayers(),
+            language -> messageConfig.getLeaveMessage(permissionGroup, "default", language),
+            text -> formatMessage(text, player));
     }
     
     /**
@@ -382,17 +459,18 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
                 ? plugin.getConfigManager().getPluginConfig().getFirstTimeWelcomeDelay()
                 : 0; // 回归消息立即发送
             
-            // 延迟发送欢迎消息
-            Bukkit.getScheduler().runTaskLater(bukkitPlugin, () -> {
+            // 延迟发送欢迎消息（到期后交给玩家所属线程执行，玩家在延迟期间离线时不发送）
+            scheduleWelcome(player.getUniqueId(), () -> scheduler.runForPlayer(player, () -> {
                 String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-                String template = plugin.getConfigManager().getMessageConfig()
-                    .getWelcomeMessage(permissionGroup, messageType);
+                MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+                String language = messageConfig.resolveLanguage(getPlayerLocale(player));
+                String template = messageConfig.getWelcomeMessage(permissionGroup, messageType, language);
                 
                 if (template != null && !template.trim().isEmpty()) {
-                    String message = formatWelcomeMessage(template, player);
+                    String message = formatWelcomeMessage(template, player, messageConfig.toLocale(language));
                     sendMessageToPlayer(player, message);
                 }
-            }, delay / 50); // 转换为ticks
+            }, NO_OP, 0), delay);
             
         } catch (Exception e) {
             logger.error("发送欢迎消息失败: {}", player.getName(), e);
@@ -402,23 +480,17 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
     /**
      * 格式化欢迎消息（支持特殊占位符）
      */
-    private String formatWelcomeMessage(String template, Player player) {
+    private String formatWelcomeMessage(String template, Player player, Locale locale) {
         String message = formatMessage(template, player);
         
         // 处理特殊占位符
         try {
-            // {online_count} - 在线玩家数
-            message = message.replace("{online_count}", String.valueOf(Bukkit.getOnlinePlayers().size()));
-            
-            // {max_players} - 最大玩家数
-            message = message.replace("{max_players}", String.valueOf(Bukkit.getMaxPlayers()));
-            
             // {last_seen} - 上次游戏时间（仅回归消息）
             if (message.contains("{last_seen}")) {
                 if (shouldShowReturningMessage(player)) {
                     long lastPlayed = player.getLastPlayed();
-                    String lastSeenText = formatTimeAgo(System.currentTimeMillis() - lastPlayed);
-                    message = message.replace("{last_seen}", lastSeenText);
+                    message = TimeUtil.replaceTimeAgo(message, "{last_seen}",
+                        (System.currentTimeMillis() - lastPlayed) / 1000, locale);
                 } else {
                     // 非回归消息，移除占位符
                     message = message.replace("{last_seen}", "").trim();
@@ -431,20 +503,6 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
         return message;
     }
     
-    /**
-     * 格式化时间差为友好显示
-     */
-    private String formatTimeAgo(long millisAgo) {
-        long seconds = millisAgo / 1000;
-        
-        if (seconds < 60) return "刚刚";
-        if (seconds < 3600) return (seconds / 60) + "分钟前";
-        if (seconds < 86400) return (seconds / 3600) + "小时前";
-        if (seconds < 2592000) return (seconds / 86400) + "天前";
-        if (seconds < 31536000) return (seconds / 2592000) + "个月前";
-        return (seconds / 31536000) + "年前";
-    }
-    
     /**
      * 通知代理端玩家加入
      */
@@ -483,29 +541,156 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
      */
     @Override
     public void sendMessageToAll(String message) {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            sendMessageToPlayer(player, message);
+        Set<String> viewerKeys = viewerPlaceholders.getReferencedKeys(message);
+        if (viewerKeys.isEmpty()) {
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                sendMessageToPlayerSafely(player, message);
+            }
+            return;
+        }
+        
+        // 包含观看者占位符：每种取值组合解析一次
+        for (ViewerPlaceholders.Group<Player> viewers
+                : viewerPlaceholders.<Player>group(viewerKeys, Bukkit.getOnlinePlayers(), this::toViewer)) {
+            String personalized = viewers.bind(UnaryOperator.identity()).apply(message);
+            for (Player player : viewers.getMembers()) {
+                sendMessageToPlayerSafely(player, personalized);
+            }
         }
     }
     
     /**
-     * 发送消息给除指定玩家外的所有玩家
+     * 获取除指定玩家外的所有在线玩家
      */
-    private void sendMessageToAllExcept(Player exceptPlayer, String message) {
+    private List<Player> getOtherPlayers(Player exceptPlayer) {
+        List<Player> otherPlayers = new ArrayList<>();
         for (Player player : Bukkit.getOnlinePlayers()) {
             if (!player.equals(exceptPlayer)) {
-                sendMessageToPlayer(player, message);
+                otherPlayers.add(player);
             }
         }
+        return otherPlayers;
+    }
+    
+    /**
+     * 按语言分组广播（每种语言只渲染一次）
+     * 
+     * 支持 Adventure 时模板预编译为组件，按玩家只替换占位符文本节点；
+     * 不可编译的模板或 Spigot 回退为先格式化再解析。
+     * 模板引用观看者占位符时，语言组内再按观看者作用域细分，每种取值组合渲染一次
+     * 
+     * @param templateKey 消息类别与类型（用于 JFR 事件），例如 join.first-time
+     * @param recipients 接收者
+     * @param templates 消息包语言 -> 原始模板，返回空表示该语言不发送
+     * @param formatter 占位符格式化（作用于整条模板或单个占位符）
+     */
+    protected void broadcastLocalized(String templateKey, Collection<? extends Player> recipients,
+                                      Function<String, String> templates, UnaryOperator<String> formatter) {
+        FlightEvents.Broadcast flightEvent = new FlightEvents.Broadcast();
+        flightEvent.begin();
+        int sent = 0;
+        Map<String, List<Player>> groups = this.<Player>groupByLanguage(recipients, this::getPlayerLocale);
+        for (Map.Entry<String, List<Player>> group : groups.entrySet()) {
+            long renderStartNanos = System.nanoTime();
+            String language = group.getKey();
+            String template = templates.apply(language);
+            if (template == null || template.trim().isEmpty()) {
+                continue;
+            }
+            
+            Set<String> viewerKeys = viewerPlaceholders.getReferencedKeys(template);
+            if (viewerKeys.isEmpty()) {
+                sent += renderAndFanOut(template, formatter, group.getValue(), renderStartNanos);
+            } else {
+                for (ViewerPlaceholders.Group<Player> viewers
+                        : viewerPlaceholders.group(viewerKeys, group.getValue(), this::toViewer)) {
+                    sent += renderAndFanOut(template, viewers.bind(formatter), viewers.getMembers(),
+                        renderStartNanos);
+                    renderStartNanos = System.nanoTime();
+                }
+            }
+        }
+        metrics.recordBroadcast(sent);
+        commitBroadcastEvent(flightEvent, templateKey, sent, groups.size());
+    }
+    
+    /**
+     * 渲染一次并发送给一组玩家
+     * 
+     * @return 发送的玩家数
+     */
+    private int renderAndFanOut(String template, UnaryOperator<String> formatter, List<Player> recipients,
+                                long renderStartNanos) {
+        long buildStartNanos = StageTracer.stageStart();
+        Component component = capabilities.hasAdventure()
+            ? templateCache.get(template, this::compileTemplate).render(formatter)
+            : null;
+        Supplier<String> message;
+        if (component != null) {
+            // 只在组件发送失败时才需要文本消息
+            message = () -> formatter.apply(template);
+        } else {
+            // 不可编译时先格式化再解析（格式化结果按玩家不同，不进入缓存）
+            String formatted = formatter.apply(template);
+            if (capabilities.hasAdventure()) {
+                component = toAdventureComponent(formatted);
+            }
+            message = () -> formatted;
+        }
+        StageTracer.stageEnd(StageTracer.Stage.COMPONENT_BUILD, buildStartNanos);
+        metrics.recordSince(PluginMetrics.HistogramType.TEMPLATE_RENDER, renderStartNanos);
+        
+        long fanOutStartNanos = StageTracer.stageStart();
+        for (Player player : recipients) {
+            if (scheduler.isOwnedByCurrentThread(player)) {
+                sendRenderedMessage(player, component, message);
+            } else {
+                Component rendered = component;
+                scheduler.runForPlayer(player, () -> sendRenderedMessage(player, rendered, message), NO_OP, 0);
+            }
+        }
+        StageTracer.stageEnd(StageTracer.Stage.FAN_OUT, fanOutStartNanos);
+        return recipients.size();
+    }
+    
+    /**
+     * 玩家 -> 观看者信息
+     */
+    private ViewerPlaceholders.Viewer toViewer(Player player) {
+        return new ViewerPlaceholders.Viewer(player.getUniqueId(), player.getName(), getPlayerLocale(player));
+    }
+    
+    /**
+     * 获取玩家客户端语言
+     */
+    protected Locale getPlayerLocale(Player player) {
+        if (capabilities.hasAdventure()) {
+            return player.locale();
+        }
+        // Spigot 只提供 "en_us" 形式的字符串
+        String locale = player.getLocale();
+        return locale != null ? Locale.forLanguageTag(locale.replace('_', '-')) : null;
+    }
+    
+    /**
+     * 在玩家所属线程上发送消息（Folia 上其他区域的玩家交给其实体调度器）
+     */
+    private void sendMessageToPlayerSafely(Player player, String message) {
+        if (scheduler.isOwnedByCurrentThread(player)) {
+            sendMessageToPlayer(player, message);
+        } else {
+            scheduler.runForPlayer(player, () -> sendMessageToPlayer(player, message), NO_OP, 0);
+        }
     }
     
     /**
      * 发送消息给指定玩家
      */
     protected void sendMessageToPlayer(Player player, String message) {
+        metrics.increment(PluginMetrics.CounterType.MESSAGES_SENT);
         try {
             // 尝试使用Adventure API（Paper）
-            if (hasAdventureSupport()) {
+            if (capabilities.hasAdventure()) {
                 sendAdventureMessage(player, message);
             } else {
                 // 回退到传统方法
@@ -518,45 +703,61 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
     }
     
     /**
-     * 检查是否支持Adventure API
+     * 发送Adventure消息（如果支持）
+     */
+    private void sendAdventureMessage(Player player, String message) {
+        sendRenderedMessage(player, toAdventureComponent(message), () -> message);
+    }
+    
+    /**
+     * 发送已渲染的组件，组件为空或发送失败时回退到普通消息
      */
-    private boolean hasAdventureSupport() {
+    private void sendRenderedMessage(Player player, Component component, Supplier<String> message) {
+        if (component == null) {
+            player.sendMessage(message.get());
+            return;
+        }
+        
         try {
-            Class.forName("net.kyori.adventure.text.Component");
-            return true;
-        } catch (ClassNotFoundException e) {
-            return false;
+            player.sendMessage(component);
+        } catch (Exception e) {
+            // 回退到普通消息
+            player.sendMessage(message.get());
         }
     }
     
     /**
-     * 发送Adventure消息（如果支持）
+     * 预编译模板（仅在支持 Adventure 时调用），与 toAdventureComponent 使用相同的颜色代码转换
      */
-    private void sendAdventureMessage(Player player, String message) {
+    private ComponentTemplate compileTemplate(String template) {
+        return ComponentTemplate.compile(MessageFormatter.translateColorCodes(template),
+            this::toAdventureComponent);
+    }
+    
+    /**
+     * 创建MiniMessage组件，失败时返回null
+     */
+    private Component toAdventureComponent(String message) {
         try {
-            // 使用反射调用Adventure方法，避免编译时依赖
-            Method sendMessageMethod = player.getClass().getMethod("sendMessage", 
-                Class.forName("net.kyori.adventure.text.Component"));
-            
-            // 创建MiniMessage组件
-            Class<?> miniMessageClass = Class.forName("net.kyori.adventure.text.minimessage.MiniMessage");
-            Object miniMessage = miniMessageClass.getMethod("miniMessage").invoke(null);
-            Object component = miniMessageClass.getMethod("deserialize", String.class)
-                .invoke(miniMessage, message);
-            
-            sendMessageMethod.invoke(player, component);
+            return MiniMessageHolder.INSTANCE.deserialize(message);
         } catch (Exception e) {
-            // 回退到普通消息
-            player.sendMessage(message);
+            return null;
         }
     }
     
+    /**
+     * MiniMessage 实例（首次使用时才加载，Spigot 上没有 Adventure 时不会触发）
+     */
+    private static final class MiniMessageHolder {
+        static final MiniMessage INSTANCE = MiniMessage.miniMessage();
+    }
+    
     /**
      * 格式化消息（基础占位符替换）
      */
     private String formatMessage(String template, Player player) {
-        String message = template.replace("{player}", player.getName())
-                               .replace("{server}", bukkitPlugin.getServer().getName());
+        String message = plugin.getConfigManager().getMessageConfig()
+            .formatMessage(template, player.getName());
         
         // 应用颜色代码转换
         return MessageFormatter.translateColorCodes(message);
@@ -585,26 +786,18 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
                 bukkitPlugin.getServer().getMessenger()
                     .registerOutgoingPluginChannel(bukkitPlugin, channelName);
                 
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("已注册传出通信通道: {}", channelName);
-                }
+                LoggerUtil.verbose(Category.PLATFORM, "已注册传出通信通道: {}", channelName);
             } else {
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("传出通信通道已存在，跳过注册: {}", channelName);
-                }
+                LoggerUtil.verbose(Category.PLATFORM, "传出通信通道已存在，跳过注册: {}", channelName);
             }
             
             if (!bukkitPlugin.getServer().getMessenger().isIncomingChannelRegistered(bukkitPlugin, channelName)) {
                 bukkitPlugin.getServer().getMessenger()
                     .registerIncomingPluginChannel(bukkitPlugin, channelName, this);
                 
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("已注册传入通信通道: {}", channelName);
-                }
+                LoggerUtil.verbose(Category.PLATFORM, "已注册传入通信通道: {}", channelName);
             } else {
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("传入通信通道已存在，跳过注册: {}", channelName);
-                }
+                LoggerUtil.verbose(Category.PLATFORM, "传入通信通道已存在，跳过注册: {}", channelName);
             }
             
         } catch (Exception e) {
@@ -617,9 +810,7 @@ public class PaperAdapter extends AbstractPlatformAdapter implements Listener, P
         // 处理来自代理端的消息
         if ("customjoinmessage:sync".equals(channel)) {
             // 这里可以处理代理端发送的消息
-            if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                logger.info("收到来自代理端的消息");
-            }
+            LoggerUtil.verbose(Category.PLATFORM, "收到来自代理端的消息");
         }
     }
 }
@@ -0,0 +1,62 @@
+package com.example.customjoinmessage.platform.backend;
+
+import com.example.customjoinmessage.placeholder.ExternalPlaceholderSource;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * PlaceholderAPI 占位符来源：{ext:名称} 解析为 %名称%
+ *
+ * 通过反射调用，未安装 PlaceholderAPI 时不加载任何相关类。
+ * 扩展会读取玩家和世界数据，只能在主线程（Folia 为玩家所属区域线程）调用
+ */
+final class PlaceholderApiSource implements ExternalPlaceholderSource {
+
+    private final Method setPlaceholders;
+
+    private PlaceholderApiSource(Method setPlaceholders) {
+        this.setPlaceholders = setPlaceholders;
+    }
+
+    /**
+     * 检测 PlaceholderAPI，未启用时返回 null
+     */
+    static PlaceholderApiSource detect() throws ReflectiveOperationException {
+        if (!Bukkit.getPluginManager().isPluginEnabled("PlaceholderAPI")) {
+            return null;
+        }
+        Class<?> api = Class.forName("me.clip.placeholderapi.PlaceholderAPI");
+        return new PlaceholderApiSource(api.getMethod("setPlaceholders", OfflinePlayer.class, String.class));
+    }
+
+    @Override
+    public String getName() {
+        return "PlaceholderAPI";
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return false;
+    }
+
+    @Override
+    public String resolve(UUID playerId, String name) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null) {
+            return null;
+        }
+
+        String placeholder = "%" + name + "%";
+        try {
+            String value = (String) setPlaceholders.invoke(null, player, placeholder);
+            // 没有对应扩展时 PlaceholderAPI 原样返回
+            return value != null && !value.equals(placeholder) ? value : null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.customjoinmessage.platform.backend;
 
 import com.example.customjoinmessage.core.CustomJoinMessagePlugin;
+import com.example.customjoinmessage.core.FlightEvents;
+import com.example.customjoinmessage.core.PluginMetrics;
 import com.example.customjoinmessage.core.PluginMode;
+import com.example.customjoinmessage.core.StageTracer;
+import com.example.customjoinmessage.storage.AuditLog;
+import com.example.customjoinmessage.utils.LoggerUtil;
+import com.example.customjoinmessage.utils.LoggerUtil.Category;
 import com.example.customjoinmessage.utils.MessageFormatter;
 import com.example.customjoinmessage.utils.PermissionUtil;
 import org.bukkit.Bukkit;
@@ -36,9 +42,13 @@ public class SpigotAdapter extends PaperAdapter {
             logger.error("注册通信通道失败", e);
         }
         
-        if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-            logger.info("Spigot 后端适配器已启用 - 使用专用消息拦截");
-        }
+        // 以当前在线玩家初始化在线名册（支持热重载）
+        seedPlayerRoster();
+        
+        // 检测 PlaceholderAPI
+        enableExternalPlaceholders();
+        
+        LoggerUtil.verbose(Category.PLATFORM, "Spigot 后端适配器已启用 - 使用专用消息拦截");
     }
     
     @Override
@@ -53,27 +63,36 @@ public class SpigotAdapter extends PaperAdapter {
     @Override
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
+        FlightEvents.HandlerEvent flightEvent = FlightEvents.beginHandler(PluginMetrics.CounterType.JOINS);
+        StageTracer.Trace trace = StageTracer.get().begin(PluginMetrics.CounterType.JOINS.getKey());
+        long startNanos = System.nanoTime();
         Player player = event.getPlayer();
+        trackPlayerJoin(player);
         
         // 直接替换系统消息为自定义消息（而不是设置为null）
         if (plugin.getConfigManager().getPluginConfig().isInterceptJoinMessages()) {
+            long renderStartNanos = System.nanoTime();
             String customMessage = getCustomJoinMessage(player);
+            metrics.recordSince(PluginMetrics.HistogramType.TEMPLATE_RENDER, renderStartNanos);
             if (customMessage != null && !customMessage.trim().isEmpty()) {
                 event.setJoinMessage(customMessage);
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("Spigot已替换 {} 的加入消息: {}", player.getName(), customMessage);
-                }
+                // 事件级消息由服务端发送给所有在线玩家
+                metrics.recordBroadcast(Bukkit.getOnlinePlayers().size());
+                LoggerUtil.verbose(Category.EVENTS, "Spigot已替换 {} 的加入消息: {}", player.getName(), customMessage);
             } else {
                 // 如果没有自定义消息，则禁用系统消息
                 event.setJoinMessage(null);
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("Spigot已禁用 {} 的系统加入消息", player.getName());
-                }
+                LoggerUtil.verbose(Category.EVENTS, "Spigot已禁用 {} 的系统加入消息", player.getName());
             }
         }
         
         // 处理欢迎消息和其他逻辑
         handleSpigotPlayerJoinLogic(player);
+        
+        metrics.increment(PluginMetrics.CounterType.JOINS);
+        metrics.recordSince(PluginMetrics.HistogramType.JOIN_HANDLER, startNanos);
+        StageTracer.get().finish(trace);
+        commitHandlerEvent(flightEvent);
     }
     
     /**
@@ -83,27 +102,38 @@ public class SpigotAdapter extends PaperAdapter {
     @Override
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
+        FlightEvents.HandlerEvent flightEvent = FlightEvents.beginHandler(PluginMetrics.CounterType.LEAVES);
+        StageTracer.Trace trace = StageTracer.get().begin(PluginMetrics.CounterType.LEAVES.getKey());
+        long startNanos = System.nanoTime();
         Player player = event.getPlayer();
         
         // 直接替换系统消息为自定义消息
         if (plugin.getConfigManager().getPluginConfig().isInterceptLeaveMessages()) {
+            long renderStartNanos = System.nanoTime();
             String customMessage = getCustomLeaveMessage(player);
+            metrics.recordSince(PluginMetrics.HistogramType.TEMPLATE_RENDER, renderStartNanos);
             if (customMessage != null && !customMessage.trim().isEmpty()) {
                 event.setQuitMessage(customMessage);
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("Spigot已替换 {} 的离开消息: {}", player.getName(), customMessage);
-                }
+                // 离开的玩家不会收到该消息
+                metrics.recordBroadcast(Math.max(0, Bukkit.getOnlinePlayers().size() - 1));
+                LoggerUtil.verbose(Category.EVENTS, "Spigot已替换 {} 的离开消息: {}", player.getName(), customMessage);
             } else {
                 // 如果没有自定义消息，则禁用系统消息
                 event.setQuitMessage(null);
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("Spigot已禁用 {} 的系统离开消息", player.getName());
-                }
+                LoggerUtil.verbose(Category.EVENTS, "Spigot已禁用 {} 的系统离开消息", player.getName());
             }
         }
         
         // 处理欢迎消息和其他逻辑
         handleSpigotPlayerLeaveLogic(player);
+        
+        // 离开消息格式化完成后再移出名册
+        trackPlayerQuit(player);
+        
+        metrics.increment(PluginMetrics.CounterType.LEAVES);
+        metrics.recordSince(PluginMetrics.HistogramType.LEAVE_HANDLER, startNanos);
+        StageTracer.get().finish(trace);
+        commitHandlerEvent(flightEvent);
     }
     
     /**
@@ -116,7 +146,9 @@ public class SpigotAdapter extends PaperAdapter {
                 String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
                 
                 // 判断消息类型
+                long detectStartNanos = StageTracer.stageStart();
                 boolean isFirstTime = isFirstTimeJoin(player);
+                StageTracer.stageEnd(StageTracer.Stage.FIRST_JOIN_DETECTION, detectStartNanos);
                 boolean isReturning = !isFirstTime && shouldShowReturningMessage(player);
                 
                 String messageType;
@@ -174,12 +206,14 @@ public class SpigotAdapter extends PaperAdapter {
             // 根据运行模式决定后续处理
             if (plugin.getPluginMode() == PluginMode.BACKEND_STANDALONE) {
                 // 独立模式：发送欢迎消息
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("Spigot独立模式 - 处理欢迎消息");
-                }
+                LoggerUtil.verbose(Category.MESSAGES, "Spigot独立模式 - 处理欢迎消息");
                 
                 // 发送欢迎消息
+                long detectStartNanos = StageTracer.stageStart();
                 boolean isFirstTime = isFirstTimeJoin(player);
+                StageTracer.stageEnd(StageTracer.Stage.FIRST_JOIN_DETECTION, detectStartNanos);
+                audit(isFirstTime ? AuditLog.Type.FIRST_JOIN : AuditLog.Type.JOIN,
+                    player.getUniqueId(), player.getName(), null, null);
                 boolean isReturning = !isFirstTime && shouldShowReturningMessage(player);
                 
                 if (isFirstTime && plugin.getConfigManager().getPluginConfig().isFirstTimeWelcomeEnabled()) {
@@ -190,9 +224,7 @@ public class SpigotAdapter extends PaperAdapter {
                 
             } else if (plugin.getPluginMode() == PluginMode.BACKEND_SLAVE) {
                 // 从属模式：通知代理端处理
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("Spigot从属模式 - 通知代理端处理玩家加入");
-                }
+                LoggerUtil.verbose(Category.EVENTS, "Spigot从属模式 - 通知代理端处理玩家加入");
                 notifyProxyPlayerJoin(player);
             }
         } catch (Exception e) {
@@ -207,10 +239,10 @@ public class SpigotAdapter extends PaperAdapter {
         try {
             if (plugin.getPluginMode() == PluginMode.BACKEND_SLAVE) {
                 // 从属模式：通知代理端处理
-                if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                    logger.info("Spigot从属模式 - 通知代理端处理玩家离开");
-                }
+                LoggerUtil.verbose(Category.EVENTS, "Spigot从属模式 - 通知代理端处理玩家离开");
                 notifyProxyPlayerLeave(player);
+            } else if (plugin.getPluginMode() == PluginMode.BACKEND_STANDALONE) {
+                auditLeave(player.getUniqueId(), player.getName());
             }
             // 独立模式的离开消息已经通过setQuitMessage直接设置
         } catch (Exception e) {
@@ -222,8 +254,8 @@ public class SpigotAdapter extends PaperAdapter {
      * 格式化消息
      */
     private String formatMessage(String template, Player player) {
-        String message = template.replace("{player}", player.getName())
-                               .replace("{server}", bukkitPlugin.getServer().getName());
+        String message = plugin.getConfigManager().getMessageConfig()
+            .formatMessage(template, player.getName());
         
         // 应用颜色代码转换
         return MessageFormatter.translateColorCodes(message);
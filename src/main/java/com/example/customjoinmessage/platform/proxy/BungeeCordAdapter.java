@@ -1,9 +1,22 @@
 package com.example.customjoinmessage.platform.proxy;
 
 
+import com.example.customjoinmessage.config.MessageConfig;
 import com.example.customjoinmessage.core.CustomJoinMessagePlugin;
+import com.example.customjoinmessage.core.FlightEvents;
+import com.example.customjoinmessage.core.PluginMetrics;
+import com.example.customjoinmessage.core.StageTracer;
+import com.example.customjoinmessage.core.TemplateCache;
+import com.example.customjoinmessage.placeholder.ViewerPlaceholders;
 import com.example.customjoinmessage.platform.AbstractPlatformAdapter;
+import com.example.customjoinmessage.platform.PlatformScheduler;
+import com.example.customjoinmessage.platform.SwitchDebouncer;
+import com.example.customjoinmessage.storage.AuditLog;
+import com.example.customjoinmessage.storage.PlayerDataStore;
+import com.example.customjoinmessage.utils.LoggerUtil;
+import com.example.customjoinmessage.utils.LoggerUtil.Category;
 import com.example.customjoinmessage.utils.PermissionUtil;
+import com.example.customjoinmessage.utils.TimeUtil;
 
 import net.md_5.bungee.api.ProxyServer;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
@@ -18,16 +31,19 @@ import net.md_5.bungee.api.chat.BaseComponent;
 import net.md_5.bungee.api.chat.TextComponent;
 import net.md_5.bungee.api.ChatColor;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.io.File;
-import java.io.FileWriter;
-import java.nio.file.Files;
 import java.time.Instant;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 /**
  * BungeeCord 代理平台适配器
@@ -46,23 +62,34 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     @SuppressWarnings("unused")
     private final Set<UUID> recentlyLeftPlayers;
     
+    // 按模板内容缓存的颜色代码模板（转换与语言、玩家无关，占位符在转换后再替换）
+    private final TemplateCache<String> templateCache = new TemplateCache<>();
+    
     // 持久化玩家数据
-    private final Gson gson;
-    private final File playersDataFile;
+    private final PlayerDataStore playerDataStore;
+    
+    // 任务调度器（玩家数据在虚拟线程上加载和写回）
+    private final BungeeScheduler scheduler;
+    
+    // 切换消息防抖（连续切换合并为一条消息，按服务器名称记录）
+    private final SwitchDebouncer<ProxiedPlayer, String> switchDebouncer;
     
     public BungeeCordAdapter(CustomJoinMessagePlugin plugin, Object platformInstance) {
         super(plugin, platformInstance);
         
         this.bungeePlugin = (Plugin) platformInstance;
         this.proxyServer = bungeePlugin.getProxy();
+        this.scheduler = new BungeeScheduler(proxyServer, bungeePlugin);
+        this.switchDebouncer = new SwitchDebouncer<>(scheduler, this::sendServerSwitchMessage);
         
         // 初始化状态追踪
         this.recentlyJoinedPlayers = ConcurrentHashMap.newKeySet();
         this.recentlyLeftPlayers = ConcurrentHashMap.newKeySet();
         
         // 初始化数据文件
-        this.gson = new Gson();
-        this.playersDataFile = new File(plugin.getDataDirectory().toFile(), "players.json");
+        // BungeeCord 的 players.json 一直以秒记录时间；写回在 I/O 线程上执行
+        this.playerDataStore = new PlayerDataStore(new File(plugin.getDataDirectory().toFile(), "players.json"),
+            TimeUnit.SECONDS, scheduler::runAsync);
     }
     
     @Override
@@ -71,11 +98,15 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
             // 注册事件监听器
             proxyServer.getPluginManager().registerListener(bungeePlugin, this);
             
+            // 以当前在线玩家初始化在线名册（支持热重载）
+            seedPlayerRoster();
+            
+            // 在 I/O 线程预先加载玩家数据，首次连接时不再在事件线程上读取文件
+            scheduler.runAsync(playerDataStore::open);
+            
             // 权限系统已在主插件中初始化，此处无需重复初始化
             
-            if (plugin.getConfigManager().getPluginConfig().isDebug()) {
-                logger.info("BungeeCord 适配器已启用");
-            }
+            LoggerUtil.verbose(Category.PLATFORM, "BungeeCord 适配器已启用");
             
         } catch (Exception e) {
             logger.error("BungeeCord 适配器启用失败: {}", e.getMessage(), e);
@@ -85,6 +116,13 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     @Override
     public void onDisable() {
         try {
+            plugin.getPlayerRoster().clear();
+            templateCache.clear();
+            switchDebouncer.clear();
+            // 停止欢迎分发和异步任务
+            shutdownScheduling();
+            // 写回尚未保存的玩家数据
+            playerDataStore.close();
             logger.info("BungeeCord 适配器已禁用");
         } catch (Exception e) {
             logger.error("BungeeCord 适配器禁用失败: {}", e.getMessage(), e);
@@ -95,6 +133,7 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     public void reload() {
         logger.info("重新加载 BungeeCord 适配器配置");
         PermissionUtil.reloadPermissions(plugin.getConfigManager().getPluginConfig());
+        templateCache.clear();
     }
     
     // ================================
@@ -108,11 +147,16 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     public void onPlayerLogin(PostLoginEvent event) {
         ProxiedPlayer player = event.getPlayer();
         
+        // 登录时尚未连接到子服务器，服务器由随后的 ServerSwitchEvent 补全
+        plugin.getPlayerRoster().join(player.getUniqueId(), player.getName(), null,
+            PermissionUtil.getPlayerPermissionGroup(player));
+        
         try {
             // 延迟处理，等待玩家完全连接
-            proxyServer.getScheduler().schedule(bungeePlugin, () -> {
-                handlePlayerJoinNetwork(player);
-            }, 100, java.util.concurrent.TimeUnit.MILLISECONDS);
+            runLaterTracked(() -> {
+                measured(PluginMetrics.CounterType.JOINS, PluginMetrics.HistogramType.JOIN_HANDLER,
+                    () -> handlePlayerJoinNetwork(player));
+            }, 100);
             
         } catch (Exception e) {
             logger.error("处理玩家加入网络失败: {}", e.getMessage(), e);
@@ -127,10 +171,16 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
         ProxiedPlayer player = event.getPlayer();
         
         try {
-            handlePlayerLeaveNetwork(player);
+            measured(PluginMetrics.CounterType.LEAVES, PluginMetrics.HistogramType.LEAVE_HANDLER,
+                () -> handlePlayerLeaveNetwork(player));
             
         } catch (Exception e) {
             logger.error("处理玩家离开网络失败: {}", e.getMessage(), e);
+        } finally {
+            // 离开消息格式化完成后再移出名册
+            plugin.getPlayerRoster().leave(player.getUniqueId());
+            cancelWelcome(player.getUniqueId());
+            switchDebouncer.cancel(player.getUniqueId());
         }
     }
     
@@ -141,10 +191,15 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     public void onServerSwitch(ServerSwitchEvent event) {
         ProxiedPlayer player = event.getPlayer();
         
+        if (player.getServer() != null) {
+            plugin.getPlayerRoster().switchServer(player.getUniqueId(), player.getServer().getInfo().getName());
+        }
+        
         try {
             // 如果玩家有前一个服务器，说明是切换而不是首次连接
             if (event.getFrom() != null) {
-                handleServerSwitch(player, event.getFrom(), event.getPlayer().getServer());
+                measured(PluginMetrics.CounterType.SWITCHES, PluginMetrics.HistogramType.SWITCH_HANDLER,
+                    () -> handleServerSwitch(player, event.getFrom(), event.getPlayer().getServer()));
             }
             
         } catch (Exception e) {
@@ -161,12 +216,16 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
      */
     private void handlePlayerJoinNetwork(ProxiedPlayer player) {
         try {
+            long detectStartNanos = StageTracer.stageStart();
             boolean isFirstTime = isFirstTimeJoin(player.getUniqueId());
+            StageTracer.stageEnd(StageTracer.Stage.FIRST_JOIN_DETECTION, detectStartNanos);
+            audit(isFirstTime ? AuditLog.Type.FIRST_JOIN : AuditLog.Type.JOIN, player.getUniqueId(), player.getName(),
+                null, player.getServer() != null ? player.getServer().getInfo().getName() : null);
             
             if (isFirstTime) {
                 // 首次加入网络
-                logger.info("新玩家 {} 首次加入服务器", player.getName());
-                recordPlayerJoin(player.getUniqueId(), player.getName());
+                LoggerUtil.verbose(Category.EVENTS, "新玩家 {} 首次加入服务器", player.getName());
+                playerDataStore.recordSeen(player.getUniqueId(), player.getName());
                 sendGlobalFirstJoinMessage(player);
                 
                 if (plugin.getConfigManager().getPluginConfig().isFirstTimeWelcomeEnabled()) {
@@ -179,16 +238,16 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
                 
                 if (welcomeEnabled) {
                     // 回归玩家
-                    logger.info("回归玩家 {} 重新加入服务器", player.getName());
+                    LoggerUtil.verbose(Category.EVENTS, "回归玩家 {} 重新加入服务器", player.getName());
                     sendGlobalReturningMessage(player);
                     sendWelcomeMessageToPlayer(player, "returning");
                 } else {
                     // 普通加入
-                    logger.info("玩家 {} 加入了服务器", player.getName());
+                    LoggerUtil.verbose(Category.EVENTS, "玩家 {} 加入了服务器", player.getName());
                     sendGlobalJoinMessage(player);
                 }
                 
-                updatePlayerLastSeen(player.getUniqueId(), player.getName());
+                playerDataStore.recordSeen(player.getUniqueId(), player.getName());
             }
             
         } catch (Exception e) {
@@ -201,9 +260,10 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
      */
     private void handlePlayerLeaveNetwork(ProxiedPlayer player) {
         try {
-            updatePlayerLastSeen(player.getUniqueId(), player.getName());
+            auditLeave(player.getUniqueId(), player.getName());
+            playerDataStore.recordSeen(player.getUniqueId(), player.getName());
             sendGlobalLeaveMessage(player);
-            logger.info("玩家 {} 离开了服务器", player.getName());
+            LoggerUtil.verbose(Category.EVENTS, "玩家 {} 离开了服务器", player.getName());
             
         } catch (Exception e) {
             logger.error("处理玩家离开网络失败: {}", e.getMessage(), e);
@@ -216,9 +276,14 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     private void handleServerSwitch(ProxiedPlayer player, net.md_5.bungee.api.config.ServerInfo from, 
                                   net.md_5.bungee.api.connection.Server to) {
         try {
+            audit(AuditLog.Type.SWITCH, player.getUniqueId(), player.getName(), from.getName(), to.getInfo().getName());
+            
+            // 防抖窗口内的连续切换合并为一条消息
             if (plugin.getConfigManager().getPluginConfig().isServerSwitchEnabled()) {
-                sendServerSwitchMessage(player, from.getName(), to.getInfo().getName());
-                logger.info("玩家 {} 从 {} 切换到 {}", player.getName(), from.getName(), to.getInfo().getName());
+                switchDebouncer.submit(player.getUniqueId(), player, from.getName(), to.getInfo().getName(),
+                    plugin.getConfigManager().getPluginConfig().getServerSwitchDebounceMillis());
+                LoggerUtil.verbose(Category.EVENTS, "玩家 {} 从 {} 切换到 {}",
+                    player.getName(), from.getName(), to.getInfo().getName());
             }
             
         } catch (Exception e) {
@@ -237,6 +302,7 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
                 ProxiedPlayer proxiedPlayer = (ProxiedPlayer) player;
                 BaseComponent[] components = convertToBaseComponent(message);
                 proxiedPlayer.sendMessage(components);
+                metrics.increment(PluginMetrics.CounterType.MESSAGES_SENT);
             }
         } catch (Exception e) {
             logger.error("发送玩家消息失败: {}", e.getMessage(), e);
@@ -246,10 +312,19 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     @Override
     public void sendMessageToAll(String message) {
         try {
-            BaseComponent[] components = convertToBaseComponent(message);
-            for (ProxiedPlayer player : proxyServer.getPlayers()) {
-                player.sendMessage(components);
+            int sent = 0;
+            Set<String> viewerKeys = viewerPlaceholders.getReferencedKeys(message);
+            if (viewerKeys.isEmpty()) {
+                sent = fanOut(convertToBaseComponent(message), proxyServer.getPlayers());
+            } else {
+                // 包含观看者占位符：每种取值组合转换一次
+                for (ViewerPlaceholders.Group<ProxiedPlayer> viewers
+                        : viewerPlaceholders.group(viewerKeys, proxyServer.getPlayers(), this::toViewer)) {
+                    String personalized = viewers.bind(UnaryOperator.identity()).apply(message);
+                    sent += fanOut(convertToBaseComponent(personalized), viewers.getMembers());
+                }
             }
+            metrics.recordBroadcast(sent);
         } catch (Exception e) {
             logger.error("发送全局消息失败: {}", e.getMessage(), e);
         }
@@ -275,22 +350,27 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
      * 支持基础的MiniMessage颜色格式
      */
     private BaseComponent[] convertToBaseComponent(String message) {
+        return toBaseComponents(convertBasicMiniMessageToBungee(message));
+    }
+    
+    /**
+     * 将已转换为颜色代码的消息解析为 BaseComponent
+     */
+    private BaseComponent[] toBaseComponents(String legacyMessage) {
         try {
-            // 简单的MiniMessage颜色代码转换
-            String converted = convertBasicMiniMessageToBungee(message);
-            return TextComponent.fromLegacyText(converted);
+            return TextComponent.fromLegacyText(legacyMessage);
         } catch (Exception e) {
             // 如果转换失败，使用简单文本组件
             logger.warn("消息转换失败，使用简单文本: {}", e.getMessage());
-            return new BaseComponent[]{new TextComponent(message)};
+            return new BaseComponent[]{new TextComponent(legacyMessage)};
         }
     }
     
     /**
      * 将基础的MiniMessage格式转换为BungeeCord颜色代码
-     * 支持常用的颜色标签
+     * 支持常用的颜色标签（包级可见，供基准测试使用）
      */
-    private String convertBasicMiniMessageToBungee(String message) {
+    static String convertBasicMiniMessageToBungee(String message) {
         // 基础颜色转换映射
         message = message.replace("<black>", ChatColor.BLACK.toString());
         message = message.replace("<dark_blue>", ChatColor.DARK_BLUE.toString());
@@ -323,17 +403,107 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
         return message;
     }
     
+    /**
+     * 按语言分组广播（每种语言只格式化、转换一次）
+     * 
+     * 颜色标签按模板转换一次并缓存，广播时只在转换后的模板上替换占位符。
+     * 模板引用观看者占位符时，语言组内再按观看者作用域细分，每种取值组合格式化一次
+     * 
+     * @param templateKey 消息类别与类型（用于 JFR 事件），例如 join.first-time
+     * @param recipients 接收者
+     * @param templates 消息包语言 -> 原始模板，返回空表示该语言不发送
+     * @param formatter 占位符格式化
+     */
+    private void broadcastLocalized(String templateKey, Collection<ProxiedPlayer> recipients,
+                                    Function<String, String> templates, UnaryOperator<String> formatter) {
+        FlightEvents.Broadcast flightEvent = new FlightEvents.Broadcast();
+        flightEvent.begin();
+        int sent = 0;
+        Map<String, List<ProxiedPlayer>> groups = groupByLanguage(recipients, ProxiedPlayer::getLocale);
+        for (Map.Entry<String, List<ProxiedPlayer>> group : groups.entrySet()) {
+            long renderStartNanos = System.nanoTime();
+            String template = templates.apply(group.getKey());
+            if (template == null || template.trim().isEmpty()) {
+                continue;
+            }
+            
+            Set<String> viewerKeys = viewerPlaceholders.getReferencedKeys(template);
+            if (viewerKeys.isEmpty()) {
+                sent += fanOut(renderComponents(template, formatter, renderStartNanos), group.getValue());
+            } else {
+                for (ViewerPlaceholders.Group<ProxiedPlayer> viewers
+                        : viewerPlaceholders.group(viewerKeys, group.getValue(), this::toViewer)) {
+                    sent += fanOut(renderComponents(template, viewers.bind(formatter), renderStartNanos),
+                        viewers.getMembers());
+                    renderStartNanos = System.nanoTime();
+                }
+            }
+        }
+        metrics.recordBroadcast(sent);
+        commitBroadcastEvent(flightEvent, templateKey, sent, groups.size());
+    }
+    
+    /**
+     * 渲染模板：在缓存的转换结果上替换占位符
+     */
+    private BaseComponent[] renderComponents(String template, UnaryOperator<String> formatter,
+                                             long renderStartNanos) {
+        long buildStartNanos = StageTracer.stageStart();
+        String converted = templateCache.get(template, BungeeCordAdapter::convertBasicMiniMessageToBungee);
+        String message = formatter.apply(converted);
+        if (message.indexOf('<') >= 0) {
+            // 占位符的值本身包含颜色标签
+            message = convertBasicMiniMessageToBungee(message);
+        }
+        BaseComponent[] components = toBaseComponents(message);
+        StageTracer.stageEnd(StageTracer.Stage.COMPONENT_BUILD, buildStartNanos);
+        metrics.recordSince(PluginMetrics.HistogramType.TEMPLATE_RENDER, renderStartNanos);
+        return components;
+    }
+    
+    /**
+     * 玩家 -> 观看者信息
+     */
+    private ViewerPlaceholders.Viewer toViewer(ProxiedPlayer player) {
+        return new ViewerPlaceholders.Viewer(player.getUniqueId(), player.getName(), player.getLocale());
+    }
+    
+    /**
+     * 发送同一组组件给一组玩家
+     */
+    private int fanOut(BaseComponent[] components, Collection<ProxiedPlayer> recipients) {
+        long fanOutStartNanos = StageTracer.stageStart();
+        for (ProxiedPlayer recipient : recipients) {
+            recipient.sendMessage(components);
+        }
+        StageTracer.stageEnd(StageTracer.Stage.FAN_OUT, fanOutStartNanos);
+        return recipients.size();
+    }
+    
+    /**
+     * 获取除指定玩家外的所有在线玩家
+     */
+    private List<ProxiedPlayer> getOtherPlayers(ProxiedPlayer player) {
+        List<ProxiedPlayer> otherPlayers = new ArrayList<>();
+        for (ProxiedPlayer otherPlayer : proxyServer.getPlayers()) {
+            if (!otherPlayer.getUniqueId().equals(player.getUniqueId())) {
+                otherPlayers.add(otherPlayer);
+            }
+        }
+        return otherPlayers;
+    }
+    
     /**
      * 发送全局加入消息
      */
     private void sendGlobalJoinMessage(ProxiedPlayer player) {
         try {
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-            String messageTemplate = plugin.getConfigManager().getMessageConfig().getJoinMessage(permissionGroup, "default");
-            String formattedMessage = plugin.getConfigManager().getMessageConfig()
-                .formatMessage(messageTemplate, player.getName());
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
             
-            sendMessageToAll(formattedMessage);
+            broadcastLocalized("join.default", proxyServer.getPlayers(),
+                language -> messageConfig.getJoinMessage(permissionGroup, "default", language),
+                text -> messageConfig.formatMessage(text, player.getName()));
             
         } catch (Exception e) {
             logger.error("发送全局加入消息失败: {}", e.getMessage(), e);
@@ -346,18 +516,11 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     private void sendGlobalFirstJoinMessage(ProxiedPlayer player) {
         try {
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-            String messageTemplate = plugin.getConfigManager().getMessageConfig().getJoinMessage(permissionGroup, "first-time");
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
             
-            if (messageTemplate != null && !messageTemplate.isEmpty()) {
-                String formattedMessage = plugin.getConfigManager().getMessageConfig()
-                    .formatMessage(messageTemplate, player.getName());
-                
-                for (ProxiedPlayer otherPlayer : proxyServer.getPlayers()) {
-                    if (!otherPlayer.getUniqueId().equals(player.getUniqueId())) {
-                        sendMessageToPlayer(otherPlayer, formattedMessage);
-                    }
-                }
-            }
+            broadcastLocalized("join.first-time", getOtherPlayers(player),
+                language -> messageConfig.getJoinMessage(permissionGroup, "first-time", language),
+                text -> messageConfig.formatMessage(text, player.getName()));
             
         } catch (Exception e) {
             logger.error("发送首次加入消息失败: {}", e.getMessage(), e);
@@ -370,18 +533,11 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     private void sendGlobalReturningMessage(ProxiedPlayer player) {
         try {
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-            String messageTemplate = plugin.getConfigManager().getMessageConfig().getJoinMessage(permissionGroup, "returning");
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
             
-            if (messageTemplate != null && !messageTemplate.isEmpty()) {
-                String formattedMessage = plugin.getConfigManager().getMessageConfig()
-                    .formatMessage(messageTemplate, player.getName());
-                
-                for (ProxiedPlayer otherPlayer : proxyServer.getPlayers()) {
-                    if (!otherPlayer.getUniqueId().equals(player.getUniqueId())) {
-                        sendMessageToPlayer(otherPlayer, formattedMessage);
-                    }
-                }
-            }
+            broadcastLocalized("join.returning", getOtherPlayers(player),
+                language -> messageConfig.getJoinMessage(permissionGroup, "returning", language),
+                text -> messageConfig.formatMessage(text, player.getName()));
             
         } catch (Exception e) {
             logger.error("发送回归加入消息失败: {}", e.getMessage(), e);
@@ -394,11 +550,11 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     private void sendGlobalLeaveMessage(ProxiedPlayer player) {
         try {
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-            String messageTemplate = plugin.getConfigManager().getMessageConfig().getLeaveMessage(permissionGroup, "default");
-            String formattedMessage = plugin.getConfigManager().getMessageConfig()
-                .formatMessage(messageTemplate, player.getName());
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
             
-            sendMessageToAll(formattedMessage);
+            broadcastLocalized("leave.default", proxyServer.getPlayers(),
+                language -> messageConfig.getLeaveMessage(permissionGroup, "default", language),
+                text -> messageConfig.formatMessage(text, player.getName()));
             
         } catch (Exception e) {
             logger.error("发送全局离开消息失败: {}", e.getMessage(), e);
@@ -411,35 +567,50 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     private void sendServerSwitchMessage(ProxiedPlayer player, String fromServer, String toServer) {
         try {
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-            String messageTemplate = plugin.getConfigManager().getMessageConfig().getServerSwitchMessage(permissionGroup, "default");
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
             
             // 获取服务器别名
             String fromServerAlias = plugin.getConfigManager().getPluginConfig().getServerAlias(fromServer);
             String toServerAlias = plugin.getConfigManager().getPluginConfig().getServerAlias(toServer);
             
-            // 格式化消息（使用服务器别名）
-            String formattedMessage = plugin.getConfigManager().getMessageConfig()
-                .formatSwitchMessage(messageTemplate, player.getName(), fromServerAlias, toServerAlias);
-            
+            Collection<ProxiedPlayer> recipients;
             if (plugin.getConfigManager().getPluginConfig().isServerSwitchShowToAll()) {
-                sendMessageToAll(formattedMessage);
+                recipients = proxyServer.getPlayers();
             } else {
-                sendMessageToServer(fromServer, formattedMessage);
-                sendMessageToServer(toServer, formattedMessage);
+                recipients = new ArrayList<>();
+                addServerPlayers(recipients, fromServer);
+                addServerPlayers(recipients, toServer);
             }
             
+            // 按语言格式化消息（使用服务器别名）
+            broadcastLocalized("server-switch.default", recipients,
+                language -> messageConfig.getServerSwitchMessage(permissionGroup, "default", language),
+                text -> messageConfig.formatSwitchMessage(text, player.getName(), fromServerAlias, toServerAlias));
+            
         } catch (Exception e) {
             logger.error("发送服务器切换消息失败: {}", e.getMessage(), e);
         }
     }
     
+    /**
+     * 将指定服务器上的玩家加入接收者列表
+     */
+    private void addServerPlayers(Collection<ProxiedPlayer> recipients, String serverName) {
+        net.md_5.bungee.api.config.ServerInfo server = proxyServer.getServerInfo(serverName);
+        if (server != null) {
+            recipients.addAll(server.getPlayers());
+        }
+    }
+    
     /**
      * 发送欢迎消息给玩家
      */
     private void sendWelcomeMessageToPlayer(ProxiedPlayer player, String messageType) {
         try {
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-            String welcomeTemplate = plugin.getConfigManager().getMessageConfig().getWelcomeMessage(permissionGroup, messageType);
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+            String language = messageConfig.resolveLanguage(player.getLocale());
+            String welcomeTemplate = messageConfig.getWelcomeMessage(permissionGroup, messageType, language);
             
             if (welcomeTemplate == null || welcomeTemplate.trim().isEmpty()) {
                 return;
@@ -447,14 +618,10 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
             
             int delay = plugin.getConfigManager().getPluginConfig().getFirstTimeWelcomeDelay();
             
-            proxyServer.getScheduler().schedule(bungeePlugin, () -> {
-                try {
-                    String formattedMessage = formatWelcomeMessage(welcomeTemplate, player, messageType);
-                    sendMessageToPlayer(player, formattedMessage);
-                } catch (Exception e) {
-                    logger.error("发送欢迎消息失败: {}", e.getMessage(), e);
-                }
-            }, delay, java.util.concurrent.TimeUnit.MILLISECONDS);
+            scheduleWelcome(player.getUniqueId(), () -> {
+                String formattedMessage = formatWelcomeMessage(welcomeTemplate, player, messageType, language);
+                sendMessageToPlayer(player, formattedMessage);
+            }, delay);
             
         } catch (Exception e) {
             logger.error("发送欢迎消息失败: {}", e.getMessage(), e);
@@ -464,22 +631,15 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     /**
      * 格式化欢迎消息（支持 BungeeCord 特定占位符）
      */
-    private String formatWelcomeMessage(String template, ProxiedPlayer player, String messageType) {
+    private String formatWelcomeMessage(String template, ProxiedPlayer player, String messageType, String language) {
         try {
             String formatted = plugin.getConfigManager().getMessageConfig()
                 .formatMessage(template, player.getName());
             
-            // BungeeCord 环境特定占位符
-            int onlineCount = proxyServer.getOnlineCount();
-            @SuppressWarnings("deprecation")
-            int maxPlayers = proxyServer.getConfig().getPlayerLimit();
-            formatted = formatted.replace("{online_count}", String.valueOf(onlineCount));
-            formatted = formatted.replace("{max_players}", String.valueOf(maxPlayers));
-            
             // {last_seen} 占位符（仅回归玩家有效）
             if ("returning".equals(messageType)) {
-                String lastSeenTime = getFormattedLastSeenTime(player.getUniqueId());
-                formatted = formatted.replace("{last_seen}", lastSeenTime);
+                formatted = replaceLastSeenTime(formatted, player.getUniqueId(),
+                    plugin.getConfigManager().getMessageConfig().toLocale(language));
             } else {
                 formatted = formatted.replace("{last_seen}", "");
             }
@@ -500,14 +660,14 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
      * 检查是否为首次加入
      */
     private boolean isFirstTimeJoin(UUID playerId) {
-        return getPlayerLastSeen(playerId) == 0;
+        return playerDataStore.getLastSeenSeconds(playerId) == 0;
     }
     
     /**
      * 检查是否应该显示回归消息
      */
     private boolean shouldShowReturningMessage(UUID playerId) {
-        long lastSeen = getPlayerLastSeen(playerId);
+        long lastSeen = playerDataStore.getLastSeenSeconds(playerId);
         if (lastSeen == 0) return false;
         
         long threshold = plugin.getConfigManager().getPluginConfig().getReturningThreshold();
@@ -517,120 +677,63 @@ public class BungeeCordAdapter extends AbstractPlatformAdapter implements Listen
     }
     
     /**
-     * 记录玩家加入
-     */
-    private void recordPlayerJoin(UUID playerId, String playerName) {
-        updatePlayerLastSeen(playerId, playerName);
-    }
-    
-    /**
-     * 更新玩家最后在线时间
+     * 将消息中的 {last_seen} 替换为最后在线时间
      */
-    private void updatePlayerLastSeen(UUID playerId, String playerName) {
-        try {
-            JsonObject playersData = loadPlayersData();
-            JsonObject playerData = new JsonObject();
-            playerData.addProperty("name", playerName);
-            playerData.addProperty("lastSeen", Instant.now().getEpochSecond());
-            
-            playersData.add(playerId.toString(), playerData);
-            savePlayersData(playersData);
-            
-        } catch (Exception e) {
-            logger.error("更新玩家数据失败: {}", e.getMessage(), e);
-        }
+    private String replaceLastSeenTime(String message, UUID playerId, Locale locale) {
+        long lastSeen = playerDataStore.getLastSeenSeconds(playerId);
+        if (lastSeen == 0) return message.replace("{last_seen}", "未知");
+        
+        long secondsAgo = Instant.now().getEpochSecond() - lastSeen;
+        return TimeUtil.replaceTimeAgo(message, "{last_seen}", secondsAgo, locale);
     }
     
-    /**
-     * 获取玩家最后在线时间
-     */
-    private long getPlayerLastSeen(UUID playerId) {
-        try {
-            JsonObject playersData = loadPlayersData();
-            if (playersData.has(playerId.toString())) {
-                JsonObject playerData = playersData.getAsJsonObject(playerId.toString());
-                return playerData.get("lastSeen").getAsLong();
-            }
-            return 0;
-            
-        } catch (Exception e) {
-            logger.error("读取玩家最后见面时间失败: {}", e.getMessage(), e);
-            return 0;
-        }
+    @Override
+    public void registerCommunicationChannel() {
+        // 注册 BungeeCord 通信通道
+        String channel = plugin.getConfigManager().getPluginConfig().getChannel();
+        proxyServer.registerChannel(channel);
+        logger.debug("BungeeCord 通信通道已注册: {}", channel);
     }
     
-    /**
-     * 格式化最后在线时间
-     */
-    private String getFormattedLastSeenTime(UUID playerId) {
-        long lastSeen = getPlayerLastSeen(playerId);
-        if (lastSeen == 0) return "未知";
-        
-        long secondsAgo = Instant.now().getEpochSecond() - lastSeen;
-        return formatTimeAgo(secondsAgo);
-    }
+
     
-    /**
-     * 格式化时间间隔
-     */
-    private String formatTimeAgo(long seconds) {
-        if (seconds < 60) return seconds + "秒前";
-        if (seconds < 3600) return (seconds / 60) + "分钟前";
-        if (seconds < 86400) return (seconds / 3600) + "小时前";
-        return (seconds / 86400) + "天前";
+    @Override
+    public int getOnlinePlayerCount() {
+        return plugin.getPlayerRoster().getOnlineCount();
     }
     
-    /**
-     * 加载玩家数据
-     */
-    private JsonObject loadPlayersData() {
-        try {
-            if (!playersDataFile.exists()) {
-                return new JsonObject();
-            }
-            
-            String content = new String(Files.readAllBytes(playersDataFile.toPath()));
-            return JsonParser.parseString(content).getAsJsonObject();
-            
-        } catch (Exception e) {
-            logger.error("加载玩家数据失败: {}", e.getMessage(), e);
-            return new JsonObject();
-        }
+    @Override
+    public boolean isPlayerOnline(String playerName) {
+        return plugin.getPlayerRoster().isOnline(playerName);
     }
     
     /**
-     * 保存玩家数据
+     * 以当前在线玩家初始化在线名册
      */
-    private void savePlayersData(JsonObject playersData) {
-        try {
-            playersDataFile.getParentFile().mkdirs();
-            try (FileWriter writer = new FileWriter(playersDataFile)) {
-                gson.toJson(playersData, writer);
-            }
-            
-        } catch (Exception e) {
-            logger.error("保存玩家数据失败: {}", e.getMessage(), e);
+    private void seedPlayerRoster() {
+        for (ProxiedPlayer onlinePlayer : proxyServer.getPlayers()) {
+            String serverName = onlinePlayer.getServer() != null
+                ? onlinePlayer.getServer().getInfo().getName()
+                : null;
+            plugin.getPlayerRoster().join(onlinePlayer.getUniqueId(), onlinePlayer.getName(),
+                serverName, PermissionUtil.getPlayerPermissionGroup(onlinePlayer));
         }
     }
     
     @Override
-    public void registerCommunicationChannel() {
-        // 注册 BungeeCord 通信通道
-        String channel = plugin.getConfigManager().getPluginConfig().getChannel();
-        proxyServer.registerChannel(channel);
-        logger.debug("BungeeCord 通信通道已注册: {}", channel);
+    @SuppressWarnings("deprecation")
+    public int getMaxPlayers() {
+        return proxyServer.getConfig().getPlayerLimit();
     }
     
-
-    
     @Override
-    public int getOnlinePlayerCount() {
-        return proxyServer.getOnlineCount();
+    public String getServerName() {
+        return proxyServer.getName();
     }
     
     @Override
-    public boolean isPlayerOnline(String playerName) {
-        return proxyServer.getPlayer(playerName) != null;
+    public PlatformScheduler getScheduler() {
+        return scheduler;
     }
     
     @Override
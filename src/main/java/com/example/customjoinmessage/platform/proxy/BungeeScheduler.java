@@ -0,0 +1,38 @@
+package com.example.customjoinmessage.platform.proxy;
+
+import com.example.customjoinmessage.platform.AbstractPlatformScheduler;
+import net.md_5.bungee.api.ProxyServer;
+import net.md_5.bungee.api.plugin.Plugin;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BungeeCord 调度器：延迟任务交给 BungeeCord 调度器，代理端没有按玩家划分的线程
+ */
+final class BungeeScheduler extends AbstractPlatformScheduler {
+
+    private final ProxyServer proxyServer;
+    private final Plugin bungeePlugin;
+
+    BungeeScheduler(ProxyServer proxyServer, Plugin bungeePlugin) {
+        this.proxyServer = proxyServer;
+        this.bungeePlugin = bungeePlugin;
+    }
+
+    @Override
+    public void runLater(Runnable task, long delayMillis) {
+        proxyServer.getScheduler().schedule(bungeePlugin, task, Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void runForPlayer(UUID playerId, Runnable task, Runnable retired, long delayMillis) {
+        runLater(() -> {
+            if (proxyServer.getPlayer(playerId) != null) {
+                task.run();
+            } else {
+                retired.run();
+            }
+        }, delayMillis);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.customjoinmessage.platform.proxy;
+
+import com.example.customjoinmessage.placeholder.ExternalPlaceholderSource;
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * MiniPlaceholders 占位符来源：{ext:名称} 解析为 <名称> 标签
+ *
+ * 解析结果重新序列化为 MiniMessage 文本，与消息模板一起解析，保留颜色和格式。
+ * 通过反射调用，未安装 MiniPlaceholders 时不加载任何相关类
+ */
+final class MiniPlaceholdersSource implements ExternalPlaceholderSource {
+
+    private final ProxyServer proxyServer;
+    private final Method audienceGlobalPlaceholders;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
+
+    private MiniPlaceholdersSource(ProxyServer proxyServer, Method audienceGlobalPlaceholders) {
+        this.proxyServer = proxyServer;
+        this.audienceGlobalPlaceholders = audienceGlobalPlaceholders;
+    }
+
+    /**
+     * 检测 MiniPlaceholders，未加载时返回 null
+     */
+    static MiniPlaceholdersSource detect(ProxyServer proxyServer) throws ReflectiveOperationException {
+        if (!proxyServer.getPluginManager().isLoaded("miniplaceholders")) {
+            return null;
+        }
+        Class<?> api = Class.forName("io.github.miniplaceholders.api.MiniPlaceholders");
+        return new MiniPlaceholdersSource(proxyServer, api.getMethod("getAudienceGlobalPlaceholders", Audience.class));
+    }
+
+    @Override
+    public String getName() {
+        return "MiniPlaceholders";
+    }
+
+    @Override
+    public String resolve(UUID playerId, String name) {
+        Player player = proxyServer.getPlayer(playerId).orElse(null);
+        if (player == null) {
+            return null;
+        }
+
+        try {
+            TagResolver resolver = (TagResolver) audienceGlobalPlaceholders.invoke(null, player);
+            if (!resolver.has(name)) {
+                return null;
+            }
+            return miniMessage.serialize(miniMessage.deserialize("<" + name + ">", resolver));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+}
@@ -1,9 +1,24 @@
 package com.example.customjoinmessage.platform.proxy;
 
 
+import com.example.customjoinmessage.config.MessageConfig;
+import com.example.customjoinmessage.core.ComponentTemplate;
 import com.example.customjoinmessage.core.CustomJoinMessagePlugin;
+import com.example.customjoinmessage.core.FlightEvents;
+import com.example.customjoinmessage.core.PluginMetrics;
+import com.example.customjoinmessage.core.StageTracer;
+import com.example.customjoinmessage.core.TemplateCache;
+import com.example.customjoinmessage.placeholder.ExternalPlaceholderSource;
+import com.example.customjoinmessage.placeholder.ViewerPlaceholders;
 import com.example.customjoinmessage.platform.AbstractPlatformAdapter;
+import com.example.customjoinmessage.platform.PlatformScheduler;
+import com.example.customjoinmessage.platform.SwitchDebouncer;
+import com.example.customjoinmessage.storage.AuditLog;
+import com.example.customjoinmessage.storage.PlayerDataStore;
+import com.example.customjoinmessage.utils.LoggerUtil;
+import com.example.customjoinmessage.utils.LoggerUtil.Category;
 import com.example.customjoinmessage.utils.PermissionUtil;
+import com.example.customjoinmessage.utils.TimeUtil;
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteStreams;
 
@@ -20,19 +35,18 @@ import com.velocitypowered.api.proxy.server.RegisteredServer;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.io.File;
 
-import java.io.FileWriter;
-import java.nio.file.Files;
-
-import java.time.Instant;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-
 /**
  * Velocity 代理平台适配器
  * 
@@ -45,13 +59,21 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     private final MiniMessage miniMessage;
     private final MinecraftChannelIdentifier channelIdentifier;
     
+    // 按模板内容缓存的预编译模板（编译与语言无关，相同模板共用一个实例）
+    private final TemplateCache<ComponentTemplate> templateCache = new TemplateCache<>();
+    
     // 玩家状态追踪
     private final Set<UUID> recentlyJoinedPlayers;
     private final Set<UUID> recentlyLeftPlayers;
     
     // 持久化玩家数据
-    private final File playerDataFile;
-    private final Gson gson;
+    private final PlayerDataStore playerDataStore;
+    
+    // 任务调度器（玩家数据读写在虚拟线程上执行）
+    private final VelocityScheduler scheduler;
+    
+    // 切换消息防抖（连续切换合并为一条消息）
+    private final SwitchDebouncer<Player, RegisteredServer> switchDebouncer;
     
     public VelocityAdapter(CustomJoinMessagePlugin plugin, Object platformInstance) {
         super(plugin, platformInstance);
@@ -66,6 +88,8 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
                 (platformInstance != null ? platformInstance.getClass().getSimpleName() : "null"));
         }
         
+        this.scheduler = new VelocityScheduler(proxyServer, platformInstance);
+        this.switchDebouncer = new SwitchDebouncer<>(scheduler, this::sendServerSwitchMessage);
         this.miniMessage = MiniMessage.miniMessage();
         
         // 创建通信通道标识符（分离namespace和key以避免冒号问题）
@@ -76,8 +100,8 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
         this.recentlyLeftPlayers = ConcurrentHashMap.newKeySet();
         
         // 初始化持久化数据
-        this.gson = new Gson();
-        this.playerDataFile = new File(plugin.getDataFolder(), "players.json");
+        this.playerDataStore = new PlayerDataStore(new File(plugin.getDataFolder(), "players.json"),
+            TimeUnit.MILLISECONDS, scheduler::runAsync);
         
         // 确保数据目录存在
         if (!plugin.getDataFolder().exists()) {
@@ -92,6 +116,15 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
         // 注册事件监听器
         proxyServer.getEventManager().register(platformInstance, this);
         
+        // 以当前在线玩家初始化在线名册（支持热重载）
+        seedPlayerRoster();
+        
+        // 检测 MiniPlaceholders
+        enableExternalPlaceholders();
+        
+        // 在 I/O 线程预先加载玩家数据，首次加入时不再在事件线程上读取文件
+        scheduler.runAsync(playerDataStore::open);
+        
         // 根据模式执行不同逻辑
         switch (plugin.getPluginMode()) {
             case PROXY_MASTER:
@@ -116,6 +149,16 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
         // 清理玩家追踪
         recentlyJoinedPlayers.clear();
         recentlyLeftPlayers.clear();
+        plugin.getPlayerRoster().clear();
+        templateCache.clear();
+        disableExternalPlaceholders();
+        
+        // 停止欢迎分发和异步任务
+        switchDebouncer.clear();
+        shutdownScheduling();
+        
+        // 写回尚未保存的玩家数据
+        playerDataStore.close();
         
         // 静默禁用完成
     }
@@ -123,7 +166,8 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     @Override
     public void reload() {
         // 静默重新加载
-        // Velocity适配器无需特殊重载逻辑
+        // 消息模板可能已变化，丢弃已渲染的组件
+        templateCache.clear();
     }
     
     @Override
@@ -149,39 +193,38 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
         RegisteredServer server = event.getServer();
         RegisteredServer previousServer = event.getPreviousServer().orElse(null);
         
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("服务器连接 - 玩家 {} 连接到服务器 {}", 
-                       player.getUsername(), server.getServerInfo().getName());
-        }
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("运行模式 - 当前插件模式: {}", plugin.getPluginMode());
+        // 更新在线名册（与消息发送模式无关）
+        if (previousServer == null) {
+            plugin.getPlayerRoster().join(player.getUniqueId(), player.getUsername(),
+                server.getServerInfo().getName(), PermissionUtil.getPlayerPermissionGroup(player));
+        } else {
+            plugin.getPlayerRoster().switchServer(player.getUniqueId(), server.getServerInfo().getName());
         }
         
+        LoggerUtil.verbose(Category.EVENTS, "服务器连接 - 玩家 {} 连接到服务器 {}",
+            player.getUsername(), server.getServerInfo().getName());
+        LoggerUtil.verbose(Category.EVENTS, "运行模式 - 当前插件模式: {}", plugin.getPluginMode());
+        
         // 🚨 关键修复：检查是否应该发送消息
         if (!plugin.getPluginMode().shouldSendCustomMessages()) {
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("跳过消息 - Velocity当前模式不发送自定义消息: {}", plugin.getPluginMode());
-            }
+            LoggerUtil.verbose(Category.EVENTS, "跳过消息 - Velocity当前模式不发送自定义消息: {}", plugin.getPluginMode());
             return;
         }
         
-        debug("玩家服务器连接: {} -> {}", player.getUsername(), server.getServerInfo().getName());
+        LoggerUtil.verbose(Category.EVENTS, "玩家服务器连接: {} -> {}",
+            player.getUsername(), server.getServerInfo().getName());
         
         if (previousServer == null) {
             // 玩家首次加入代理
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("首次加入网络 - {} 首次加入代理网络", player.getUsername());
-            }
-            handlePlayerJoinNetwork(player, server);
+            LoggerUtil.verbose(Category.EVENTS, "首次加入网络 - {} 首次加入代理网络", player.getUsername());
+            measured(PluginMetrics.CounterType.JOINS, PluginMetrics.HistogramType.JOIN_HANDLER,
+                () -> handlePlayerJoinNetwork(player, server));
         } else {
             // 玩家切换服务器
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("服务器切换 - {} 从 {} 切换到 {}", 
-                           player.getUsername(), 
-                           previousServer.getServerInfo().getName(),
-                           server.getServerInfo().getName());
-            }
-            handlePlayerSwitchServer(player, previousServer, server);
+            LoggerUtil.verbose(Category.EVENTS, "服务器切换 - {} 从 {} 切换到 {}",
+                player.getUsername(), previousServer.getServerInfo().getName(), server.getServerInfo().getName());
+            measured(PluginMetrics.CounterType.SWITCHES, PluginMetrics.HistogramType.SWITCH_HANDLER,
+                () -> handlePlayerSwitchServer(player, previousServer, server));
         }
     }
     
@@ -192,24 +235,26 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     public void onPlayerDisconnect(DisconnectEvent event) {
         Player player = event.getPlayer();
         
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("玩家离开 - {} 离开网络", player.getUsername());
-        }
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("运行模式 - 当前插件模式: {}", plugin.getPluginMode());
-        }
+        LoggerUtil.verbose(Category.EVENTS, "玩家离开 - {} 离开网络", player.getUsername());
+        LoggerUtil.verbose(Category.EVENTS, "运行模式 - 当前插件模式: {}", plugin.getPluginMode());
         
         // 🚨 关键修复：检查是否应该发送消息
         if (!plugin.getPluginMode().shouldSendCustomMessages()) {
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("跳过消息 - Velocity当前模式不发送自定义消息: {}", plugin.getPluginMode());
-            }
+            LoggerUtil.verbose(Category.EVENTS, "跳过消息 - Velocity当前模式不发送自定义消息: {}", plugin.getPluginMode());
+            plugin.getPlayerRoster().leave(player.getUniqueId());
             return;
         }
         
-        debug("玩家断开连接: {}", player.getUsername());
+        LoggerUtil.verbose(Category.EVENTS, "玩家断开连接: {}", player.getUsername());
         
-        handlePlayerLeaveNetwork(player);
+        measured(PluginMetrics.CounterType.LEAVES, PluginMetrics.HistogramType.LEAVE_HANDLER,
+            () -> handlePlayerLeaveNetwork(player));
+        
+        // 离开消息格式化完成后再移出名册
+        plugin.getPlayerRoster().leave(player.getUniqueId());
+        cancelWelcome(player.getUniqueId());
+        switchDebouncer.cancel(player.getUniqueId());
+        invalidatePlaceholders(player.getUniqueId());
     }
     
     /**
@@ -237,7 +282,7 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
                     break;
                     
                 default:
-                    verbose("收到未知消息类型: {}", messageType);
+                    LoggerUtil.verbose(Category.PLATFORM, "收到未知消息类型: {}", messageType);
                     break;
             }
             
@@ -260,7 +305,11 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             recentlyJoinedPlayers.add(player.getUniqueId());
             
             // 🔥 关键：判断是否是首次加入网络（而不是子服务器）
+            long detectStartNanos = StageTracer.stageStart();
             boolean isFirstTimeJoinNetwork = isFirstTimeJoinNetwork(player);
+            StageTracer.stageEnd(StageTracer.Stage.FIRST_JOIN_DETECTION, detectStartNanos);
+            audit(isFirstTimeJoinNetwork ? AuditLog.Type.FIRST_JOIN : AuditLog.Type.JOIN,
+                player.getUniqueId(), player.getUsername(), null, server.getServerInfo().getName());
             boolean joinEnabled = plugin.getConfigManager().getPluginConfig().isCustomJoinFormatEnabled();
             
             // 根据是否首次加入来判断欢迎消息是否启用
@@ -274,20 +323,17 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             
             // 🔥 新增：更新玩家最后见面时间（如果不是首次）
             if (!isFirstTimeJoinNetwork) {
-                updatePlayerLastSeen(player.getUniqueId(), player.getUsername());
+                playerDataStore.updateLastSeen(player.getUniqueId(), player.getUsername());
             }
             
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("配置检查 - 自定义加入格式启用: {}, 欢迎消息启用: {}", joinEnabled, welcomeEnabled);
-        }
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("首次检测 - {} 是否首次加入网络: {}", player.getUsername(), isFirstTimeJoinNetwork);
-        }
+            LoggerUtil.verbose(Category.MESSAGES, "配置检查 - 自定义加入格式启用: {}, 欢迎消息启用: {}", joinEnabled, welcomeEnabled);
+            LoggerUtil.verbose(Category.FIRST_JOIN, "首次检测 - {} 是否首次加入网络: {}",
+                player.getUsername(), isFirstTimeJoinNetwork);
             
             if (joinEnabled) {
                 if (isFirstTimeJoinNetwork) {
                     // 🎉 首次加入网络：发送加入消息和欢迎消息（如果启用）
-                    logger.info("新玩家 {} 首次加入服务器", player.getUsername());
+                    LoggerUtil.verbose(Category.EVENTS, "新玩家 {} 首次加入服务器", player.getUsername());
                     
                     // 📢 发送全局首次加入通知
                     sendGlobalFirstJoinMessage(player);
@@ -300,7 +346,7 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
                     // 🔄 非首次加入：检查是否为回归玩家，决定发送消息类型
                     if (welcomeEnabled) {
                         // 🏠 回归玩家：发送回归欢迎消息和全局回归通知
-                        logger.info("回归玩家 {} 重新加入服务器", player.getUsername());
+                        LoggerUtil.verbose(Category.EVENTS, "回归玩家 {} 重新加入服务器", player.getUsername());
                         
                         // 📢 发送全局回归通知（让其他玩家知道）
                         sendGlobalReturningMessage(player);
@@ -309,16 +355,19 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
                         sendWelcomeMessageToPlayer(player, "returning");
                     } else {
                         // 📢 普通加入：发送全局加入消息
-                        logger.info("玩家 {} 加入了服务器", player.getUsername());
+                        LoggerUtil.verbose(Category.EVENTS, "玩家 {} 加入了服务器", player.getUsername());
                     sendGlobalJoinMessage(player);
                 }
             }
         }
             
+            // 加入消息已同步解析所需的外部占位符，其余的在欢迎延迟期间异步预取
+            prefetchPlaceholders(player.getUniqueId());
+            
             // 清理追踪（延迟）
             schedulePlayerTracking(player.getUniqueId(), recentlyJoinedPlayers, 5000);
             
-            debug("已处理玩家加入网络: {}", player.getUsername());
+            LoggerUtil.verbose(Category.EVENTS, "已处理玩家加入网络: {}", player.getUsername());
             
         } catch (Exception e) {
             logger.error("处理玩家加入网络失败: {}", e.getMessage(), e);
@@ -330,15 +379,17 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
      */
     private void handlePlayerLeaveNetwork(Player player) {
         try {
+            auditLeave(player.getUniqueId(), player.getUsername());
+            
             // 添加到最近离开列表
             recentlyLeftPlayers.add(player.getUniqueId());
             
             // 🔥 新增：更新玩家最后见面时间
-            updatePlayerLastSeen(player.getUniqueId(), player.getUsername());
+            playerDataStore.updateLastSeen(player.getUniqueId(), player.getUsername());
             
             // 发送全局离开消息
             if (plugin.getConfigManager().getPluginConfig().isCustomLeaveFormatEnabled()) {
-                logger.info("玩家 {} 离开了服务器", player.getUsername());
+                LoggerUtil.verbose(Category.EVENTS, "玩家 {} 离开了服务器", player.getUsername());
                 sendGlobalLeaveMessage(player);
             }
             
@@ -346,7 +397,7 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             recentlyJoinedPlayers.remove(player.getUniqueId());
             schedulePlayerTracking(player.getUniqueId(), recentlyLeftPlayers, 5000);
             
-            debug("已处理玩家离开网络: {}", player.getUsername());
+            LoggerUtil.verbose(Category.EVENTS, "已处理玩家离开网络: {}", player.getUsername());
             
         } catch (Exception e) {
             logger.error("处理玩家离开网络失败: {}", e.getMessage(), e);
@@ -358,16 +409,18 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
      */
     private void handlePlayerSwitchServer(Player player, RegisteredServer from, RegisteredServer to) {
         try {
-            // 发送服务器切换消息
+            audit(AuditLog.Type.SWITCH, player.getUniqueId(), player.getUsername(),
+                from.getServerInfo().getName(), to.getServerInfo().getName());
+            
+            // 发送服务器切换消息（防抖窗口内的连续切换合并为一条）
             if (plugin.getConfigManager().getPluginConfig().isServerSwitchMessageEnabled()) {
-                logger.info("玩家 {} 从 {} 切换到 {}", 
-                           player.getUsername(), 
-                           from.getServerInfo().getName(), 
-                           to.getServerInfo().getName());
-                sendServerSwitchMessage(player, from, to);
+                LoggerUtil.verbose(Category.EVENTS, "玩家 {} 从 {} 切换到 {}",
+                    player.getUsername(), from.getServerInfo().getName(), to.getServerInfo().getName());
+                switchDebouncer.submit(player.getUniqueId(), player, from, to,
+                    plugin.getConfigManager().getPluginConfig().getServerSwitchDebounceMillis());
             }
             
-            debug("已处理玩家切换服务器: {} ({} -> {})", 
+            LoggerUtil.verbose(Category.EVENTS, "已处理玩家切换服务器: {} ({} -> {})", 
                 player.getUsername(), 
                 from.getServerInfo().getName(), 
                 to.getServerInfo().getName()
@@ -392,7 +445,7 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             data.readLong(); // 读取但不使用 UUID msb
             String serverName = data.readUTF();
             
-            verbose("收到后端玩家加入通知: {} (服务器: {})", playerName, serverName);
+            LoggerUtil.verbose(Category.PLATFORM, "收到后端玩家加入通知: {} (服务器: {})", playerName, serverName);
             
             // 这里可以添加额外的处理逻辑
             // 比如与全局消息系统的协调
@@ -412,7 +465,7 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             data.readLong(); // 读取但不使用 UUID msb
             String serverName = data.readUTF();
             
-            verbose("收到后端玩家离开通知: {} (服务器: {})", playerName, serverName);
+            LoggerUtil.verbose(Category.PLATFORM, "收到后端玩家离开通知: {} (服务器: {})", playerName, serverName);
             
             // 这里可以添加额外的处理逻辑
             
@@ -430,34 +483,17 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
      */
     private void sendGlobalJoinMessage(Player player) {
         try {
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("消息处理 - 开始处理玩家 {} 的加入消息", player.getUsername());
-        }
+            LoggerUtil.verbose(Category.MESSAGES, "消息处理 - 开始处理玩家 {} 的加入消息", player.getUsername());
             
             // 确定玩家权限组
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("权限组 - 玩家 {} 的权限组: {}", player.getUsername(), permissionGroup);
-        }
+            LoggerUtil.verbose(Category.MESSAGES, "权限组 - 玩家 {} 的权限组: {}", player.getUsername(), permissionGroup);
             
-            // 获取消息模板（使用权限组和默认类型）
-            String messageTemplate = plugin.getConfigManager().getMessageConfig().getJoinMessage(permissionGroup, "default");
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("消息模板 - 获取到模板: {}", messageTemplate);
-            }
-            
-            // 格式化消息
-            String formattedMessage = plugin.getConfigManager().getMessageConfig()
-                .formatMessage(messageTemplate, player.getUsername());
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("格式化 - 格式化后的消息: {}", formattedMessage);
-            }
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
             
             // 检查服务器数量
             int serverCount = proxyServer.getAllServers().size();
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("服务器 - 当前有 {} 个服务器", serverCount);
-            }
+            LoggerUtil.verbose(Category.MESSAGES, "服务器 - 当前有 {} 个服务器", serverCount);
             
             if (serverCount == 0) {
                 logger.warn("警告 - 没有可用的服务器来发送消息");
@@ -465,14 +501,13 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             }
             
             // 发送到所有服务器
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("开始广播 - 准备发送消息到所有服务器...");
-            }
-            sendMessageToAll(formattedMessage);
+            LoggerUtil.verbose(Category.BROADCAST, "开始广播 - 准备发送消息到所有服务器...");
+            // 按语言获取模板并格式化（每种语言一次）
+            broadcastLocalized("join.default", proxyServer.getAllPlayers(),
+                language -> messageConfig.getJoinMessage(permissionGroup, "default", language),
+                text -> messageConfig.formatMessage(text, player.getUsername()));
             
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("发送完成 - 已发送全局加入消息: {} ({})", player.getUsername(), permissionGroup);
-            }
+            LoggerUtil.verbose(Category.BROADCAST, "发送完成 - 已发送全局加入消息: {} ({})", player.getUsername(), permissionGroup);
             
         } catch (Exception e) {
             logger.error("发送全局加入消息失败: {}", e.getMessage(), e);
@@ -487,17 +522,13 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             // 确定玩家权限组
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
             
-            // 获取消息模板（使用权限组和默认类型）
-            String messageTemplate = plugin.getConfigManager().getMessageConfig().getLeaveMessage(permissionGroup, "default");
-            
-            // 格式化消息
-            String formattedMessage = plugin.getConfigManager().getMessageConfig()
-                .formatMessage(messageTemplate, player.getUsername());
-            
-            // 发送到所有服务器
-            sendMessageToAll(formattedMessage);
+            // 按语言获取模板并格式化，发送到所有服务器
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+            broadcastLocalized("leave.default", proxyServer.getAllPlayers(),
+                language -> messageConfig.getLeaveMessage(permissionGroup, "default", language),
+                text -> messageConfig.formatMessage(text, player.getUsername()));
             
-            debug("已发送全局离开消息: {} ({})", player.getUsername(), permissionGroup);
+            LoggerUtil.verbose(Category.BROADCAST, "已发送全局离开消息: {} ({})", player.getUsername(), permissionGroup);
             
         } catch (Exception e) {
             logger.error("发送全局离开消息失败: {}", e.getMessage(), e);
@@ -512,34 +543,29 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             // 确定玩家权限组
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
             
-            // 获取消息模板（使用权限组和默认类型）
-            String messageTemplate = plugin.getConfigManager().getMessageConfig().getServerSwitchMessage(permissionGroup, "default");
-            
             // 获取服务器别名
             String fromServerAlias = plugin.getConfigManager().getPluginConfig()
                 .getServerAlias(from.getServerInfo().getName());
             String toServerAlias = plugin.getConfigManager().getPluginConfig()
                 .getServerAlias(to.getServerInfo().getName());
             
-            // 格式化消息（使用服务器别名）
-            String formattedMessage = plugin.getConfigManager().getMessageConfig()
-                .formatSwitchMessage(
-                    messageTemplate, 
-                    player.getUsername(), 
-                    fromServerAlias, 
-                    toServerAlias
-                );
-            
             // 根据配置决定发送范围
+            Collection<Player> recipients;
             if (plugin.getConfigManager().getPluginConfig().isServerSwitchShowToAll()) {
-                sendMessageToAll(formattedMessage);
+                recipients = proxyServer.getAllPlayers();
             } else {
                 // 只发送给来源和目标服务器
-                sendMessageToServer(from.getServerInfo().getName(), formattedMessage);
-                sendMessageToServer(to.getServerInfo().getName(), formattedMessage);
+                recipients = new ArrayList<>(from.getPlayersConnected());
+                recipients.addAll(to.getPlayersConnected());
             }
             
-            debug("已发送服务器切换消息: {} ({}) ({} -> {})", 
+            // 按语言获取模板并格式化（使用服务器别名）
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+            broadcastLocalized("server-switch.default", recipients,
+                language -> messageConfig.getServerSwitchMessage(permissionGroup, "default", language),
+                text -> messageConfig.formatSwitchMessage(text, player.getUsername(), fromServerAlias, toServerAlias));
+            
+            LoggerUtil.verbose(Category.BROADCAST, "已发送服务器切换消息: {} ({}) ({} -> {})", 
                 player.getUsername(), 
                 permissionGroup,
                 from.getServerInfo().getName(), 
@@ -562,29 +588,21 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     private boolean isFirstTimeJoinNetwork(Player player) {
         // 检查配置是否启用首次加入功能
         if (!plugin.getConfigManager().getPluginConfig().isFirstJoinEnabled()) {
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("首次检测 - 首次加入功能已禁用");
-        }
+            LoggerUtil.verbose(Category.FIRST_JOIN, "首次检测 - 首次加入功能已禁用");
             return false;
         }
         
         UUID playerId = player.getUniqueId();
         String playerName = player.getUsername();
         
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("首次检测 - 开始检测 {} 是否首次加入网络", playerName);
-        }
+        LoggerUtil.verbose(Category.FIRST_JOIN, "首次检测 - 开始检测 {} 是否首次加入网络", playerName);
         
         // 🔥 步骤1：检查持久化数据
-        boolean hasPersistedRecord = hasPlayerRecord(playerId);
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("  持久化记录存在: {}", hasPersistedRecord);
-        }
+        boolean hasPersistedRecord = playerDataStore.hasRecord(playerId);
+        LoggerUtil.verbose(Category.FIRST_JOIN, "  持久化记录存在: {}", hasPersistedRecord);
         
         if (hasPersistedRecord) {
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("首次检测 - {} 在持久化数据中存在，不是首次加入", playerName);
-            }
+            LoggerUtil.verbose(Category.FIRST_JOIN, "首次检测 - {} 在持久化数据中存在，不是首次加入", playerName);
             return false;
         }
         
@@ -592,182 +610,25 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
         boolean recentlyJoined = recentlyJoinedPlayers.contains(playerId);
         boolean recentlyLeft = recentlyLeftPlayers.contains(playerId);
         
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("  最近加入列表中: {}", recentlyJoined);
-            logger.info("  最近离开列表中: {}", recentlyLeft);
-        }
+        LoggerUtil.verbose(Category.FIRST_JOIN, "  最近加入列表中: {}", recentlyJoined);
+        LoggerUtil.verbose(Category.FIRST_JOIN, "  最近离开列表中: {}", recentlyLeft);
         
         if (recentlyLeft) {
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("首次检测 - {} 在最近离开列表中，不是首次加入", playerName);
-            }
+            LoggerUtil.verbose(Category.FIRST_JOIN, "首次检测 - {} 在最近离开列表中，不是首次加入", playerName);
             return false;
         }
         
         // 🔥 步骤3：确认是首次加入，记录到持久化数据
         boolean isFirstTime = true;
         if (isFirstTime) {
-            savePlayerRecord(playerId, playerName);
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("持久化 - 已保存 {} 的首次加入记录", playerName);
-            }
+            playerDataStore.saveRecord(playerId, playerName);
+            LoggerUtil.verbose(Category.FIRST_JOIN, "持久化 - 已记录 {} 的首次加入", playerName);
         }
         
-        if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("首次检测 - {} 判断结果: {}", playerName, isFirstTime);
-        }
+        LoggerUtil.verbose(Category.FIRST_JOIN, "首次检测 - {} 判断结果: {}", playerName, isFirstTime);
         return isFirstTime;
     }
     
-    /**
-     * 检查玩家是否有持久化记录
-     */
-    private boolean hasPlayerRecord(UUID playerId) {
-        try {
-            if (!playerDataFile.exists()) {
-                if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("持久化 - 玩家数据文件不存在，创建新文件");
-        }
-                return false;
-            }
-            
-            String jsonContent = Files.readString(playerDataFile.toPath());
-            if (jsonContent.trim().isEmpty()) {
-                if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("持久化 - 玩家数据文件为空");
-            }
-                return false;
-            }
-            
-            JsonObject playersData = JsonParser.parseString(jsonContent).getAsJsonObject();
-            boolean hasRecord = playersData.has(playerId.toString());
-            
-            if (hasRecord) {
-                JsonObject playerData = playersData.getAsJsonObject(playerId.toString());
-                String name = playerData.get("name").getAsString();
-                long firstJoinTime = playerData.get("firstJoinTime").getAsLong();
-                
-                if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                    logger.info("持久化 - 找到 {} 的记录，首次加入时间: {}", 
-                               name, Instant.ofEpochMilli(firstJoinTime));
-                }
-            }
-            
-            return hasRecord;
-            
-        } catch (Exception e) {
-            logger.error("读取玩家数据失败: {}", e.getMessage(), e);
-            return false;
-        }
-    }
-    
-    /**
-     * 保存玩家记录到持久化文件
-     */
-    private void savePlayerRecord(UUID playerId, String playerName) {
-        try {
-            JsonObject playersData;
-            
-            // 读取现有数据
-            if (playerDataFile.exists() && playerDataFile.length() > 0) {
-                String jsonContent = Files.readString(playerDataFile.toPath());
-                if (!jsonContent.trim().isEmpty()) {
-                    playersData = JsonParser.parseString(jsonContent).getAsJsonObject();
-                } else {
-                    playersData = new JsonObject();
-                }
-            } else {
-                playersData = new JsonObject();
-            }
-            
-            // 添加玩家记录
-            JsonObject playerRecord = new JsonObject();
-            playerRecord.addProperty("name", playerName);
-            playerRecord.addProperty("firstJoinTime", System.currentTimeMillis());
-            playerRecord.addProperty("lastSeen", System.currentTimeMillis());
-            
-            playersData.add(playerId.toString(), playerRecord);
-            
-            // 保存到文件
-            try (FileWriter writer = new FileWriter(playerDataFile)) {
-                gson.toJson(playersData, writer);
-            }
-            
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("持久化 - 成功保存 {} 的记录", playerName);
-            }
-            
-        } catch (Exception e) {
-            logger.error("保存玩家数据失败: {}", e.getMessage(), e);
-        }
-    }
-    
-    /**
-     * 更新玩家最后见面时间
-     */
-    private void updatePlayerLastSeen(UUID playerId, String playerName) {
-        try {
-            if (!playerDataFile.exists()) {
-                return;
-            }
-            
-            String jsonContent = Files.readString(playerDataFile.toPath());
-            if (jsonContent.trim().isEmpty()) {
-                return;
-            }
-            
-            JsonObject playersData = JsonParser.parseString(jsonContent).getAsJsonObject();
-            if (playersData.has(playerId.toString())) {
-                JsonObject playerRecord = playersData.getAsJsonObject(playerId.toString());
-                playerRecord.addProperty("lastSeen", System.currentTimeMillis());
-                playerRecord.addProperty("name", playerName); // 更新名称
-                
-                // 保存到文件
-                try (FileWriter writer = new FileWriter(playerDataFile)) {
-                    gson.toJson(playersData, writer);
-                }
-                
-                if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                    logger.info("持久化 - 更新 {} 的最后见面时间", playerName);
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.error("更新玩家数据失败: {}", e.getMessage(), e);
-        }
-    }
-    
-    /**
-     * 获取玩家最后见面时间（毫秒时间戳，转换为秒）
-     */
-    private long getPlayerLastSeenTime(UUID playerId) {
-        try {
-            if (!playerDataFile.exists()) {
-                return 0;
-            }
-            
-            String jsonContent = Files.readString(playerDataFile.toPath());
-            if (jsonContent.trim().isEmpty()) {
-                return 0;
-            }
-            
-            JsonObject playersData = JsonParser.parseString(jsonContent).getAsJsonObject();
-            if (playersData.has(playerId.toString())) {
-                JsonObject playerRecord = playersData.getAsJsonObject(playerId.toString());
-                if (playerRecord.has("lastSeen")) {
-                    long lastSeenMillis = playerRecord.get("lastSeen").getAsLong();
-                    return lastSeenMillis / 1000; // 转换为秒
-                }
-            }
-            
-            return 0; // 没有记录
-            
-        } catch (Exception e) {
-            logger.error("读取玩家最后见面时间失败: {}", e.getMessage(), e);
-            return 0;
-        }
-    }
-    
     /**
      * 发送欢迎消息给玩家（明确指定消息类型）
      */
@@ -781,34 +642,31 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             // 确定玩家权限组
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
             
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("欢迎消息 - {} 的消息类型: {}, 权限组: {}", player.getUsername(), messageType, permissionGroup);
-            }
+            LoggerUtil.verbose(Category.MESSAGES, "欢迎消息 - {} 的消息类型: {}, 权限组: {}",
+                player.getUsername(), messageType, permissionGroup);
             
-            // 获取欢迎消息模板（基于权限组）
-            String welcomeTemplate = plugin.getConfigManager().getMessageConfig().getWelcomeMessage(permissionGroup, messageType);
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("欢迎模板: {}", welcomeTemplate);
-            }
+            // 获取欢迎消息模板（基于权限组和玩家语言）
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+            String language = messageConfig.resolveLanguage(player.getEffectiveLocale());
+            String welcomeTemplate = messageConfig.getWelcomeMessage(permissionGroup, messageType, language);
+            LoggerUtil.verbose(Category.MESSAGES, "欢迎模板: {}", welcomeTemplate);
             
             // 检查消息模板是否有效
             if (welcomeTemplate == null || welcomeTemplate.trim().isEmpty()) {
-                if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                    logger.info("欢迎消息模板为空，跳过发送: {}", messageType);
-                }
+                LoggerUtil.verbose(Category.MESSAGES, "欢迎消息模板为空，跳过发送: {}", messageType);
                 return;
             }
             
             // 格式化消息（增强版，支持更多占位符）
-            String formattedWelcome = formatWelcomeMessage(welcomeTemplate, player, messageType);
+            String formattedWelcome = formatWelcomeMessage(welcomeTemplate, player, messageType, language);
             
             // 延迟发送欢迎消息给玩家
-            proxyServer.getScheduler().buildTask(platformInstance, () -> {
+            scheduleWelcome(player.getUniqueId(), () -> {
                 if (formattedWelcome != null && !formattedWelcome.trim().isEmpty()) {
                 sendMessageToPlayer(player, formattedWelcome);
                 // 静默发送完成
                 }
-            }).delay(delay, java.util.concurrent.TimeUnit.MILLISECONDS).schedule();
+            }, delay);
             
         } catch (Exception e) {
             logger.error("发送欢迎消息失败", e);
@@ -824,23 +682,24 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
             
             // 发送给所有其他玩家的欢迎通知
-            String notificationTemplate = plugin.getConfigManager().getMessageConfig().getJoinMessage(permissionGroup, "first-time");
-            if (notificationTemplate != null && !notificationTemplate.isEmpty()) {
-                String formattedNotification = plugin.getConfigManager().getMessageConfig()
-                    .formatMessage(notificationTemplate, player.getUsername());
-                
-                // 发送给所有其他玩家
-                for (Player otherPlayer : proxyServer.getAllPlayers()) {
-                    if (!otherPlayer.getUniqueId().equals(player.getUniqueId())) {
-                        sendMessageToPlayer(otherPlayer, formattedNotification);
-                    }
-                }
-                
-                if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                    logger.info("首次通知 - 已通知所有玩家: {} ({}) 首次加入", player.getUsername(), permissionGroup);
+            List<Player> otherPlayers = new ArrayList<>();
+            for (Player otherPlayer : proxyServer.getAllPlayers()) {
+                if (!otherPlayer.getUniqueId().equals(player.getUniqueId())) {
+                    otherPlayers.add(otherPlayer);
                 }
             }
             
+            // 按语言获取模板并格式化，发送给所有其他玩家
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+            int sent = broadcastLocalized("join.first-time", otherPlayers,
+                language -> messageConfig.getJoinMessage(permissionGroup, "first-time", language),
+                text -> messageConfig.formatMessage(text, player.getUsername()));
+            
+            if (sent > 0) {
+                LoggerUtil.verbose(Category.BROADCAST, "首次通知 - 已通知所有玩家: {} ({}) 首次加入",
+                    player.getUsername(), permissionGroup);
+            }
+            
         } catch (Exception e) {
             logger.error("发送首次加入通知失败", e);
         }
@@ -855,23 +714,24 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             String permissionGroup = PermissionUtil.getPlayerPermissionGroup(player);
             
             // 发送给所有其他玩家的回归通知
-            String notificationTemplate = plugin.getConfigManager().getMessageConfig().getJoinMessage(permissionGroup, "returning");
-            if (notificationTemplate != null && !notificationTemplate.isEmpty()) {
-                String formattedNotification = plugin.getConfigManager().getMessageConfig()
-                    .formatMessage(notificationTemplate, player.getUsername());
-                
-                // 发送给所有其他玩家
-                for (Player otherPlayer : proxyServer.getAllPlayers()) {
-                    if (!otherPlayer.getUniqueId().equals(player.getUniqueId())) {
-                        sendMessageToPlayer(otherPlayer, formattedNotification);
-                    }
-                }
-                
-                if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                    logger.info("回归通知 - 已通知所有玩家: {} ({}) 回归加入", player.getUsername(), permissionGroup);
+            List<Player> otherPlayers = new ArrayList<>();
+            for (Player otherPlayer : proxyServer.getAllPlayers()) {
+                if (!otherPlayer.getUniqueId().equals(player.getUniqueId())) {
+                    otherPlayers.add(otherPlayer);
                 }
             }
             
+            // 按语言获取模板并格式化，发送给所有其他玩家
+            MessageConfig messageConfig = plugin.getConfigManager().getMessageConfig();
+            int sent = broadcastLocalized("join.returning", otherPlayers,
+                language -> messageConfig.getJoinMessage(permissionGroup, "returning", language),
+                text -> messageConfig.formatMessage(text, player.getUsername()));
+            
+            if (sent > 0) {
+                LoggerUtil.verbose(Category.BROADCAST, "回归通知 - 已通知所有玩家: {} ({}) 回归加入",
+                    player.getUsername(), permissionGroup);
+            }
+            
         } catch (Exception e) {
             logger.error("发送回归加入通知失败", e);
         }
@@ -882,24 +742,16 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     /**
      * 格式化欢迎消息（支持 Velocity 特定占位符）
      */
-    private String formatWelcomeMessage(String template, Player player, String messageType) {
+    private String formatWelcomeMessage(String template, Player player, String messageType, String language) {
         try {
             // 基础格式化
             String formatted = plugin.getConfigManager().getMessageConfig()
                 .formatMessage(template, player.getUsername());
             
-            // Velocity 环境特定占位符
-            
-            // {online_count} 和 {max_players}
-            int onlineCount = proxyServer.getAllPlayers().size();
-            int maxPlayers = proxyServer.getConfiguration().getShowMaxPlayers();
-            formatted = formatted.replace("{online_count}", String.valueOf(onlineCount));
-            formatted = formatted.replace("{max_players}", String.valueOf(maxPlayers));
-            
             // {last_seen} 占位符（仅回归玩家有效）
             if ("returning".equals(messageType)) {
-                String lastSeenTime = getFormattedLastSeenTime(player.getUniqueId());
-                formatted = formatted.replace("{last_seen}", lastSeenTime);
+                formatted = replaceLastSeenTime(formatted, player.getUniqueId(),
+                    plugin.getConfigManager().getMessageConfig().toLocale(language));
             } else {
                 // 对于非回归消息，移除 {last_seen} 占位符
                 formatted = formatted.replace("{last_seen}", "");
@@ -914,48 +766,24 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     }
     
     /**
-     * 获取格式化的最后见面时间
+     * 将消息中的 {last_seen} 替换为友好格式的最后见面时间
      */
-    private String getFormattedLastSeenTime(java.util.UUID playerId) {
+    private String replaceLastSeenTime(String message, java.util.UUID playerId, java.util.Locale locale) {
         try {
-            long lastSeenSeconds = getPlayerLastSeenTime(playerId);
+            long lastSeenSeconds = playerDataStore.getLastSeenSeconds(playerId);
             if (lastSeenSeconds == 0) {
-                return "未知";
+                return message.replace("{last_seen}", "未知");
             }
             
             // 将时间戳转换为友好格式
             long currentSeconds = System.currentTimeMillis() / 1000;
             long offlineSeconds = currentSeconds - lastSeenSeconds;
             
-            return formatTimeAgo(offlineSeconds);
+            return TimeUtil.replaceTimeAgo(message, "{last_seen}", offlineSeconds, locale);
             
         } catch (Exception e) {
             logger.error("格式化最后见面时间失败: {}", e.getMessage(), e);
-            return "未知";
-        }
-    }
-    
-    /**
-     * 将秒数转换为 "X天前", "X小时前" 等格式
-     */
-    private String formatTimeAgo(long seconds) {
-        if (seconds < 60) {
-            return "刚刚";
-        } else if (seconds < 3600) { // 小于1小时
-            long minutes = seconds / 60;
-            return minutes + "分钟前";
-        } else if (seconds < 86400) { // 小于1天
-            long hours = seconds / 3600;
-            return hours + "小时前";
-        } else if (seconds < 2592000) { // 小于30天
-            long days = seconds / 86400;
-            return days + "天前";
-        } else if (seconds < 31536000) { // 小于1年
-            long months = seconds / 2592000;
-            return months + "个月前";
-        } else {
-            long years = seconds / 31536000;
-            return years + "年前";
+            return message.replace("{last_seen}", "未知");
         }
     }
     
@@ -965,7 +793,7 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     private boolean shouldShowReturningMessage(Player player) {
         try {
             long thresholdSeconds = plugin.getConfigManager().getPluginConfig().getReturningThreshold();
-            long lastSeenTime = getPlayerLastSeenTime(player.getUniqueId());
+            long lastSeenTime = playerDataStore.getLastSeenSeconds(player.getUniqueId());
             
             if (lastSeenTime == 0) {
                 // 没有记录的最后见面时间，不显示回归消息
@@ -984,6 +812,96 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     
 
     
+    /**
+     * 按语言分组广播（每种语言只渲染一次）
+     * 
+     * 模板预编译为组件后按玩家只替换占位符文本节点；不可编译的模板回退为先格式化再解析。
+     * 模板引用观看者占位符时，语言组内再按观看者作用域细分，每种取值组合渲染一次
+     * 
+     * @param templateKey 消息类别与类型（用于 JFR 事件），例如 join.first-time
+     * @param recipients 接收者
+     * @param templates 消息包语言 -> 原始模板，返回空表示该语言不发送
+     * @param formatter 占位符格式化（作用于整条模板或单个占位符）
+     * @return 实际发送的玩家数
+     */
+    private int broadcastLocalized(String templateKey, Collection<Player> recipients,
+                                   Function<String, String> templates, UnaryOperator<String> formatter) {
+        FlightEvents.Broadcast flightEvent = new FlightEvents.Broadcast();
+        flightEvent.begin();
+        int sentToPlayersCount = 0;
+        
+        Map<String, List<Player>> groups = groupByLanguage(recipients, Player::getEffectiveLocale);
+        for (Map.Entry<String, List<Player>> group : groups.entrySet()) {
+            long renderStartNanos = System.nanoTime();
+            String language = group.getKey();
+            String template = templates.apply(language);
+            if (template == null || template.trim().isEmpty()) {
+                continue;
+            }
+            
+            Set<String> viewerKeys = viewerPlaceholders.getReferencedKeys(template);
+            if (viewerKeys.isEmpty()) {
+                Component component = renderComponent(template, formatter);
+                metrics.recordSince(PluginMetrics.HistogramType.TEMPLATE_RENDER, renderStartNanos);
+                sentToPlayersCount += fanOut(component, group.getValue());
+            } else {
+                for (ViewerPlaceholders.Group<Player> viewers
+                        : viewerPlaceholders.group(viewerKeys, group.getValue(), this::toViewer)) {
+                    Component component = renderComponent(template, viewers.bind(formatter));
+                    metrics.recordSince(PluginMetrics.HistogramType.TEMPLATE_RENDER, renderStartNanos);
+                    sentToPlayersCount += fanOut(component, viewers.getMembers());
+                    renderStartNanos = System.nanoTime();
+                }
+            }
+            
+            LoggerUtil.verbose(Category.BROADCAST, "广播 - 语言 {}: 已发送给 {} 个玩家", language, group.getValue().size());
+        }
+        
+        metrics.recordBroadcast(sentToPlayersCount);
+        commitBroadcastEvent(flightEvent, templateKey, sentToPlayersCount, groups.size());
+        return sentToPlayersCount;
+    }
+    
+    /**
+     * 渲染模板：优先使用预编译模板，不可编译时先格式化再解析
+     * （格式化结果按玩家不同，不进入缓存）
+     */
+    private Component renderComponent(String template, UnaryOperator<String> formatter) {
+        long buildStartNanos = StageTracer.stageStart();
+        Component component = templateCache.get(template, this::compileTemplate).render(formatter);
+        if (component == null) {
+            component = miniMessage.deserialize(formatter.apply(template));
+        }
+        StageTracer.stageEnd(StageTracer.Stage.COMPONENT_BUILD, buildStartNanos);
+        return component;
+    }
+    
+    /**
+     * 玩家 -> 观看者信息
+     */
+    private ViewerPlaceholders.Viewer toViewer(Player player) {
+        return new ViewerPlaceholders.Viewer(player.getUniqueId(), player.getUsername(), player.getEffectiveLocale());
+    }
+    
+    /**
+     * 发送同一个组件给一组玩家
+     */
+    private int fanOut(Component component, List<Player> recipients) {
+        long fanOutStartNanos = StageTracer.stageStart();
+        for (Player recipient : recipients) {
+            recipient.sendMessage(component);
+        }
+        StageTracer.stageEnd(StageTracer.Stage.FAN_OUT, fanOutStartNanos);
+        return recipients.size();
+    }
+    
+    /**
+     * 预编译模板（MiniMessage 只解析一次）
+     */
+    private ComponentTemplate compileTemplate(String template) {
+        return ComponentTemplate.compile(template, miniMessage::deserialize);
+    }
+    
     // ================================
     // 实现抽象方法
     // ================================
@@ -994,25 +912,16 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             Player velocityPlayer = (Player) player;
             Component component = miniMessage.deserialize(message);
             velocityPlayer.sendMessage(component);
+            metrics.increment(PluginMetrics.CounterType.MESSAGES_SENT);
         }
     }
     
     @Override
     public void sendMessageToAll(String message) {
         try {
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("组件转换 - 开始转换消息: {}", message);
-        }
-            Component component = miniMessage.deserialize(message);
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-            logger.info("组件转换 - 消息转换成功");
-        }
-            
             // 获取所有在线玩家
             int totalPlayers = proxyServer.getPlayerCount();
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("玩家统计 - 代理上总共有 {} 个在线玩家", totalPlayers);
-            }
+            LoggerUtil.verbose(Category.BROADCAST, "玩家统计 - 代理上总共有 {} 个在线玩家", totalPlayers);
             
             if (totalPlayers == 0) {
                 logger.warn("警告 - 没有在线玩家，跳过消息发送");
@@ -1022,17 +931,28 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
             // 🔥 修复重复消息问题：只使用一种发送方式
             // 直接发送给所有在线玩家（避免重复发送）
             int sentToPlayersCount = 0;
-            for (Player onlinePlayer : proxyServer.getAllPlayers()) {
-                onlinePlayer.sendMessage(component);
-                sentToPlayersCount++;
-                if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("发送给玩家 - 发送消息给: {}", onlinePlayer.getUsername());
-            }
+            Set<String> viewerKeys = viewerPlaceholders.getReferencedKeys(message);
+            if (viewerKeys.isEmpty()) {
+                LoggerUtil.verbose(Category.MESSAGES, "组件转换 - 开始转换消息: {}", message);
+                Component component = miniMessage.deserialize(message);
+                LoggerUtil.verbose(Category.MESSAGES, "组件转换 - 消息转换成功");
+                
+                for (Player onlinePlayer : proxyServer.getAllPlayers()) {
+                    onlinePlayer.sendMessage(component);
+                    sentToPlayersCount++;
+                    LoggerUtil.verbose(Category.BROADCAST, "发送给玩家 - 发送消息给: {}", onlinePlayer.getUsername());
+                }
+            } else {
+                // 包含观看者占位符：每种取值组合解析一次
+                for (ViewerPlaceholders.Group<Player> viewers
+                        : viewerPlaceholders.group(viewerKeys, proxyServer.getAllPlayers(), this::toViewer)) {
+                    String personalized = viewers.bind(UnaryOperator.identity()).apply(message);
+                    sentToPlayersCount += fanOut(miniMessage.deserialize(personalized), viewers.getMembers());
+                }
             }
+            metrics.recordBroadcast(sentToPlayersCount);
             
-            if (plugin.getConfigManager().getPluginConfig().isVerboseLogging()) {
-                logger.info("广播完成 - 已发送给 {} 个玩家", sentToPlayersCount);
-        }
+            LoggerUtil.verbose(Category.BROADCAST, "广播完成 - 已发送给 {} 个玩家", sentToPlayersCount);
             
         } catch (Exception e) {
             logger.error("发送消息失败: {}", e.getMessage(), e);
@@ -1049,12 +969,32 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     
     @Override
     public int getOnlinePlayerCount() {
-        return proxyServer.getPlayerCount();
+        return plugin.getPlayerRoster().getOnlineCount();
     }
     
     @Override
     public boolean isPlayerOnline(String playerName) {
-        return proxyServer.getPlayer(playerName).isPresent();
+        return plugin.getPlayerRoster().isOnline(playerName);
+    }
+    
+    @Override
+    public int getMaxPlayers() {
+        return proxyServer.getConfiguration().getShowMaxPlayers();
+    }
+    
+    @Override
+    public String getServerName() {
+        return proxyServer.getVersion().getName();
+    }
+    
+    @Override
+    protected ExternalPlaceholderSource createExternalPlaceholderSource() throws ReflectiveOperationException {
+        return MiniPlaceholdersSource.detect(proxyServer);
+    }
+    
+    @Override
+    public PlatformScheduler getScheduler() {
+        return scheduler;
     }
     
     @Override
@@ -1071,13 +1011,26 @@ public class VelocityAdapter extends AbstractPlatformAdapter {
     // 辅助方法
     // ================================
     
+    /**
+     * 以当前在线玩家初始化在线名册
+     */
+    private void seedPlayerRoster() {
+        for (Player onlinePlayer : proxyServer.getAllPlayers()) {
+            String serverName = onlinePlayer.getCurrentServer()
+                .map(connection -> connection.getServerInfo().getName())
+                .orElse(null);
+            plugin.getPlayerRoster().join(onlinePlayer.getUniqueId(), onlinePlayer.getUsername(),
+                serverName, PermissionUtil.getPlayerPermissionGroup(onlinePlayer));
+        }
+    }
+    
     /**
      * 调度玩家追踪清理
      */
     private void schedulePlayerTracking(UUID playerUUID, Set<UUID> trackingSet, int delayMs) {
-        proxyServer.getScheduler().buildTask(platformInstance, () -> {
+        runLaterTracked(() -> {
             trackingSet.remove(playerUUID);
-            verbose("已清理玩家追踪: {}", playerUUID);
-        }).delay(delayMs, java.util.concurrent.TimeUnit.MILLISECONDS).schedule();
+            LoggerUtil.verbose(Category.EVENTS, "已清理玩家追踪: {}", playerUUID);
+        }, delayMs);
     }
 }
\ No newline at end of file
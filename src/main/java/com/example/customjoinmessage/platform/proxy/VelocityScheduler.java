@@ -0,0 +1,39 @@
+package com.example.customjoinmessage.platform.proxy;
+
+import com.example.customjoinmessage.platform.AbstractPlatformScheduler;
+import com.velocitypowered.api.proxy.ProxyServer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Velocity 调度器：延迟任务交给 Velocity 调度器，代理端没有按玩家划分的线程
+ */
+final class VelocityScheduler extends AbstractPlatformScheduler {
+
+    private final ProxyServer proxyServer;
+    private final Object pluginInstance;
+
+    VelocityScheduler(ProxyServer proxyServer, Object pluginInstance) {
+        this.proxyServer = proxyServer;
+        this.pluginInstance = pluginInstance;
+    }
+
+    @Override
+    public void runLater(Runnable task, long delayMillis) {
+        proxyServer.getScheduler().buildTask(pluginInstance, task)
+            .delay(Math.max(0, delayMillis), TimeUnit.MILLISECONDS)
+            .schedule();
+    }
+
+    @Override
+    public void runForPlayer(UUID playerId, Runnable task, Runnable retired, long delayMillis) {
+        runLater(() -> {
+            if (proxyServer.getPlayer(playerId).isPresent()) {
+                task.run();
+            } else {
+                retired.run();
+            }
+        }, delayMillis);
+    }
+}
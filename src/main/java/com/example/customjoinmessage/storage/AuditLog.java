@@ -0,0 +1,362 @@
+package com.example.customjoinmessage.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 玩家加入/离开审计日志
+ *
+ * 事件线程只把记录放入无锁环形缓冲区（满时丢弃并计数），
+ * 由单个写入线程批量追加到按日期和大小轮转的文件，并按间隔批量 fsync。
+ *
+ * 每行一条记录，制表符分隔：
+ * 时间(ISO-8601) 类型 UUID 玩家名 来源服务器 目标服务器（缺失时为 -）
+ */
+public class AuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
+
+    private static final String FILE_PREFIX = "audit-";
+    private static final String FILE_SUFFIX = ".log";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+
+    /**
+     * 审计记录类型
+     */
+    public enum Type {
+        JOIN,
+        FIRST_JOIN,
+        LEAVE,
+        SWITCH
+    }
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int retentionDays;
+    private final long fsyncIntervalNanos;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final MpscRingBuffer<Entry> queue;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running;
+    private volatile boolean writerParked;
+
+    // 以下字段只由写入线程访问
+    private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder(128);
+    private FileChannel channel;
+    private LocalDate currentDate;
+    private int currentIndex;
+    private long currentSize;
+    private boolean unsynced;
+    private long lastSyncNanos;
+
+    /**
+     * @param directory 审计文件目录
+     * @param maxFileBytes 单个文件大小上限
+     * @param retentionDays 保留天数，0 表示不清理
+     * @param fsyncIntervalMillis 批量 fsync 间隔
+     * @param bufferSize 内存队列容量
+     */
+    public AuditLog(Path directory, long maxFileBytes, int retentionDays, long fsyncIntervalMillis, int bufferSize) {
+        this.directory = directory;
+        this.maxFileBytes = Math.max(1024, maxFileBytes);
+        this.retentionDays = Math.max(0, retentionDays);
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10, fsyncIntervalMillis));
+        this.queue = new MpscRingBuffer<>(bufferSize);
+        // 写入线程大部分时间阻塞在文件 I/O 或等待新记录，使用虚拟线程不占用平台线程
+        this.writer = Thread.ofVirtual().name("CustomJoinMessage-Audit").unstarted(this::writeLoop);
+    }
+
+    /**
+     * 启动写入线程
+     */
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        running = true;
+        writer.start();
+    }
+
+    /**
+     * 停止写入线程，写出剩余记录并关闭文件
+     */
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (dropped.sum() > 0) {
+            logger.warn("审计日志队列已满，共丢弃 {} 条记录", dropped.sum());
+        }
+    }
+
+    // ================================
+    // 记录
+    // ================================
+
+    /**
+     * 记录一条审计事件（任意线程，不阻塞）
+     *
+     * @param from 来源服务器，可为 null
+     * @param to 目标服务器，可为 null
+     */
+    public void record(Type type, UUID playerId, String playerName, String from, String to) {
+        if (!running) {
+            return;
+        }
+        if (!queue.offer(new Entry(System.currentTimeMillis(), type, playerId, playerName, from, to))) {
+            dropped.increment();
+            return;
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * 队列中待写入的记录数
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * 因队列已满被丢弃的记录数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    // ================================
+    // 写入线程
+    // ================================
+
+    private void writeLoop() {
+        lastSyncNanos = System.nanoTime();
+        try {
+            while (running) {
+                if (!drain()) {
+                    writerParked = true;
+                    // 再检查一次，避免入队与挂起之间的竞争
+                    if (queue.size() == 0 && running) {
+                        LockSupport.parkNanos(this, fsyncIntervalNanos);
+                    }
+                    writerParked = false;
+                }
+                syncIfDue(false);
+            }
+            drain();
+            syncIfDue(true);
+        } catch (Exception e) {
+            logger.error("审计日志写入失败，已停止记录: {}", e.getMessage(), e);
+            running = false;
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * 写出队列中的所有记录
+     *
+     * @return 是否写出了记录
+     */
+    private boolean drain() throws IOException {
+        boolean wrote = false;
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            byte[] bytes = encode(entry);
+            LocalDate date = Instant.ofEpochMilli(entry.timestampMillis).atZone(zone).toLocalDate();
+            if (channel == null || !date.equals(currentDate) || currentSize + buffer.position() + bytes.length > maxFileBytes) {
+                flushBuffer();
+                rotate(date);
+            }
+            if (buffer.remaining() < bytes.length) {
+                flushBuffer();
+            }
+            if (bytes.length > buffer.capacity()) {
+                writeFully(ByteBuffer.wrap(bytes));
+            } else {
+                buffer.put(bytes);
+            }
+            wrote = true;
+        }
+        flushBuffer();
+        return wrote;
+    }
+
+    private byte[] encode(Entry entry) {
+        line.setLength(0);
+        line.append(TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(entry.timestampMillis).atZone(zone)))
+            .append('\t').append(entry.type.name())
+            .append('\t').append(entry.playerId)
+            .append('\t');
+        appendField(entry.playerName);
+        line.append('\t');
+        appendField(entry.from);
+        line.append('\t');
+        appendField(entry.to);
+        line.append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendField(String value) {
+        if (value == null || value.isEmpty()) {
+            line.append('-');
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            line.append(c == '\t' || c == '\n' || c == '\r' ? ' ' : c);
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            currentSize += channel.write(source);
+        }
+        unsynced = true;
+    }
+
+    private void syncIfDue(boolean force) throws IOException {
+        if (!unsynced || channel == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (force || now - lastSyncNanos >= fsyncIntervalNanos) {
+            channel.force(false);
+            unsynced = false;
+            lastSyncNanos = now;
+        }
+    }
+
+    // ================================
+    // 轮转与清理
+    // ================================
+
+    /**
+     * 切换到指定日期下一个未写满的文件
+     */
+    private void rotate(LocalDate date) throws IOException {
+        int index = 0;
+        if (channel != null) {
+            syncIfDue(true);
+            closeChannel();
+            // 同一天内因大小轮转时从下一个编号开始
+            if (date.equals(currentDate)) {
+                index = currentIndex + 1;
+            }
+        }
+
+        if (!date.equals(currentDate)) {
+            currentDate = date;
+            deleteExpiredFiles();
+        }
+
+        Path file = fileFor(date, index);
+        while (Files.exists(file) && Files.size(file) >= maxFileBytes) {
+            file = fileFor(date, ++index);
+        }
+        currentIndex = index;
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        currentSize = channel.size();
+    }
+
+    private Path fileFor(LocalDate date, int index) {
+        return directory.resolve(FILE_PREFIX + date + (index == 0 ? "" : "." + index) + FILE_SUFFIX);
+    }
+
+    private void deleteExpiredFiles() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDate oldest = currentDate.minusDays(retentionDays);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                LocalDate fileDate = parseDate(file.getFileName().toString());
+                if (fileDate != null && fileDate.isBefore(oldest)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("清理过期审计日志失败: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDate parseDate(String fileName) {
+        int start = FILE_PREFIX.length();
+        int end = start + "yyyy-MM-dd".length();
+        if (fileName.length() < end) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(fileName.substring(start, end));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("关闭审计日志文件失败: {}", e.getMessage());
+        }
+        channel = null;
+    }
+
+    private static final class Entry {
+        private final long timestampMillis;
+        private final Type type;
+        private final UUID playerId;
+        private final String playerName;
+        private final String from;
+        private final String to;
+
+        private Entry(long timestampMillis, Type type, UUID playerId, String playerName, String from, String to) {
+            this.timestampMillis = timestampMillis;
+            this.type = type;
+            this.playerId = playerId;
+            this.playerName = playerName;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.customjoinmessage.storage;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界无锁多生产者单消费者环形缓冲区
+ *
+ * 每个槽位带序号：生产者通过 CAS 抢占写入位置，写完后发布序号；
+ * 唯一的消费者按序号判断槽位是否可读，读完后把槽位交还给下一轮生产者。
+ * 队列满时 offer 立即返回 false，不阻塞调用线程
+ */
+final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    // 只由消费者线程读写
+    private long head;
+
+    // 供 size() 估算，消费者每次出队后发布
+    private volatile long consumed;
+
+    /**
+     * @param capacity 容量，向上取整为 2 的幂
+     */
+    MpscRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 入队（任意线程）
+     *
+     * @return 队列已满时返回 false
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // difference > 0：其他生产者已抢占该位置，重新读取 tail
+        }
+    }
+
+    /**
+     * 出队（只能由消费者线程调用）
+     *
+     * @return 队列为空（或下一个槽位尚未发布）时返回 null
+     */
+    E poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        E element = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        consumed = head;
+        return element;
+    }
+
+    /**
+     * 当前元素数（估算值）
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - consumed);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
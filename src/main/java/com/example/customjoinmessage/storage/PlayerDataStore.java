@@ -0,0 +1,333 @@
+package com.example.customjoinmessage.storage;
+
+import com.example.customjoinmessage.core.FlightEvents;
+import com.example.customjoinmessage.core.PluginMetrics;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 玩家历史数据存储（players.json）
+ *
+ * 代理端适配器共用的持久化实现，记录格式：
+ * {"uuid": {"name": "...", "firstJoinTime": 时间戳, "lastSeen": 时间戳}}
+ *
+ * 时间戳的单位沿用各平台原有的文件格式，由适配器在创建时指定：
+ * Velocity 为毫秒，BungeeCord 为秒（与旧版插件读写的格式一致，可以直接回退）
+ *
+ * 文件只在首次访问时完整读取一次，之后的查询和修改都在内存索引上进行，事件线程上没有文件 I/O。
+ * 修改后提交一次写回（通过适配器调度器的 runAsync），写回尚未开始时的多次修改合并为同一次写入。
+ * 每次写回在写锁内取索引快照并写入文件，后写入的快照总是更新，
+ * 即使异步任务乱序执行也不会因为写入先后颠倒而丢失更新
+ */
+public class PlayerDataStore {
+
+    private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
+
+    private final File dataFile;
+    // 文件中时间戳的单位
+    private final TimeUnit timeUnit;
+
+    // UUID 字符串 -> 记录（首次访问时从文件加载）
+    private final Map<String, PlayerRecord> records = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    // 文件存在但无法读取时不再写回，避免用空索引覆盖原有数据
+    private volatile boolean loadFailed;
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // 写回：已有待执行的写回时新的修改直接并入
+    private final Executor writeExecutor;
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * @param dataFile 数据文件
+     * @param timeUnit 文件中时间戳的单位
+     * @param writeExecutor 执行写回的 I/O 执行器（通常为 PlatformScheduler::runAsync）
+     */
+    public PlayerDataStore(File dataFile, TimeUnit timeUnit, Executor writeExecutor) {
+        this.dataFile = dataFile;
+        this.timeUnit = timeUnit;
+        this.writeExecutor = writeExecutor;
+    }
+
+    /**
+     * 获取数据文件
+     */
+    public File getDataFile() {
+        return dataFile;
+    }
+
+    /**
+     * 预先加载数据文件（可在 I/O 线程调用，避免首次加入时在事件线程上加载）
+     */
+    public void open() {
+        ensureLoaded();
+    }
+
+    /**
+     * 在调用线程上写回尚未保存的修改（适配器禁用时，在等待异步任务完成之后调用）
+     *
+     * 关闭后仍可继续使用，适配器重新启用时不需要重新加载
+     */
+    public void close() {
+        if (flushPending.getAndSet(false)) {
+            flush();
+        }
+    }
+
+    // ================================
+    // 记录操作
+    // ================================
+
+    /**
+     * 检查玩家是否有持久化记录
+     */
+    public boolean hasRecord(UUID playerId) {
+        ensureLoaded();
+        return records.containsKey(playerId.toString());
+    }
+
+    /**
+     * 保存新的玩家记录（首次加入）
+     */
+    public void saveRecord(UUID playerId, String playerName) {
+        ensureLoaded();
+        long now = now();
+        records.put(playerId.toString(), new PlayerRecord(playerName, now, now));
+        scheduleFlush();
+    }
+
+    /**
+     * 更新已有玩家的最后见面时间和名称
+     *
+     * @return 记录存在并已更新时返回true
+     */
+    public boolean updateLastSeen(UUID playerId, String playerName) {
+        ensureLoaded();
+        long now = now();
+        PlayerRecord updated = records.computeIfPresent(playerId.toString(),
+            (key, existing) -> new PlayerRecord(playerName, existing.firstJoinTime, now));
+        if (updated == null) {
+            return false;
+        }
+        scheduleFlush();
+        return true;
+    }
+
+    /**
+     * 记录玩家在线：已有记录则更新最后见面时间，否则创建新记录
+     */
+    public void recordSeen(UUID playerId, String playerName) {
+        ensureLoaded();
+        long now = now();
+        records.merge(playerId.toString(), new PlayerRecord(playerName, now, now),
+            (existing, created) -> new PlayerRecord(playerName, existing.firstJoinTime, now));
+        scheduleFlush();
+    }
+
+    /**
+     * 获取玩家最后见面时间（秒），没有记录时返回0
+     */
+    public long getLastSeenSeconds(UUID playerId) {
+        ensureLoaded();
+        PlayerRecord record = records.get(playerId.toString());
+        if (record == null || record.lastSeen == null) {
+            return 0;
+        }
+        return timeUnit.toSeconds(record.lastSeen);
+    }
+
+    /**
+     * 内存中的记录数
+     */
+    public int getRecordCount() {
+        ensureLoaded();
+        return records.size();
+    }
+
+    private long now() {
+        return timeUnit.convert(System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // ================================
+    // 文件读写
+    // ================================
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            JsonObject playersData = load();
+            for (Map.Entry<String, JsonElement> entry : playersData.entrySet()) {
+                if (entry.getValue().isJsonObject()) {
+                    records.putIfAbsent(entry.getKey(), PlayerRecord.fromJson(entry.getValue().getAsJsonObject()));
+                }
+            }
+        } catch (Exception e) {
+            // 读取失败时以空索引继续运行，但不写回，保留原文件供手动修复
+            loadFailed = true;
+            logger.error("读取玩家数据失败，本次运行不会写回 {}: {}", dataFile.getName(), e.getMessage(), e);
+        } finally {
+            loaded = true;
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * 加载全部玩家数据（文件不存在或为空时返回空对象）
+     */
+    public JsonObject load() throws Exception {
+        if (!dataFile.exists() || dataFile.length() == 0) {
+            return new JsonObject();
+        }
+
+        FlightEvents.Persist flightEvent = new FlightEvents.Persist();
+        flightEvent.begin();
+        long startNanos = System.nanoTime();
+        try {
+            String jsonContent = Files.readString(dataFile.toPath(), StandardCharsets.UTF_8);
+            if (jsonContent.trim().isEmpty()) {
+                return new JsonObject();
+            }
+            return JsonParser.parseString(jsonContent).getAsJsonObject();
+        } finally {
+            PluginMetrics.get().recordSince(PluginMetrics.HistogramType.PERSISTENCE_READ, startNanos);
+            commitPersistEvent(flightEvent, "read");
+        }
+    }
+
+    private void scheduleFlush() {
+        if (flushPending.compareAndSet(false, true)) {
+            try {
+                writeExecutor.execute(() -> {
+                    // 先清除标记再取快照：之后的修改会再提交一次写回
+                    if (flushPending.getAndSet(false)) {
+                        flush();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // 提交失败时清除标记，下一次修改重新提交
+                flushPending.set(false);
+                logger.error("提交玩家数据写回失败: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 立即把当前索引写入文件（在调用线程上执行）
+     */
+    public void flush() {
+        if (loadFailed) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            save();
+        } catch (Exception e) {
+            logger.error("保存玩家数据失败: {}", e.getMessage(), e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 覆盖保存全部玩家数据（先写临时文件再替换，写入中断时不会留下半个文件）
+     */
+    private void save() throws Exception {
+        File parent = dataFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        FlightEvents.Persist flightEvent = new FlightEvents.Persist();
+        flightEvent.begin();
+        long startNanos = System.nanoTime();
+        File tempFile = new File(parent, dataFile.getName() + ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8);
+                 JsonWriter json = new JsonWriter(out)) {
+                json.beginObject();
+                for (Map.Entry<String, PlayerRecord> entry : records.entrySet()) {
+                    json.name(entry.getKey());
+                    entry.getValue().write(json);
+                }
+                json.endObject();
+            }
+            Files.move(tempFile.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            PluginMetrics.get().recordSince(PluginMetrics.HistogramType.PERSISTENCE_WRITE, startNanos);
+            commitPersistEvent(flightEvent, "write");
+        }
+    }
+
+    /**
+     * 提交持久化 JFR 事件（未录制时不读取文件大小）
+     */
+    private void commitPersistEvent(FlightEvents.Persist flightEvent, String operation) {
+        flightEvent.end();
+        if (flightEvent.shouldCommit()) {
+            flightEvent.operation = operation;
+            flightEvent.bytes = dataFile.length();
+            flightEvent.commit();
+        }
+    }
+
+    /**
+     * 一名玩家的记录（不可变，修改时整体替换；字段缺失时为 null，写回时保持缺失）
+     */
+    private static final class PlayerRecord {
+        private final String name;
+        private final Long firstJoinTime;
+        private final Long lastSeen;
+
+        private PlayerRecord(String name, Long firstJoinTime, Long lastSeen) {
+            this.name = name;
+            this.firstJoinTime = firstJoinTime;
+            this.lastSeen = lastSeen;
+        }
+
+        private static PlayerRecord fromJson(JsonObject json) {
+            return new PlayerRecord(
+                json.has("name") ? json.get("name").getAsString() : null,
+                json.has("firstJoinTime") ? json.get("firstJoinTime").getAsLong() : null,
+                json.has("lastSeen") ? json.get("lastSeen").getAsLong() : null);
+        }
+
+        private void write(JsonWriter json) throws IOException {
+            json.beginObject();
+            if (name != null) {
+                json.name("name").value(name);
+            }
+            if (firstJoinTime != null) {
+                json.name("firstJoinTime").value(firstJoinTime);
+            }
+            if (lastSeen != null) {
+                json.name("lastSeen").value(lastSeen);
+            }
+            json.endObject();
+        }
+    }
+}
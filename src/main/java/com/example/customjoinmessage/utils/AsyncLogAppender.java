@@ -0,0 +1,114 @@
+package com.example.customjoinmessage.utils;
+
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 详细日志的异步输出器
+ *
+ * 事件线程只把消息模板和参数放入有界队列，由单个守护线程格式化并输出；
+ * 队列满时由调用方回退为同步输出，不丢日志也不阻塞等待
+ */
+final class AsyncLogAppender {
+
+    private static final int CAPACITY = 4096;
+    private static final int BATCH_SIZE = 256;
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(CAPACITY);
+    private final AtomicLong overflowed = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    private AsyncLogAppender() {
+        this.worker = new Thread(this::drainLoop, "CustomJoinMessage-Log");
+        this.worker.setDaemon(true);
+    }
+
+    static AsyncLogAppender start() {
+        AsyncLogAppender appender = new AsyncLogAppender();
+        appender.worker.start();
+        return appender;
+    }
+
+    /**
+     * 放入队列，队列已满时返回 false
+     */
+    boolean offer(Logger logger, String message, Object[] args) {
+        if (queue.offer(new Entry(logger, message, args))) {
+            return true;
+        }
+        overflowed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 停止输出线程并同步输出剩余日志
+     */
+    void stop() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(new ArrayList<>());
+
+        long count = overflowed.get();
+        if (count > 0) {
+            LoggerUtil.getLogger().warn("异步日志队列曾满 {} 次，这些日志已改为同步输出", count);
+        }
+    }
+
+    private void drainLoop() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        while (running) {
+            try {
+                Entry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // stop() 会同步输出剩余日志
+                return;
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        queue.drainTo(batch);
+        write(batch);
+    }
+
+    private void write(List<Entry> batch) {
+        for (Entry entry : batch) {
+            try {
+                LoggerUtil.write(entry.logger, entry.message, entry.args);
+            } catch (Exception e) {
+                // 输出失败不能影响后续日志
+            }
+        }
+        batch.clear();
+    }
+
+    private static final class Entry {
+        private final Logger logger;
+        private final String message;
+        private final Object[] args;
+
+        private Entry(Logger logger, String message, Object[] args) {
+            this.logger = logger;
+            this.message = message;
+            this.args = args;
+        }
+    }
+}
@@ -5,62 +5,187 @@ import org.slf4j.LoggerFactory;
 
 /**
  * 日志工具类
- * 
- * 提供统一的日志管理功能
+ *
+ * 提供统一的日志管理功能。
+ *
+ * 详细日志按类别开关，开关缓存在枚举的 volatile 字段中（配置加载/重载时刷新），
+ * 关闭时 verbose() 只做一次 volatile 读，不读取配置、不格式化字符串。
+ * 固定参数的重载避免了关闭时的可变参数数组分配
  */
 public class LoggerUtil {
-    
+
     private static final Logger logger = LoggerFactory.getLogger("CustomJoinMessage");
-    
+
+    // 异步输出器（为 null 时在调用线程直接输出）
+    private static volatile AsyncLogAppender asyncAppender;
+
+    /**
+     * 详细日志类别
+     */
+    public enum Category {
+        EVENTS("events", "玩家加入/离开/切换事件"),
+        FIRST_JOIN("first-join", "首次加入检测"),
+        MESSAGES("messages", "消息模板与格式化"),
+        BROADCAST("broadcast", "广播与发送"),
+        PLATFORM("platform", "平台与通信通道");
+
+        private final String key;
+        private final String description;
+        private volatile boolean enabled;
+
+        Category(String key, String description) {
+            this.key = key;
+            this.description = description;
+        }
+
+        /**
+         * 配置键（logging.categories.<key>）
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    // ================================
+    // 配置
+    // ================================
+
+    /**
+     * 开启或关闭某一类别的详细日志
+     */
+    public static void setEnabled(Category category, boolean enabled) {
+        category.enabled = enabled;
+    }
+
+    /**
+     * 类别是否开启（需要额外计算参数时先检查）
+     */
+    public static boolean isEnabled(Category category) {
+        return category.enabled;
+    }
+
+    /**
+     * 开启或关闭异步输出（关闭时先输出队列中剩余的日志）
+     */
+    public static synchronized void setAsync(boolean async) {
+        if (async && asyncAppender == null) {
+            asyncAppender = AsyncLogAppender.start();
+        } else if (!async && asyncAppender != null) {
+            asyncAppender.stop();
+            asyncAppender = null;
+        }
+    }
+
+    /**
+     * 关闭异步输出并重置所有类别（插件禁用时调用）
+     */
+    public static void shutdown() {
+        setAsync(false);
+        for (Category category : Category.values()) {
+            category.enabled = false;
+        }
+    }
+
+    // ================================
+    // 详细日志
+    // ================================
+
+    public static void verbose(Category category, String message) {
+        if (category.enabled) {
+            log(message, null);
+        }
+    }
+
+    public static void verbose(Category category, String message, Object arg) {
+        if (category.enabled) {
+            log(message, new Object[]{arg});
+        }
+    }
+
+    public static void verbose(Category category, String message, Object arg1, Object arg2) {
+        if (category.enabled) {
+            log(message, new Object[]{arg1, arg2});
+        }
+    }
+
+    public static void verbose(Category category, String message, Object... args) {
+        if (category.enabled) {
+            log(message, args);
+        }
+    }
+
+    private static void log(String message, Object[] args) {
+        AsyncLogAppender appender = asyncAppender;
+        if (appender == null || !appender.offer(logger, message, args)) {
+            write(logger, message, args);
+        }
+    }
+
+    static void write(Logger target, String message, Object[] args) {
+        if (args == null) {
+            target.info(message);
+        } else {
+            target.info(message, args);
+        }
+    }
+
+    // ================================
+    // 通用日志
+    // ================================
+
     /**
      * 记录信息日志
      */
     public static void info(String message, Object... args) {
         logger.info(message, args);
     }
-    
+
     /**
      * 记录警告日志
      */
     public static void warn(String message, Object... args) {
         logger.warn(message, args);
     }
-    
+
     /**
      * 记录错误日志
      */
     public static void error(String message, Object... args) {
         logger.error(message, args);
     }
-    
+
     /**
      * 记录调试日志
      */
     public static void debug(String message, Object... args) {
         logger.debug(message, args);
     }
-    
+
     /**
      * 记录详细日志
      */
     public static void trace(String message, Object... args) {
         logger.trace(message, args);
     }
-    
+
     /**
      * 获取原始Logger
      */
     public static Logger getLogger() {
         return logger;
     }
-    
+
     /**
      * 获取指定名称的Logger
      */
     public static Logger getLogger(String name) {
         return LoggerFactory.getLogger(name);
     }
-    
+
     /**
      * 获取指定类的Logger
      */
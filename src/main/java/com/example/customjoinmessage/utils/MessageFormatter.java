@@ -1,11 +1,11 @@
 package com.example.customjoinmessage.utils;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import com.example.customjoinmessage.core.CoarseClock;
+import com.example.customjoinmessage.placeholder.PlaceholderContext;
+import com.example.customjoinmessage.placeholder.PlaceholderRegistry;
+
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 消息格式化工具类
@@ -14,10 +14,8 @@ import java.util.regex.Pattern;
  */
 public class MessageFormatter {
     
-    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{([^}]+)\\}");
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // 系统占位符，只有模板引用时才会计算
+    private static final PlaceholderRegistry SYSTEM_PLACEHOLDERS = createSystemPlaceholders();
     
     /**
      * 格式化消息
@@ -27,28 +25,14 @@ public class MessageFormatter {
      * @return 格式化后的消息
      */
     public static String format(String template, Map<String, String> placeholders) {
-        if (template == null) {
-            return "";
-        }
-        
-        String result = template;
-        
-        // 添加系统占位符
-        Map<String, String> allPlaceholders = new HashMap<>(placeholders);
-        addSystemPlaceholders(allPlaceholders);
-        
-        // 替换占位符
-        Matcher matcher = PLACEHOLDER_PATTERN.matcher(result);
-        StringBuffer buffer = new StringBuffer();
-        
-        while (matcher.find()) {
-            String placeholder = matcher.group(1);
-            String replacement = allPlaceholders.getOrDefault(placeholder, matcher.group(0));
-            matcher.appendReplacement(buffer, Matcher.quoteReplacement(replacement));
-        }
-        matcher.appendTail(buffer);
-        
-        return buffer.toString();
+        return SYSTEM_PLACEHOLDERS.format(template, PlaceholderContext.of(placeholders));
+    }
+    
+    /**
+     * 获取系统占位符注册表（可注册额外的占位符提供者）
+     */
+    public static PlaceholderRegistry getSystemPlaceholders() {
+        return SYSTEM_PLACEHOLDERS;
     }
     
     /**
@@ -98,27 +82,34 @@ public class MessageFormatter {
     }
     
     /**
-     * 添加系统占位符
+     * 创建系统占位符注册表（只有模板引用时才会计算）
      */
-    private static void addSystemPlaceholders(Map<String, String> placeholders) {
-        LocalDateTime now = LocalDateTime.now();
+    private static PlaceholderRegistry createSystemPlaceholders() {
+        PlaceholderRegistry registry = new PlaceholderRegistry();
         
-        // 时间占位符
-        placeholders.put("time", TIME_FORMATTER.format(now));
-        placeholders.put("date", DATE_FORMATTER.format(now));
-        placeholders.put("datetime", DATETIME_FORMATTER.format(now));
+        // 时间占位符（读取粗粒度时钟每秒刷新的结果）
+        CoarseClock.Formatted time = CoarseClock.get().format("HH:mm:ss");
+        CoarseClock.Formatted date = CoarseClock.get().format("yyyy-MM-dd");
+        CoarseClock.Formatted datetime = CoarseClock.get().format("yyyy-MM-dd HH:mm:ss");
+        registry.register("time", context -> time.get());
+        registry.register("date", context -> date.get());
+        registry.register("datetime", context -> datetime.get());
         
-        // 系统信息占位符
-        placeholders.put("java_version", System.getProperty("java.version"));
-        placeholders.put("os_name", System.getProperty("os.name"));
-        placeholders.put("os_version", System.getProperty("os.version"));
+        // 系统信息占位符（运行期间不变）
+        String javaVersion = System.getProperty("java.version");
+        String osName = System.getProperty("os.name");
+        String osVersion = System.getProperty("os.version");
+        registry.register("java_version", context -> javaVersion);
+        registry.register("os_name", context -> osName);
+        registry.register("os_version", context -> osVersion);
         
         // 运行时信息
         Runtime runtime = Runtime.getRuntime();
-        placeholders.put("max_memory", formatBytes(runtime.maxMemory()));
-        placeholders.put("total_memory", formatBytes(runtime.totalMemory()));
-        placeholders.put("free_memory", formatBytes(runtime.freeMemory()));
-        placeholders.put("used_memory", formatBytes(runtime.totalMemory() - runtime.freeMemory()));
+        registry.register("max_memory", context -> formatBytes(runtime.maxMemory()), 1000);
+        registry.register("total_memory", context -> formatBytes(runtime.totalMemory()), 1000);
+        registry.register("free_memory", context -> formatBytes(runtime.freeMemory()), 1000);
+        registry.register("used_memory", context -> formatBytes(runtime.totalMemory() - runtime.freeMemory()), 1000);
+        return registry;
     }
     
     /**
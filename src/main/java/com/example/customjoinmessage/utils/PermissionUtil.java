@@ -1,6 +1,8 @@
 package com.example.customjoinmessage.utils;
 
 import com.example.customjoinmessage.config.PluginConfig;
+import com.example.customjoinmessage.core.PluginMetrics;
+import com.example.customjoinmessage.core.StageTracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -159,6 +161,7 @@ public class PermissionUtil {
      * 使用固定权限格式：customjoinmessage.权限组名
      */
     private static String findBestPermissionGroup(PermissionChecker checker) {
+        long startNanos = System.nanoTime();
         String bestGroup = DEFAULT_GROUP;
         int highestPriority = priorityMappings.getOrDefault(DEFAULT_GROUP, 0);
         
@@ -182,6 +185,8 @@ public class PermissionUtil {
             }
         }
         
+        PluginMetrics.get().recordSince(PluginMetrics.HistogramType.PERMISSION_RESOLUTION, startNanos);
+        StageTracer.stageEnd(StageTracer.Stage.PERMISSION_RESOLVE, startNanos);
         return bestGroup;
     }
     
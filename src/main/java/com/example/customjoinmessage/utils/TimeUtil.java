@@ -1,22 +1,47 @@
 package com.example.customjoinmessage.utils;
 
-import java.util.regex.Matcher;
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 /**
  * 时间工具类
  * 
  * 支持解析友好的时间格式，如: 1d30h5m, 2h, 30m, 7d等
+ * 以及 "X分钟前" 这类相对时间的本地化格式化
  */
 public class TimeUtil {
     
-    // 时间单位模式：支持 d(天), h(小时), m(分钟), s(秒)
-    private static final Pattern TIME_PATTERN = Pattern.compile("(\\d+)([dhms])");
+    // 预编译的校验模式
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private static final Pattern DIGITS_PATTERN = Pattern.compile("\\d+");
+    private static final Pattern TIME_FORMAT_PATTERN = Pattern.compile("^(\\d+[dhms])+$");
     
     // 时间单位对应的秒数
     private static final long SECONDS_PER_DAY = 24 * 60 * 60;     // 86400秒
     private static final long SECONDS_PER_HOUR = 60 * 60;        // 3600秒
     private static final long SECONDS_PER_MINUTE = 60;           // 60秒
+    private static final long SECONDS_PER_MONTH = 30 * SECONDS_PER_DAY;  // 2592000秒
+    private static final long SECONDS_PER_YEAR = 365 * SECONDS_PER_DAY;  // 31536000秒
+    
+    // 默认语言（与消息模板的默认语言一致）
+    public static final Locale DEFAULT_LOCALE = Locale.SIMPLIFIED_CHINESE;
+    
+    // 相对时间单位表（从大到小）
+    private static final long[] TIME_AGO_UNITS = {
+        SECONDS_PER_YEAR, SECONDS_PER_MONTH, SECONDS_PER_DAY, SECONDS_PER_HOUR, SECONDS_PER_MINUTE
+    };
+    
+    private static final TimeAgoLabels ZH_LABELS = new TimeAgoLabels(
+        "刚刚",
+        new String[] {"年前", "个月前", "天前", "小时前", "分钟前"},
+        new String[] {"年前", "个月前", "天前", "小时前", "分钟前"}
+    );
+    
+    private static final TimeAgoLabels EN_LABELS = new TimeAgoLabels(
+        "just now",
+        new String[] {" year ago", " month ago", " day ago", " hour ago", " minute ago"},
+        new String[] {" years ago", " months ago", " days ago", " hours ago", " minutes ago"}
+    );
     
     /**
      * 解析时间字符串为秒数
@@ -33,51 +58,66 @@ public class TimeUtil {
      * @return 对应的秒数，解析失败返回0
      */
     public static long parseTimeToSeconds(String timeString) {
-        if (timeString == null || timeString.trim().isEmpty()) {
+        if (timeString == null) {
             return 0;
         }
         
-        // 移除空格并转换为小写
-        String cleanTime = timeString.replaceAll("\\s+", "").toLowerCase();
-        
-        // 如果是纯数字，视为秒数（向后兼容）
-        if (cleanTime.matches("\\d+")) {
-            try {
-                return Long.parseLong(cleanTime);
-            } catch (NumberFormatException e) {
-                return 0;
-            }
-        }
-        
+        // 单次扫描：忽略空白和大小写，不创建中间字符串
         long totalSeconds = 0;
-        Matcher matcher = TIME_PATTERN.matcher(cleanTime);
+        long value = 0;
+        boolean hasDigits = false;
+        boolean digitsOnly = true;
+        boolean hasContent = false;
         
-        while (matcher.find()) {
-            long value = Long.parseLong(matcher.group(1));
-            String unit = matcher.group(2);
+        for (int i = 0, length = timeString.length(); i < length; i++) {
+            char c = timeString.charAt(i);
+            
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            hasContent = true;
             
-            switch (unit) {
-                case "d": // 天
-                    totalSeconds += value * SECONDS_PER_DAY;
-                    break;
-                case "h": // 小时
-                    totalSeconds += value * SECONDS_PER_HOUR;
-                    break;
-                case "m": // 分钟
-                    totalSeconds += value * SECONDS_PER_MINUTE;
-                    break;
-                case "s": // 秒
-                    totalSeconds += value;
-                    break;
-                default:
-                    // 忽略未知单位
-                    break;
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                hasDigits = true;
+                continue;
             }
+            
+            digitsOnly = false;
+            if (hasDigits) {
+                totalSeconds += value * unitSeconds(Character.toLowerCase(c));
+            }
+            // 未知单位或无数字前缀的字符直接忽略
+            value = 0;
+            hasDigits = false;
+        }
+        
+        // 如果是纯数字，视为秒数（向后兼容）
+        if (hasContent && digitsOnly) {
+            return value;
         }
         
         return totalSeconds;
     }
     
+    /**
+     * 获取时间单位对应的秒数，未知单位返回0
+     */
+    private static long unitSeconds(char unit) {
+        switch (unit) {
+            case 'd': // 天
+                return SECONDS_PER_DAY;
+            case 'h': // 小时
+                return SECONDS_PER_HOUR;
+            case 'm': // 分钟
+                return SECONDS_PER_MINUTE;
+            case 's': // 秒
+                return 1;
+            default:
+                return 0;
+        }
+    }
+    
     /**
      * 解析时间字符串为毫秒数
      * 
@@ -95,39 +135,122 @@ public class TimeUtil {
      * @return 友好的时间字符串，如 "1d2h30m" 或 "2h30m" 或 "45m"
      */
     public static String formatSecondsToTime(long seconds) {
+        return appendDuration(new StringBuilder(12), seconds).toString();
+    }
+    
+    /**
+     * 将秒数以友好格式追加到调用方提供的 StringBuilder
+     * 
+     * @param out 输出缓冲区
+     * @param seconds 秒数
+     * @return 传入的缓冲区
+     */
+    public static StringBuilder appendDuration(StringBuilder out, long seconds) {
         if (seconds <= 0) {
-            return "0s";
+            return out.append("0s");
         }
         
-        StringBuilder result = new StringBuilder();
+        int start = out.length();
         
         // 计算天数
         long days = seconds / SECONDS_PER_DAY;
         if (days > 0) {
-            result.append(days).append("d");
+            out.append(days).append('d');
             seconds %= SECONDS_PER_DAY;
         }
         
         // 计算小时数
         long hours = seconds / SECONDS_PER_HOUR;
         if (hours > 0) {
-            result.append(hours).append("h");
+            out.append(hours).append('h');
             seconds %= SECONDS_PER_HOUR;
         }
         
         // 计算分钟数
         long minutes = seconds / SECONDS_PER_MINUTE;
         if (minutes > 0) {
-            result.append(minutes).append("m");
+            out.append(minutes).append('m');
             seconds %= SECONDS_PER_MINUTE;
         }
         
         // 计算剩余秒数（只在没有其他单位时显示）
-        if (seconds > 0 && result.length() == 0) {
-            result.append(seconds).append("s");
+        if (seconds > 0 && out.length() == start) {
+            out.append(seconds).append('s');
+        }
+        
+        return out;
+    }
+    
+    /**
+     * 将经过的秒数格式化为 "X分钟前" 这类相对时间（默认语言）
+     */
+    public static String formatTimeAgo(long seconds) {
+        return formatTimeAgo(seconds, DEFAULT_LOCALE);
+    }
+    
+    /**
+     * 将经过的秒数格式化为相对时间
+     */
+    public static String formatTimeAgo(long seconds, Locale locale) {
+        return appendTimeAgo(new StringBuilder(16), seconds, locale).toString();
+    }
+    
+    /**
+     * 将相对时间追加到调用方提供的 StringBuilder（表驱动，不产生中间字符串）
+     * 
+     * @param out 输出缓冲区
+     * @param seconds 经过的秒数
+     * @param locale 语言，不支持的语言使用默认语言
+     * @return 传入的缓冲区
+     */
+    public static StringBuilder appendTimeAgo(StringBuilder out, long seconds, Locale locale) {
+        TimeAgoLabels labels = labelsFor(locale);
+        
+        for (int i = 0; i < TIME_AGO_UNITS.length; i++) {
+            long amount = seconds / TIME_AGO_UNITS[i];
+            if (amount > 0) {
+                return out.append(amount).append(amount == 1 ? labels.singular[i] : labels.plural[i]);
+            }
         }
         
-        return result.length() > 0 ? result.toString() : "0s";
+        return out.append(labels.justNow);
+    }
+    
+    /**
+     * 将消息中的占位符替换为相对时间（相对时间直接写入结果缓冲区，不产生中间字符串）
+     * 
+     * @param message 消息
+     * @param placeholder 占位符，例如 "{last_seen}"
+     * @param seconds 经过的秒数
+     * @param locale 语言
+     * @return 替换后的消息，不包含占位符时返回原消息
+     */
+    public static String replaceTimeAgo(String message, String placeholder, long seconds, Locale locale) {
+        int index = message.indexOf(placeholder);
+        if (index < 0) {
+            return message;
+        }
+        
+        StringBuilder out = new StringBuilder(message.length() + 16);
+        int from = 0;
+        do {
+            out.append(message, from, index);
+            appendTimeAgo(out, seconds, locale);
+            from = index + placeholder.length();
+            index = message.indexOf(placeholder, from);
+        } while (index >= 0);
+        
+        return out.append(message, from, message.length()).toString();
+    }
+    
+    /**
+     * 根据语言选择相对时间单位表
+     */
+    private static TimeAgoLabels labelsFor(Locale locale) {
+        if (locale != null && "en".equals(locale.getLanguage())) {
+            return EN_LABELS;
+        }
+        return ZH_LABELS;
     }
     
     /**
@@ -141,15 +264,15 @@ public class TimeUtil {
             return false;
         }
         
-        String cleanTime = timeString.replaceAll("\\s+", "").toLowerCase();
+        String cleanTime = WHITESPACE_PATTERN.matcher(timeString).replaceAll("").toLowerCase(Locale.ROOT);
         
         // 纯数字也是有效的（向后兼容）
-        if (cleanTime.matches("\\d+")) {
+        if (DIGITS_PATTERN.matcher(cleanTime).matches()) {
             return true;
         }
         
         // 检查是否完全匹配时间格式
-        return cleanTime.matches("^(\\d+[dhms])+$");
+        return TIME_FORMAT_PATTERN.matcher(cleanTime).matches();
     }
     
     /**
@@ -161,4 +284,19 @@ public class TimeUtil {
         return "时间格式支持: d(天), h(小时), m(分钟), s(秒)\n" +
                "示例: 1d (1天), 2h30m (2小时30分钟), 1d12h30m (1天12小时30分钟)";
     }
+    
+    /**
+     * 相对时间单位文本
+     */
+    private static final class TimeAgoLabels {
+        private final String justNow;
+        private final String[] singular;
+        private final String[] plural;
+        
+        private TimeAgoLabels(String justNow, String[] singular, String[] plural) {
+            this.justNow = justNow;
+            this.singular = singular;
+            this.plural = plural;
+        }
+    }
 }
\ No newline at end of file
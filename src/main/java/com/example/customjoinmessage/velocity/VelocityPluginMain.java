@@ -1,16 +1,22 @@
 package com.example.customjoinmessage.velocity;
 
 import com.example.customjoinmessage.core.CustomJoinMessagePlugin;
+import com.example.customjoinmessage.core.PluginCommand;
 import com.google.inject.Inject;
+import com.velocitypowered.api.command.CommandMeta;
+import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
 import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
+import com.velocitypowered.api.plugin.Dependency;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
+import net.kyori.adventure.text.Component;
 import org.slf4j.Logger;
 
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Velocity 插件入口点
@@ -22,7 +28,10 @@ import java.nio.file.Path;
     name = "CustomJoinMessage",
     version = "2.0.0",
     description = "Universal custom join and leave messages for Velocity/BungeeCord + Paper/Spigot/Folia",
-    authors = {"CustomJoinMessage Team"}
+    authors = {"CustomJoinMessage Team"},
+    dependencies = {
+        @Dependency(id = "miniplaceholders", optional = true)
+    }
 )
 public class VelocityPluginMain {
     
@@ -33,6 +42,9 @@ public class VelocityPluginMain {
     // 我们的统一插件实例
     private CustomJoinMessagePlugin customJoinMessagePlugin;
     
+    // 已注册的 /cjm 命令
+    private CommandMeta commandMeta;
+    
     /**
      * 构造函数 - Velocity依赖注入
      */
@@ -57,6 +69,9 @@ public class VelocityPluginMain {
             // 启用插件
             customJoinMessagePlugin.onEnable();
             
+            // 注册 /cjm 命令
+            registerCommand();
+            
             // 静默启动完成
             
         } catch (Exception e) {
@@ -72,6 +87,12 @@ public class VelocityPluginMain {
         try {
             // 静默关闭
             
+            // 注销命令
+            if (commandMeta != null) {
+                server.getCommandManager().unregister(commandMeta);
+                commandMeta = null;
+            }
+            
             // 禁用插件
             if (customJoinMessagePlugin != null) {
                 customJoinMessagePlugin.onDisable();
@@ -84,6 +105,35 @@ public class VelocityPluginMain {
         }
     }
     
+    /**
+     * 注册 /cjm 命令
+     */
+    private void registerCommand() {
+        commandMeta = server.getCommandManager().metaBuilder(PluginCommand.NAME)
+            .aliases(PluginCommand.ALIASES)
+            .plugin(this)
+            .build();
+        
+        server.getCommandManager().register(commandMeta, new SimpleCommand() {
+            @Override
+            public void execute(Invocation invocation) {
+                for (String line : PluginCommand.execute(invocation.arguments())) {
+                    invocation.source().sendMessage(Component.text(line));
+                }
+            }
+            
+            @Override
+            public boolean hasPermission(Invocation invocation) {
+                return invocation.source().hasPermission(PluginCommand.PERMISSION);
+            }
+            
+            @Override
+            public List<String> suggest(Invocation invocation) {
+                return PluginCommand.suggest(invocation.arguments());
+            }
+        });
+    }
+    
     // ================================
     // Getter 方法（给适配器使用）
     // ================================
@@ -0,0 +1,117 @@
+package com.example.customjoinmessage.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessagePoolTest {
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void skewedWeightsMatchDistribution() {
+        MessagePool pool = MessagePool.compile(List.of(
+            weighted("rare", 1),
+            weighted("common", 10),
+            weighted("dominant", 89)));
+
+        Map<String, Integer> counts = sample(pool, SAMPLES);
+
+        // 标准差最大约 0.0007，容差取 0.005
+        assertEquals(0.01, share(counts, "rare"), 0.005, "rare");
+        assertEquals(0.10, share(counts, "common"), 0.005, "common");
+        assertEquals(0.89, share(counts, "dominant"), 0.005, "dominant");
+    }
+
+    @Test
+    void plainListIsUniform() {
+        MessagePool pool = MessagePool.compile(List.of("a", "b", "c", "d"));
+
+        Map<String, Integer> counts = sample(pool, SAMPLES);
+
+        for (String message : List.of("a", "b", "c", "d")) {
+            assertEquals(0.25, share(counts, message), 0.005, message);
+        }
+    }
+
+    @Test
+    void disabledWeightsAreSkipped() {
+        MessagePool pool = MessagePool.compile(List.of(weighted("off", 0), weighted("on", 1)));
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals("on", pool.next());
+        }
+    }
+
+    @Test
+    void noRepeatWithSizeMinusOneCyclesThroughAllMessages() {
+        List<Object> messages = List.of(
+            weighted("a", 1),
+            weighted("b", 1),
+            weighted("c", 50),
+            weighted("d", 200));
+        MessagePool pool = MessagePool.compile(Map.of("no-repeat", messages.size() - 1, "messages", messages));
+
+        // 最近 size-1 次都不能再抽到，因此任意连续 size 次抽取互不相同（排除后只剩一条可选，权重不再起作用）
+        Deque<String> window = new ArrayDeque<>();
+        for (int i = 0; i < 10_000; i++) {
+            String message = pool.next();
+            assertNotNull(message);
+            assertFalse(window.contains(message), "repeated " + message + " within " + window);
+            window.addLast(message);
+            if (window.size() > messages.size() - 1) {
+                window.removeFirst();
+            }
+        }
+    }
+
+    @Test
+    void noRepeatLargerThanPoolLeavesOneChoice() {
+        MessagePool pool = MessagePool.compile(Map.of("no-repeat", 10, "messages", List.of("a", "b", "c")));
+
+        String previous = null;
+        String beforePrevious = null;
+        for (int i = 0; i < 1_000; i++) {
+            String message = pool.next();
+            assertNotNull(message);
+            assertTrue(!message.equals(previous) && !message.equals(beforePrevious),
+                message + " after " + beforePrevious + ", " + previous);
+            beforePrevious = previous;
+            previous = message;
+        }
+    }
+
+    @Test
+    void singleMessageAndEmptyPool() {
+        assertEquals("only", MessagePool.compile("only").next());
+        assertEquals("only", MessagePool.compile(Map.of("no-repeat", 3, "messages", List.of("only"))).next());
+        assertNull(MessagePool.compile(List.of()).next());
+        assertNull(MessagePool.compile(null).next());
+    }
+
+    private static Map<String, Object> weighted(String message, Number weight) {
+        return Map.of("message", message, "weight", weight);
+    }
+
+    private static Map<String, Integer> sample(MessagePool pool, int samples) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < samples; i++) {
+            counts.merge(pool.next(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static double share(Map<String, Integer> counts, String message) {
+        return counts.getOrDefault(message, 0) / (double) SAMPLES;
+    }
+}
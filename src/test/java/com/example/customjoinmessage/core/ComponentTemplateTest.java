@@ -0,0 +1,63 @@
+package com.example.customjoinmessage.core;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentTemplateTest {
+
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    private static final UnaryOperator<String> FORMATTER = slot -> slot.equals("{player}") ? "Steve" : slot;
+
+    @Test
+    void slotInTextIsReplaced() {
+        ComponentTemplate template = compile("<red>{player}</red> <gradient:red:blue>joined</gradient>");
+        assertTrue(template.isCompiled());
+        assertEquals("Steve joined", plain(template.render(FORMATTER)));
+    }
+
+    @Test
+    void slotInsideSplittingSectionIsUncompilable() {
+        for (String source : new String[] {
+            "<gradient:red:blue>{player} joined</gradient>",
+            "<rainbow>Hi {player}</rainbow>",
+            "<transition:red:blue:0.5>{player}</transition>",
+            "<GRADIENT:red:blue>{player}",
+            "<rainbow><bold>Hi</bold> {player}"
+        }) {
+            assertFalse(compile(source).isCompiled(), source);
+        }
+    }
+
+    @Test
+    void slotAfterClosedSectionIsCompiled() {
+        for (String source : new String[] {
+            "<rainbow>Hi</rainbow> {player}",
+            "<gradient:red:blue>Hi<reset> {player}"
+        }) {
+            ComponentTemplate template = compile(source);
+            assertTrue(template.isCompiled(), source);
+            assertEquals("Hi Steve", plain(template.render(FORMATTER)), source);
+        }
+    }
+
+    @Test
+    void slotInTagArgumentIsUncompilable() {
+        assertFalse(compile("<hover:show_text:'{player}'>Hi</hover>").isCompiled());
+    }
+
+    private static ComponentTemplate compile(String source) {
+        return ComponentTemplate.compile(source, MINI_MESSAGE::deserialize);
+    }
+
+    private static String plain(Component component) {
+        return MINI_MESSAGE.stripTags(MINI_MESSAGE.serialize(component));
+    }
+}
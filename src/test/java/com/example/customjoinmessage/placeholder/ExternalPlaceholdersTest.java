@@ -0,0 +1,152 @@
+package com.example.customjoinmessage.placeholder;
+
+import com.example.customjoinmessage.platform.ManualScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExternalPlaceholdersTest {
+
+    private static final UUID PLAYER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private ManualScheduler scheduler;
+    private FakeSource source;
+    private ExternalPlaceholders placeholders;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ManualScheduler();
+        source = new FakeSource(true);
+        placeholders = new ExternalPlaceholders(source, scheduler, 60_000);
+    }
+
+    @Test
+    void resolvesOncePerEvent() {
+        // 同一事件的多个接收者、多种语言都读取同一个占位符
+        for (int i = 0; i < 50; i++) {
+            assertEquals("[vault_prefix]", placeholders.resolve(PLAYER, "vault_prefix"));
+        }
+
+        assertEquals(1, source.getCalls("vault_prefix"));
+    }
+
+    @Test
+    void cachesUnresolvedValues() {
+        assertNull(placeholders.resolve(PLAYER, "missing"));
+        assertNull(placeholders.resolve(PLAYER, "missing"));
+
+        assertEquals(1, source.getCalls("missing"));
+    }
+
+    @Test
+    void prefetchFillsCache() {
+        placeholders.prefetch(PLAYER, List.of("vault_prefix", "vault_suffix"));
+        assertEquals(0, source.getTotalCalls());
+
+        scheduler.runAll();
+        assertEquals(2, source.getTotalCalls());
+        assertEquals(1, placeholders.getCachedPlayerCount());
+
+        // 欢迎消息直接读取预取结果
+        assertEquals("[vault_prefix]", placeholders.resolve(PLAYER, "vault_prefix"));
+        assertEquals("[vault_suffix]", placeholders.resolve(PLAYER, "vault_suffix"));
+        assertEquals(2, source.getTotalCalls());
+    }
+
+    @Test
+    void prefetchSkipsValuesResolvedByJoinMessage() {
+        placeholders.resolve(PLAYER, "vault_prefix");
+        placeholders.prefetch(PLAYER, List.of("vault_prefix", "vault_suffix"));
+        scheduler.runAll();
+
+        assertEquals(1, source.getCalls("vault_prefix"));
+        assertEquals(1, source.getCalls("vault_suffix"));
+    }
+
+    @Test
+    void invalidateOnQuitDropsCache() {
+        placeholders.resolve(PLAYER, "vault_prefix");
+        placeholders.invalidate(PLAYER);
+        assertEquals(0, placeholders.getCachedPlayerCount());
+
+        // 重新加入后重新解析
+        placeholders.resolve(PLAYER, "vault_prefix");
+        assertEquals(2, source.getCalls("vault_prefix"));
+    }
+
+    @Test
+    void prefetchAfterQuitDoesNotRecreateCache() {
+        placeholders.prefetch(PLAYER, List.of("vault_prefix"));
+        placeholders.invalidate(PLAYER);
+        scheduler.runAll();
+
+        assertEquals(0, placeholders.getCachedPlayerCount());
+        assertEquals(0, source.getTotalCalls());
+    }
+
+    @Test
+    void prefetchRunsOnPlayerThreadForThreadBoundSource() {
+        FakeSource threadBound = new FakeSource(false);
+        ExternalPlaceholders bound = new ExternalPlaceholders(threadBound, scheduler, 60_000);
+
+        bound.prefetch(PLAYER, List.of("vault_prefix"));
+        scheduler.runAll();
+
+        assertEquals(1, scheduler.getPlayerCount());
+        assertEquals(0, scheduler.getAsyncCount());
+        assertEquals(1, threadBound.getCalls("vault_prefix"));
+    }
+
+    @Test
+    void prefetchRunsAsyncForThreadSafeSource() {
+        placeholders.prefetch(PLAYER, List.of("vault_prefix"));
+
+        assertEquals(1, scheduler.getAsyncCount());
+        assertEquals(0, scheduler.getPlayerCount());
+    }
+
+    /**
+     * 记录调用次数的占位符来源（以 "missing" 开头的名称无法解析）
+     */
+    private static final class FakeSource implements ExternalPlaceholderSource {
+        private final boolean threadSafe;
+        private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        private FakeSource(boolean threadSafe) {
+            this.threadSafe = threadSafe;
+        }
+
+        @Override
+        public String getName() {
+            return "Fake";
+        }
+
+        @Override
+        public String resolve(UUID playerId, String name) {
+            calls.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            return name.startsWith("missing") ? null : "[" + name + "]";
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return threadSafe;
+        }
+
+        private int getCalls(String name) {
+            AtomicInteger count = calls.get(name);
+            return count != null ? count.get() : 0;
+        }
+
+        private int getTotalCalls() {
+            return calls.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+    }
+}
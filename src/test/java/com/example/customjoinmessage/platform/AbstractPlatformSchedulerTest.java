@@ -0,0 +1,41 @@
+package com.example.customjoinmessage.platform;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class AbstractPlatformSchedulerTest {
+
+    @Test
+    void runAsyncStaysOffCallerThreadAfterShutdown() throws Exception {
+        AbstractPlatformScheduler scheduler = new AbstractPlatformScheduler() {
+            @Override
+            public void runLater(Runnable task, long delayMillis) {
+                task.run();
+            }
+
+            @Override
+            public void runForPlayer(UUID playerId, Runnable task, Runnable retired, long delayMillis) {
+                task.run();
+            }
+        };
+        Thread caller = Thread.currentThread();
+
+        assertNotEquals(caller, runAsyncThread(scheduler));
+
+        // 适配器禁用后重新启用（模式切换），异步任务不能退化为在事件线程上执行
+        scheduler.shutdown();
+        assertNotEquals(caller, runAsyncThread(scheduler));
+        scheduler.shutdown();
+    }
+
+    private static Thread runAsyncThread(PlatformScheduler scheduler) throws Exception {
+        CompletableFuture<Thread> thread = new CompletableFuture<>();
+        scheduler.runAsync(() -> thread.complete(Thread.currentThread()));
+        return thread.get(5, TimeUnit.SECONDS);
+    }
+}
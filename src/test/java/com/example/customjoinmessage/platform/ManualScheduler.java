@@ -0,0 +1,115 @@
+package com.example.customjoinmessage.platform;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 手动推进的调度器替身
+ *
+ * 任务只记录不执行，由测试通过 advance / runAll 按到期时间顺序执行；
+ * 时钟同样由 advance 推进，可注入到被测对象中
+ */
+public class ManualScheduler implements PlatformScheduler {
+
+    private final List<ScheduledTask> tasks = new ArrayList<>();
+    private long now;
+    private long sequence;
+    private int asyncCount;
+    private int playerCount;
+
+    @Override
+    public void runLater(Runnable task, long delayMillis) {
+        schedule(task, delayMillis);
+    }
+
+    @Override
+    public void runForPlayer(UUID playerId, Runnable task, Runnable retired, long delayMillis) {
+        playerCount++;
+        schedule(task, delayMillis);
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        asyncCount++;
+        schedule(task, 0);
+    }
+
+    @Override
+    public void shutdown() {
+        tasks.clear();
+    }
+
+    /**
+     * 当前时间（毫秒）
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * 推进时钟，并按顺序执行期间到期的任务（包括执行中新调度的任务）
+     */
+    public void advance(long millis) {
+        long target = now + millis;
+        while (true) {
+            ScheduledTask next = tasks.stream()
+                .filter(task -> task.dueMillis <= target)
+                .min(Comparator.comparingLong((ScheduledTask task) -> task.dueMillis)
+                    .thenComparingLong(task -> task.sequence))
+                .orElse(null);
+            if (next == null) {
+                break;
+            }
+            tasks.remove(next);
+            now = Math.max(now, next.dueMillis);
+            next.task.run();
+        }
+        now = target;
+    }
+
+    /**
+     * 执行所有已到期的任务（不推进时钟）
+     */
+    public void runAll() {
+        advance(0);
+    }
+
+    /**
+     * 尚未执行的任务数
+     */
+    public int getPendingCount() {
+        return tasks.size();
+    }
+
+    /**
+     * 通过 runAsync 提交的任务数
+     */
+    public int getAsyncCount() {
+        return asyncCount;
+    }
+
+    /**
+     * 通过 runForPlayer 提交的任务数
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        tasks.add(new ScheduledTask(task, now + Math.max(0, delayMillis), sequence++));
+    }
+
+    private static final class ScheduledTask {
+        private final Runnable task;
+        private final long dueMillis;
+        private final long sequence;
+
+        private ScheduledTask(Runnable task, long dueMillis, long sequence) {
+            this.task = task;
+            this.dueMillis = dueMillis;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.customjoinmessage.platform;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SwitchDebouncerTest {
+
+    private static final UUID ALICE = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID BOB = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+    private static final long WINDOW = 1_000;
+
+    private ManualScheduler scheduler;
+    private List<String> emitted;
+    private SwitchDebouncer<String, String> debouncer;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new ManualScheduler();
+        emitted = new ArrayList<>();
+        debouncer = new SwitchDebouncer<>(scheduler,
+            (player, from, to) -> emitted.add(player + ":" + from + "->" + to + "@" + scheduler.now()),
+            scheduler::now);
+    }
+
+    @Test
+    void collapsesChainIntoOriginAndDestination() {
+        debouncer.submit(ALICE, "alice", "A", "B", WINDOW);
+        scheduler.advance(300);
+        debouncer.submit(ALICE, "alice", "B", "C", WINDOW);
+
+        // 原窗口到期时链已被延长
+        scheduler.advance(800);
+        assertEquals(List.of(), emitted);
+        assertEquals(1, debouncer.getPendingCount());
+
+        scheduler.advance(500);
+        assertEquals(List.of("alice:A->C@1300"), emitted);
+        assertEquals(0, debouncer.getPendingCount());
+    }
+
+    @Test
+    void dropsRoundTrip() {
+        debouncer.submit(ALICE, "alice", "A", "B", WINDOW);
+        scheduler.advance(200);
+        debouncer.submit(ALICE, "alice", "B", "A", WINDOW);
+        scheduler.advance(5 * WINDOW);
+
+        assertEquals(List.of(), emitted);
+        assertEquals(0, debouncer.getPendingCount());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    void capsChainAtFourWindows() {
+        // 每 900ms 切换一次，始终在窗口内
+        for (int i = 0; i < 5; i++) {
+            debouncer.submit(ALICE, "alice", "S" + i, "S" + (i + 1), WINDOW);
+            scheduler.advance(900);
+        }
+        // 链从 0 开始，最迟在 4 倍窗口处发送
+        assertEquals(List.of("alice:S0->S5@4000"), emitted);
+
+        // 后续切换开始新的链
+        debouncer.submit(ALICE, "alice", "S5", "S6", WINDOW);
+        scheduler.advance(WINDOW);
+        assertEquals(List.of("alice:S0->S5@4000", "alice:S5->S6@5500"), emitted);
+    }
+
+    @Test
+    void cancelOnQuitDropsPendingChain() {
+        debouncer.submit(ALICE, "alice", "A", "B", WINDOW);
+        debouncer.submit(BOB, "bob", "A", "C", WINDOW);
+        debouncer.cancel(ALICE);
+        scheduler.advance(WINDOW);
+
+        assertEquals(List.of("bob:A->C@1000"), emitted);
+        assertEquals(0, debouncer.getPendingCount());
+    }
+
+    @Test
+    void rejoinAfterCancelStartsNewChain() {
+        debouncer.submit(ALICE, "alice", "A", "B", WINDOW);
+        debouncer.cancel(ALICE);
+        scheduler.advance(500);
+        debouncer.submit(ALICE, "alice", "A", "C", WINDOW);
+
+        // 被取消的链的到期检查不会提前发送新链
+        scheduler.advance(500);
+        assertEquals(List.of(), emitted);
+        scheduler.advance(500);
+        assertEquals(List.of("alice:A->C@1500"), emitted);
+    }
+
+    @Test
+    void zeroWindowEmitsImmediately() {
+        debouncer.submit(ALICE, "alice", "A", "B", 0);
+
+        assertEquals(List.of("alice:A->B@0"), emitted);
+        assertEquals(0, scheduler.getPendingCount());
+    }
+}
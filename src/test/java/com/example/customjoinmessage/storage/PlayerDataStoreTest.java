@@ -0,0 +1,157 @@
+package com.example.customjoinmessage.storage;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerDataStoreTest {
+
+    private static final UUID PLAYER = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    private File dataFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataFile = Files.createTempFile("cjm-players", ".json").toFile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataFile.delete();
+    }
+
+    @Test
+    void bungeeStoreWritesEpochSeconds() throws Exception {
+        PlayerDataStore store = new PlayerDataStore(dataFile, TimeUnit.SECONDS, Runnable::run);
+        long before = System.currentTimeMillis() / 1000;
+        store.recordSeen(PLAYER, "Steve");
+        store.close();
+
+        JsonObject record = readRecord();
+        long lastSeen = record.get("lastSeen").getAsLong();
+        assertTrue(lastSeen >= before && lastSeen <= before + 5, "lastSeen=" + lastSeen);
+        assertEquals("Steve", record.get("name").getAsString());
+    }
+
+    @Test
+    void bungeeStoreReadsLegacyRecords() throws Exception {
+        long lastSeen = System.currentTimeMillis() / 1000 - 3_600;
+        write("{\"" + PLAYER + "\": {\"name\": \"Steve\", \"lastSeen\": " + lastSeen + "}}");
+
+        PlayerDataStore store = new PlayerDataStore(dataFile, TimeUnit.SECONDS, Runnable::run);
+        assertTrue(store.hasRecord(PLAYER));
+        assertEquals(lastSeen, store.getLastSeenSeconds(PLAYER));
+        store.close();
+    }
+
+    @Test
+    void velocityStoreWritesAndReadsMilliseconds() throws Exception {
+        long lastSeenMillis = System.currentTimeMillis() - 60_000;
+        write("{\"" + PLAYER + "\": {\"name\": \"Steve\", \"firstJoinTime\": " + lastSeenMillis
+            + ", \"lastSeen\": " + lastSeenMillis + "}}");
+
+        PlayerDataStore store = new PlayerDataStore(dataFile, TimeUnit.MILLISECONDS, Runnable::run);
+        assertEquals(lastSeenMillis / 1000, store.getLastSeenSeconds(PLAYER));
+        assertTrue(store.updateLastSeen(PLAYER, "Alex"));
+        store.close();
+
+        JsonObject record = readRecord();
+        assertEquals(lastSeenMillis, record.get("firstJoinTime").getAsLong());
+        assertTrue(record.get("lastSeen").getAsLong() > lastSeenMillis);
+        assertEquals("Alex", record.get("name").getAsString());
+    }
+
+    @Test
+    void missingPlayerHasNoRecord() {
+        PlayerDataStore store = new PlayerDataStore(dataFile, TimeUnit.MILLISECONDS, Runnable::run);
+        assertFalse(store.hasRecord(PLAYER));
+        assertEquals(0, store.getLastSeenSeconds(PLAYER));
+        assertFalse(store.updateLastSeen(PLAYER, "Steve"));
+        store.close();
+    }
+
+    @Test
+    void unorderedWritesKeepLatestState() throws Exception {
+        // 每次写回一个新线程，执行顺序不确定（与 PlatformScheduler.runAsync 相同）
+        ExecutorService executor = Executors.newCachedThreadPool();
+        PlayerDataStore store = new PlayerDataStore(dataFile, TimeUnit.MILLISECONDS, executor);
+        UUID[] players = new UUID[500];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new UUID(1, i);
+            store.saveRecord(players[i], "Player" + i);
+        }
+        Thread.sleep(5);
+        for (int i = 0; i < players.length; i++) {
+            store.updateLastSeen(players[i], "Renamed" + i);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // 不调用 close：异步写回本身必须留下最新的索引
+        JsonObject data = JsonParser.parseString(Files.readString(dataFile.toPath(), StandardCharsets.UTF_8))
+            .getAsJsonObject();
+        assertEquals(players.length, data.size());
+        for (int i = 0; i < players.length; i++) {
+            JsonObject record = data.getAsJsonObject(players[i].toString());
+            assertEquals("Renamed" + i, record.get("name").getAsString());
+            assertTrue(record.get("lastSeen").getAsLong() > record.get("firstJoinTime").getAsLong());
+        }
+    }
+
+    @Test
+    void rejectedWriteIsRetriedOnNextChange() throws Exception {
+        AtomicInteger submissions = new AtomicInteger();
+        PlayerDataStore store = new PlayerDataStore(dataFile, TimeUnit.MILLISECONDS, task -> {
+            if (submissions.incrementAndGet() == 1) {
+                throw new RejectedExecutionException("closed");
+            }
+            task.run();
+        });
+
+        store.saveRecord(PLAYER, "Steve");
+        store.saveRecord(new UUID(0, 2), "Alex");
+
+        assertEquals(2, submissions.get());
+        assertEquals(2, JsonParser.parseString(Files.readString(dataFile.toPath(), StandardCharsets.UTF_8))
+            .getAsJsonObject().size());
+    }
+
+    @Test
+    void storeIsUsableAfterClose() throws Exception {
+        PlayerDataStore store = new PlayerDataStore(dataFile, TimeUnit.MILLISECONDS, task -> { });
+        store.saveRecord(PLAYER, "Steve");
+        store.close();
+
+        // 适配器重新启用后继续写回
+        store.recordSeen(new UUID(0, 2), "Alex");
+        store.close();
+
+        assertEquals(2, JsonParser.parseString(Files.readString(dataFile.toPath(), StandardCharsets.UTF_8))
+            .getAsJsonObject().size());
+    }
+
+    private void write(String json) throws Exception {
+        Files.writeString(dataFile.toPath(), json, StandardCharsets.UTF_8);
+    }
+
+    private JsonObject readRecord() throws Exception {
+        String json = Files.readString(dataFile.toPath(), StandardCharsets.UTF_8);
+        return JsonParser.parseString(json).getAsJsonObject().getAsJsonObject(PLAYER.toString());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.customjoinmessage.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TimeUtilTest {
+
+    @Test
+    void replaceTimeAgoMatchesFormatAndReplace() {
+        String message = "Welcome back! Last seen {last_seen}, again: {last_seen}.";
+        for (long seconds : new long[] {0, 1, 59, 60, 3_600, 86_400, 4_000_000}) {
+            for (Locale locale : new Locale[] {Locale.ENGLISH, Locale.SIMPLIFIED_CHINESE}) {
+                assertEquals(message.replace("{last_seen}", TimeUtil.formatTimeAgo(seconds, locale)),
+                    TimeUtil.replaceTimeAgo(message, "{last_seen}", seconds, locale));
+            }
+        }
+    }
+
+    @Test
+    void replaceTimeAgoWithoutPlaceholderReturnsSameMessage() {
+        String message = "Welcome!";
+        assertSame(message, TimeUtil.replaceTimeAgo(message, "{last_seen}", 60, Locale.ENGLISH));
+    }
+}